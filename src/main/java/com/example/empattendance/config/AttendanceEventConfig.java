@@ -0,0 +1,24 @@
+package com.example.empattendance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AttendanceEventConfig {
+
+  /**
+   * Executor that runs attendance event handlers off the request thread. Events are striped by
+   * employee id, so one employee's events are handled one at a time in commit order while other
+   * employees' events run in parallel. When a stripe's queue is full the publishing thread waits
+   * for room, so events slow callers down rather than being dropped or reordered.
+   *
+   * @return StripedExecutor
+   */
+  @Bean
+  public StripedExecutor attendanceEventExecutor(
+      @Value("${attendance.events.pool-size:4}") int poolSize,
+      @Value("${attendance.events.queue-capacity:10000}") int queueCapacity) {
+    return new StripedExecutor("attendance-events-", poolSize, Math.max(1, queueCapacity / poolSize), 30);
+  }
+}
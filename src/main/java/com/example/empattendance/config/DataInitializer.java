@@ -4,6 +4,7 @@ import com.example.empattendance.model.Department;
 import com.example.empattendance.model.Employee;
 import com.example.empattendance.model.EmployeeType;
 import com.example.empattendance.model.Gender;
+import com.example.empattendance.repository.AttendanceDailySummaryRepository;
 import com.example.empattendance.repository.AttendanceRepository;
 import com.example.empattendance.repository.DepartmentRepository;
 import com.example.empattendance.repository.EmployeeRepository;
@@ -30,6 +31,9 @@ public class DataInitializer implements CommandLineRunner {
   @Autowired 
   private AttendanceRepository attRepository;
 
+  @Autowired
+  private AttendanceDailySummaryRepository summaryRepository;
+
   private final Faker faker = new Faker();
   private final Random random = new Random();
 
@@ -40,9 +44,10 @@ public class DataInitializer implements CommandLineRunner {
    */
   @Override
   public void run(String... args) {
-    attRepository.deleteAll();
-    employeeRepository.deleteAll();
-    departmentRepository.deleteAll();
+    summaryRepository.deleteAllInBatch();
+    attRepository.deleteAllInBatch();
+    employeeRepository.deleteAllInBatch();
+    departmentRepository.deleteAllInBatch();
    
     // Create fake departments
     List<Department> departments = new ArrayList<>();
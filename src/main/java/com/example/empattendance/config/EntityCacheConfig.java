@@ -0,0 +1,90 @@
+package com.example.empattendance.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+/**
+ * Hibernate second-level cache for reference data. Departments and employees are cached per entity
+ * and the paged employee listings per page, each region bounded in size and age.
+ * Hibernate evicts entries when those entities are written through JPA, and drops cached query
+ * results whenever the employees table changes. Hit, miss and eviction counts for every region are
+ * published as {@code cache.*} meters on the actuator metrics endpoint.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+  public static final String DEPARTMENTS = "departments";
+  public static final String EMPLOYEES = "employees";
+  public static final String EMPLOYEE_PAGES = "employeePages";
+
+  /** Hibernate's default region names for query results and per-table update timestamps. */
+  private static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+  private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+  @Value("${entity-cache.ttl:PT30M}")
+  private Duration ttl;
+
+  @Value("${entity-cache.departments.max-entries:1000}")
+  private long departmentEntries;
+
+  @Value("${entity-cache.employees.max-entries:50000}")
+  private long employeeEntries;
+
+  @Value("${entity-cache.employee-pages.max-entries:1000}")
+  private long employeePageEntries;
+
+  @Bean(destroyMethod = "close")
+  public CacheManager entityCacheManager(MeterRegistry meterRegistry) {
+    // A manager of its own: the provider's default one is shared by every context in the JVM, and a
+    // second context would fail creating regions that already exist
+    CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    CacheManager cacheManager = provider.getCacheManager(
+        URI.create("empattendance:entity-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+    createRegion(cacheManager, meterRegistry, DEPARTMENTS, OptionalLong.of(departmentEntries), true);
+    createRegion(cacheManager, meterRegistry, EMPLOYEES, OptionalLong.of(employeeEntries), true);
+    createRegion(cacheManager, meterRegistry, EMPLOYEE_PAGES, OptionalLong.of(employeePageEntries), true);
+    createRegion(cacheManager, meterRegistry, DEFAULT_QUERY_RESULTS, OptionalLong.of(employeePageEntries), true);
+    // Timestamps must outlive every cached query result, so this region is neither bounded nor expired
+    createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS, OptionalLong.empty(), false);
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+    return properties -> {
+      properties.put("hibernate.cache.use_second_level_cache", true);
+      properties.put("hibernate.cache.use_query_cache", true);
+      properties.put("hibernate.cache.region.factory_class", "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+    };
+  }
+
+  private void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String name,
+      OptionalLong maximumSize, boolean expires) {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+        .setMaximumSize(maximumSize)
+        .setExpireAfterWrite(expires ? OptionalLong.of(ttl.toNanos()) : OptionalLong.empty())
+        .setStatisticsEnabled(true);
+    Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+    JCacheMetrics.monitor(meterRegistry, cache, List.of());
+  }
+}
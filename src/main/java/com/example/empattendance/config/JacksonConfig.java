@@ -0,0 +1,20 @@
+package com.example.empattendance.config;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serializes Hibernate proxies without initializing them. An association the endpoint's query did
+ * not fetch is written as its ID ({@code {"id": 7}}) instead of triggering a select per row, so
+ * each repository method decides what a response contains through its fetch plan.
+ */
+@Configuration
+public class JacksonConfig {
+
+  @Bean
+  public Hibernate6Module hibernate6Module() {
+    return new Hibernate6Module()
+        .enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.empattendance.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller endpoint is expected to run per request. Requests
+ * that go over it are logged by {@link SqlStatementCountFilter}; endpoints without the annotation
+ * use {@code sql.statements.budget.default}. Jobs whose statement count grows with the data they
+ * process, such as chunked bulk writes, declare {@link #UNBOUNDED}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlStatementBudget {
+
+  /** Budget for endpoints whose statement count scales with the data rather than the request. */
+  int UNBOUNDED = Integer.MAX_VALUE;
+
+  int value();
+}
@@ -0,0 +1,102 @@
+package com.example.empattendance.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each HTTP request runs. The count is sent back in the
+ * {@value #HEADER} header, recorded in the {@code http.server.requests.sql.statements}
+ * distribution and compared with the endpoint's {@link SqlStatementBudget}; a request over budget
+ * logs a warning listing the statements it ran. Runs ahead of the security filters so their
+ * lookups are counted too. Streamed response bodies written after the handler returns are not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-SQL-Statement-Count";
+
+  private static final Logger log = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+  @Autowired
+  private SqlStatementTracker tracker;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${sql.statements.budget.default:10}")
+  private int defaultBudget;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    SqlStatementTracker.Scope scope = tracker.begin();
+    // The header has to be set before the first byte of the body is written
+    HttpServletResponse countingResponse = new OnCommittedResponseWrapper(response) {
+      @Override
+      protected void onResponseCommitted() {
+        response.setHeader(HEADER, String.valueOf(scope.getCount()));
+      }
+    };
+    try {
+      chain.doFilter(request, countingResponse);
+    } finally {
+      tracker.end(scope);
+      if (!response.isCommitted()) {
+        response.setHeader(HEADER, String.valueOf(scope.getCount()));
+      }
+      record(request, scope);
+    }
+  }
+
+  private void record(HttpServletRequest request, SqlStatementTracker.Scope scope) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    DistributionSummary.builder("http.server.requests.sql.statements")
+        .description("SQL statements run per HTTP request")
+        .baseUnit("statements")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .register(meterRegistry)
+        .record(scope.getCount());
+
+    int budget = budgetFor(request);
+    if (scope.getCount() > budget) {
+      log.atWarn()
+          .addKeyValue("method", request.getMethod())
+          .addKeyValue("uri", uri)
+          .addKeyValue("statements", scope.getCount())
+          .addKeyValue("budget", budget)
+          .addKeyValue("sql", scope.getStatements())
+          .log("SQL statement budget exceeded: {} {} ran {} statements (budget {}): {}",
+              request.getMethod(), uri, scope.getCount(), budget, String.join("; ", scope.getStatements()));
+    }
+  }
+
+  private int budgetFor(HttpServletRequest request) {
+    if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+      SqlStatementBudget budget = handler.getMethodAnnotation(SqlStatementBudget.class);
+      if (budget != null) {
+        return budget.value();
+      }
+    }
+    return defaultBudget;
+  }
+}
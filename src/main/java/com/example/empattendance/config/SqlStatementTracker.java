@@ -0,0 +1,199 @@
+package com.example.empattendance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts the SQL statements sent to the database on the current thread while a tracking scope is
+ * open. The application's {@link DataSource} is wrapped so that every connection handed out inside
+ * a scope counts each statement it executes, whether it came from Hibernate, a native query or
+ * JdbcTemplate. A JDBC batch counts once, as it is sent in one round trip. Connections taken
+ * outside a scope are returned unwrapped, so scheduled jobs pay nothing for the tracking.
+ */
+@Component
+public class SqlStatementTracker implements BeanPostProcessor {
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  @Value("${sql.statements.capture-limit:50}")
+  private int captureLimit;
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+      return new CountingDataSource(dataSource);
+    }
+    return bean;
+  }
+
+  /**
+   * Start counting statements on this thread.
+   *
+   * @return the scope, to be passed to {@link #end} when the unit of work is done
+   */
+  public Scope begin() {
+    Scope scope = new Scope(captureLimit);
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /**
+   * Stop counting statements on this thread.
+   *
+   * @param scope scope returned by {@link #begin}
+   */
+  public void end(Scope scope) {
+    if (CURRENT.get() == scope) {
+      CURRENT.remove();
+    }
+  }
+
+  /** Statements run inside one tracking scope. Only ever touched by the thread that opened it. */
+  public static final class Scope {
+
+    private final int captureLimit;
+    private final List<String> statements = new ArrayList<>();
+    private int count;
+
+    private Scope(int captureLimit) {
+      this.captureLimit = captureLimit;
+    }
+
+    private void add(String sql) {
+      count++;
+      if (statements.size() < captureLimit) {
+        statements.add(sql);
+      }
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    /** The first statements run, up to the capture limit. */
+    public List<String> getStatements() {
+      return Collections.unmodifiableList(statements);
+    }
+  }
+
+  /** Hands out counting connections while a scope is open on the calling thread. */
+  static final class CountingDataSource extends DelegatingDataSource {
+
+    CountingDataSource(DataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+      Scope scope = CURRENT.get();
+      return scope != null ? proxy(Connection.class, new ConnectionHandler(connection, scope)) : connection;
+    }
+  }
+
+  /** Wraps the statements a connection creates so their executions are counted. */
+  private static final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+    private final Scope scope;
+
+    ConnectionHandler(Connection target, Scope scope) {
+      this.target = target;
+      this.scope = scope;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isIdentityMethod(method)) {
+        return identity(proxy, method, args);
+      }
+      Object result = invokeTarget(target, method, args);
+      String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+      return switch (method.getName()) {
+        case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null, scope));
+        case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler((Statement) result, sql, scope));
+        case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler((Statement) result, sql, scope));
+        default -> result;
+      };
+    }
+  }
+
+  /** Counts each execute call, and each batch sent, against the scope. */
+  private static final class StatementHandler implements InvocationHandler {
+
+    private final Statement target;
+    private final String preparedSql;
+    private final Scope scope;
+    private String batchSql;
+
+    StatementHandler(Statement target, String preparedSql, Scope scope) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+      this.scope = scope;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isIdentityMethod(method)) {
+        return identity(proxy, method, args);
+      }
+      String name = method.getName();
+      if (name.equals("addBatch") && args != null && args.length == 1) {
+        // Plain statements carry their SQL in addBatch; keep the first for the log
+        batchSql = batchSql != null ? batchSql : (String) args[0];
+      } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+        scope.add(preparedSql != null ? preparedSql : batchSql);
+        batchSql = null;
+      } else if (name.startsWith("execute")) {
+        scope.add(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+      }
+      return invokeTarget(target, method, args);
+    }
+  }
+
+  /** Proxies are kept in identity maps by Hibernate, so equality must not reach the target. */
+  private static boolean isIdentityMethod(Method method) {
+    return method.getDeclaringClass() == Object.class
+        && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+  }
+
+  private static Object identity(Object proxy, Method method, Object[] args) {
+    return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+  }
+
+  private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(SqlStatementTracker.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.empattendance.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A fixed set of single-thread executors, each with its own queue. Tasks submitted with the same
+ * key always land on the same stripe, so they run one at a time in submission order while tasks
+ * for other keys run in parallel. When a stripe's queue is full the submitter blocks until there
+ * is room rather than running the task itself, which would overtake the tasks already queued.
+ */
+public class StripedExecutor implements DisposableBean {
+
+  private final List<ThreadPoolTaskExecutor> stripes;
+
+  public StripedExecutor(String threadNamePrefix, int stripeCount, int queueCapacityPerStripe, int awaitTerminationSeconds) {
+    stripes = new ArrayList<>(stripeCount);
+    for (int i = 0; i < stripeCount; i++) {
+      ThreadPoolTaskExecutor stripe = new ThreadPoolTaskExecutor();
+      stripe.setThreadNamePrefix(threadNamePrefix + i + "-");
+      stripe.setCorePoolSize(1);
+      stripe.setMaxPoolSize(1);
+      stripe.setQueueCapacity(queueCapacityPerStripe);
+      // The worker must exist before the first blocking put, or nothing would drain the queue
+      stripe.setPrestartAllCoreThreads(true);
+      stripe.setRejectedExecutionHandler(StripedExecutor::waitForRoom);
+      stripe.setWaitForTasksToCompleteOnShutdown(true);
+      stripe.setAwaitTerminationSeconds(awaitTerminationSeconds);
+      stripe.initialize();
+      stripes.add(stripe);
+    }
+  }
+
+  /**
+   * Run a task after every task previously submitted with the same key.
+   *
+   * @param key ordering key, such as an employee id
+   * @param task task to run
+   */
+  public void execute(long key, Runnable task) {
+    stripes.get((int) Math.floorMod(key, (long) stripes.size())).execute(task);
+  }
+
+  /** Number of stripes; keys equal modulo this count share a stripe. */
+  public int getStripeCount() {
+    return stripes.size();
+  }
+
+  /** Tasks waiting across all stripes. */
+  public int getQueueSize() {
+    return stripes.stream().mapToInt(stripe -> stripe.getThreadPoolExecutor().getQueue().size()).sum();
+  }
+
+  @Override
+  public void destroy() {
+    stripes.forEach(ThreadPoolTaskExecutor::shutdown);
+  }
+
+  private static void waitForRoom(Runnable task, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    try {
+      executor.getQueue().put(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+    }
+  }
+}
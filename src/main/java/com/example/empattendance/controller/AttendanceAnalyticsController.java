@@ -0,0 +1,104 @@
+package com.example.empattendance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.AttendanceAnalyticsFilter;
+import com.example.empattendance.dto.AttendanceAnalyticsRow;
+import com.example.empattendance.dto.CustomApiDataResponse;
+import com.example.empattendance.dto.CustomApiResponse;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.service.AttendanceAnalyticsStore;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/attendances/analytics")
+@Tag(name = "Attendance Analytics APIs", description = "Organisation-wide attendance aggregates answered from an in-memory column store")
+public class AttendanceAnalyticsController {
+
+  @Autowired
+  private AttendanceAnalyticsStore analyticsStore;
+
+  /**
+   * Aggregate attendance API.
+   *
+   * @param groupBy DEPARTMENT, EMPLOYEE_TYPE or ATTENDANCE_TYPE
+   * @param startDate first day counted (YYYY-MM-DD), unbounded when omitted
+   * @param endDate last day counted (YYYY-MM-DD), unbounded when omitted
+   * @param employeeId only count this employee's records
+   * @param departmentId only count records of employees in this department
+   * @param employeeType only count records of MEDICAL or NON_MEDICAL employees
+   * @param type only count records of this attendance type
+   * @param lateAfter sign ins after this time (HH:mm) count as late, defaults to the configured time
+   * @return ResponseEntity containing a CustomApiDataResponse with record, late arrival and worked time totals per group,
+   * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.BAD_REQUEST if a parameter is not valid.
+   */
+  @Operation(summary = "Aggregate attendance", description = "Records, late arrivals and average hours grouped by department, employee type or attendance type")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Aggregate computed"),
+        @ApiResponse(responseCode = "400", description = "A parameter is not valid")
+      }
+  )
+  @SqlStatementBudget(0)
+  @GetMapping
+  public ResponseEntity<?> aggregate(@RequestParam String groupBy,
+      @RequestParam(required = false) String startDate, @RequestParam(required = false) String endDate,
+      @RequestParam(required = false) Long employeeId, @RequestParam(required = false) Long departmentId,
+      @RequestParam(required = false) String employeeType, @RequestParam(required = false) String type,
+      @RequestParam(required = false) String lateAfter) {
+    AttendanceAnalyticsStore.Dimension dimension;
+    AttendanceAnalyticsFilter filter = new AttendanceAnalyticsFilter();
+    filter.setEmployeeId(employeeId);
+    filter.setDepartmentId(departmentId);
+    try {
+      dimension = AttendanceAnalyticsStore.Dimension.valueOf(groupBy.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Group by must be DEPARTMENT, EMPLOYEE_TYPE or ATTENDANCE_TYPE."), HttpStatus.BAD_REQUEST);
+    }
+    try {
+      if (employeeType != null && !employeeType.isEmpty()) {
+        filter.setEmployeeType(EmployeeType.valueOf(employeeType.toUpperCase()));
+      }
+      if (type != null && !type.isEmpty()) {
+        filter.setAttendanceType(AttendanceType.valueOf(type.toUpperCase()));
+      }
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Employee type must be MEDICAL or NON_MEDICAL and type PRESENT, ABSENT or SICK_LEAVE."), HttpStatus.BAD_REQUEST);
+    }
+    try {
+      if (startDate != null && !startDate.isEmpty()) {
+        filter.setStartDate(LocalDate.parse(startDate));
+      }
+      if (endDate != null && !endDate.isEmpty()) {
+        filter.setEndDate(LocalDate.parse(endDate));
+      }
+    } catch (DateTimeParseException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Start date and end date should be valid LocalDates in ISO format (YYYY-MM-DD)."), HttpStatus.BAD_REQUEST);
+    }
+    try {
+      if (lateAfter != null && !lateAfter.isEmpty()) {
+        filter.setLateAfter(LocalTime.parse(lateAfter));
+      }
+    } catch (DateTimeParseException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Late after should be a valid time (HH:mm)."), HttpStatus.BAD_REQUEST);
+    }
+    if (filter.getStartDate() != null && filter.getEndDate() != null && filter.getStartDate().isAfter(filter.getEndDate())) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Start date must be before or equal to end date."), HttpStatus.BAD_REQUEST);
+    }
+    List<AttendanceAnalyticsRow> rows = analyticsStore.aggregate(dimension, filter);
+    return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Attendance aggregate computed.", rows), HttpStatus.OK);
+  }
+}
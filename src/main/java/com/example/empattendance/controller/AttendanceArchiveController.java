@@ -0,0 +1,74 @@
+package com.example.empattendance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.ArchiveSegmentReport;
+import com.example.empattendance.dto.CustomApiDataResponse;
+import com.example.empattendance.service.AttendanceArchiveService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/attendances/archive")
+@Tag(name = "Attendance Archive APIs", description = "Archiving of closed months and verification of archive segments")
+public class AttendanceArchiveController {
+
+  @Autowired
+  private AttendanceArchiveService archiveService;
+
+  /**
+   * Verify archive segments API.
+   *
+   * @return ResponseEntity containing a CustomApiDataResponse with one report per archived month,
+   * a success flag, and a message. Returns HttpStatus.OK if every segment matches the row count and
+   * checksum it was written with, or HttpStatus.CONFLICT if any does not.
+   */
+  @Operation(summary = "Verify archive segments", description = "Decode every archived month and compare its rows and checksum with those recorded from the source")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "All segments verified"),
+        @ApiResponse(responseCode = "409", description = "At least one segment failed verification")
+      }
+  )
+  @SqlStatementBudget(1)
+  @GetMapping("/segments")
+  public ResponseEntity<?> verifySegments() {
+    List<ArchiveSegmentReport> reports = archiveService.verify();
+    if (reports.stream().allMatch(ArchiveSegmentReport::isValid)) {
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "All archive segments verified.", reports), HttpStatus.OK);
+    }
+    return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Some archive segments failed verification.", reports), HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Archive closed months API.
+   *
+   * @return ResponseEntity containing a CustomApiDataResponse with one report per month archived,
+   * a success flag, and a message. Returns HttpStatus.OK if every month was archived, or
+   * HttpStatus.CONFLICT if a month failed verification and was left in attendancerecords.
+   */
+  @Operation(summary = "Archive closed months", description = "Move months older than the retention period out of attendancerecords into archive segments")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Closed months archived"),
+        @ApiResponse(responseCode = "409", description = "A month failed verification and was not removed")
+      }
+  )
+  @SqlStatementBudget(SqlStatementBudget.UNBOUNDED)
+  @PostMapping("/run")
+  public ResponseEntity<?> archiveClosedMonths() {
+    List<ArchiveSegmentReport> reports = archiveService.archiveClosedMonths();
+    if (reports.stream().allMatch(ArchiveSegmentReport::isValid)) {
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Closed months archived.", reports), HttpStatus.OK);
+    }
+    return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Some months failed verification and were not archived.", reports), HttpStatus.CONFLICT);
+  }
+}
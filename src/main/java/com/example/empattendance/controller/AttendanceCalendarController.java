@@ -0,0 +1,176 @@
+package com.example.empattendance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.AttendanceCalendarStats;
+import com.example.empattendance.dto.CustomApiDataResponse;
+import com.example.empattendance.dto.CustomApiResponse;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.service.AttendanceCalendarIndex;
+import com.example.empattendance.service.EmployeeIdIndex;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/attendances/calendar")
+@Tag(name = "Attendance Calendar APIs", description = "Presence counts, streaks and overlaps answered from in-memory calendars")
+public class AttendanceCalendarController {
+
+  @Autowired
+  private AttendanceCalendarIndex calendarIndex;
+
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  /**
+   * Get an employee's calendar statistics API.
+   *
+   * @param employeeId ID of the employee
+   * @param type attendance type (PRESENT, ABSENT or SICK_LEAVE)
+   * @param year calendar year, defaults to the current year
+   * @return ResponseEntity containing a CustomApiDataResponse with the day count and longest streak,
+   * a success flag, and a message. Returns HttpStatus.OK if successful, HttpStatus.NOT_FOUND if the employee
+   * does not exist or HttpStatus.BAD_REQUEST if the type or year is not valid.
+   */
+  @Operation(summary = "Get calendar statistics", description = "Days of one attendance type in a year and the longest run of consecutive days")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Calendar statistics found"),
+        @ApiResponse(responseCode = "400", description = "Type or year is not valid"),
+        @ApiResponse(responseCode = "404", description = "Employee not found")
+      }
+  )
+  @SqlStatementBudget(1)
+  @GetMapping("/employees/{employeeId}")
+  public ResponseEntity<?> getStats(@PathVariable Long employeeId, @RequestParam String type, @RequestParam(required = false) Integer year) {
+    if (!employeeIdIndex.exists(employeeId)) {
+      return new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Employee was found with ID: " + employeeId, null), HttpStatus.NOT_FOUND);
+    }
+    try {
+      AttendanceCalendarStats stats = calendarIndex.getStats(employeeId, year != null ? year : Year.now().getValue(), parseType(type));
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Calendar statistics retrieved.", stats), HttpStatus.OK);
+    } catch (BadRequestException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Count an employee's days of one type in a date range API.
+   *
+   * @param employeeId ID of the employee
+   * @param type attendance type (PRESENT, ABSENT or SICK_LEAVE)
+   * @param startDate first day counted (YYYY-MM-DD)
+   * @param endDate last day counted (YYYY-MM-DD)
+   * @return ResponseEntity containing a CustomApiDataResponse with the number of days,
+   * a success flag, and a message. Returns HttpStatus.OK if successful, HttpStatus.NOT_FOUND if the employee
+   * does not exist or HttpStatus.BAD_REQUEST if a parameter is not valid.
+   */
+  @Operation(summary = "Count calendar days", description = "Days of one attendance type between two dates")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Days counted"),
+        @ApiResponse(responseCode = "400", description = "Type or dates are not valid"),
+        @ApiResponse(responseCode = "404", description = "Employee not found")
+      }
+  )
+  @SqlStatementBudget(1)
+  @GetMapping("/employees/{employeeId}/count")
+  public ResponseEntity<?> countDays(@PathVariable Long employeeId, @RequestParam String type,
+      @RequestParam String startDate, @RequestParam String endDate) {
+    if (!employeeIdIndex.exists(employeeId)) {
+      return new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Employee was found with ID: " + employeeId, null), HttpStatus.NOT_FOUND);
+    }
+    try {
+      int days = calendarIndex.countDays(employeeId, parseType(type), parseDate(startDate), parseDate(endDate));
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Calendar days counted.", days), HttpStatus.OK);
+    } catch (BadRequestException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Find the days several employees share API.
+   *
+   * @param employeeIds IDs of the employees
+   * @param type attendance type (PRESENT, ABSENT or SICK_LEAVE)
+   * @param year calendar year, defaults to the current year
+   * @return ResponseEntity containing a CustomApiDataResponse with the days on which every employee had the type,
+   * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.BAD_REQUEST if a parameter is not valid.
+   */
+  @Operation(summary = "Find common days", description = "Days on which every given employee had the same attendance type")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Common days found"),
+        @ApiResponse(responseCode = "400", description = "Type, year or employees are not valid")
+      }
+  )
+  @SqlStatementBudget(0)
+  @GetMapping("/common-days")
+  public ResponseEntity<?> findCommonDays(@RequestParam List<Long> employeeIds, @RequestParam String type, @RequestParam(required = false) Integer year) {
+    try {
+      List<LocalDate> days = calendarIndex.findCommonDays(employeeIds, year != null ? year : Year.now().getValue(), parseType(type));
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Common days found.", days), HttpStatus.OK);
+    } catch (BadRequestException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Find the employees matching on several dates API.
+   *
+   * @param type attendance type (PRESENT, ABSENT or SICK_LEAVE)
+   * @param dates dates (YYYY-MM-DD) on which the employee must have had the type
+   * @return ResponseEntity containing a CustomApiDataResponse with the matching employee IDs,
+   * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.BAD_REQUEST if a parameter is not valid.
+   */
+  @Operation(summary = "Find employees on all dates", description = "Employees who had the attendance type on every given date, e.g. absent on both")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Matching employees found"),
+        @ApiResponse(responseCode = "400", description = "Type or dates are not valid")
+      }
+  )
+  @SqlStatementBudget(0)
+  @GetMapping("/matching-employees")
+  public ResponseEntity<?> findEmployeesOnAllDates(@RequestParam String type, @RequestParam List<String> dates) {
+    try {
+      List<LocalDate> dateVals = new ArrayList<>(dates.size());
+      for (String date : dates) {
+        dateVals.add(parseDate(date));
+      }
+      List<Long> employeeIds = calendarIndex.findEmployeesOnAllDates(parseType(type), dateVals);
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Matching employees found.", employeeIds), HttpStatus.OK);
+    } catch (BadRequestException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  private static AttendanceType parseType(String type) {
+    try {
+      return AttendanceType.valueOf(type.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Type must be PRESENT, ABSENT or SICK_LEAVE.");
+    }
+  }
+
+  private static LocalDate parseDate(String date) {
+    try {
+      return LocalDate.parse(date);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Dates should be valid LocalDates in ISO format (YYYY-MM-DD).");
+    }
+  }
+}
@@ -2,22 +2,34 @@ package com.example.empattendance.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.empattendance.config.SqlStatementBudget;
 import com.example.empattendance.dto.AttendanceExcuseRequest;
 import com.example.empattendance.dto.AttendanceRequest;
+import com.example.empattendance.dto.AutoAbsenceReport;
 import com.example.empattendance.dto.CustomApiDataResponse;
 import com.example.empattendance.dto.CustomApiResponse;
 import com.example.empattendance.exception.BadRequestException;
 import com.example.empattendance.exception.ResourceNotFoundException;
+import com.example.empattendance.exception.TooManyRequestsException;
 import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.service.AttendanceAutoAbsenceService;
+import com.example.empattendance.service.AttendanceExportService;
+import com.example.empattendance.service.AttendanceIngestionQueue;
 import com.example.empattendance.service.AttendanceService;
+import com.example.empattendance.service.AttendanceSummaryService;
+import com.example.empattendance.service.IdempotencyService;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -33,32 +45,62 @@ public class AttendanceController {
     
     @Autowired
     private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceIngestionQueue ingestionQueue;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AttendanceExportService exportService;
+
+    @Autowired
+    private AttendanceSummaryService summaryService;
+
+    @Autowired
+    private AttendanceAutoAbsenceService autoAbsenceService;
     
     /**
      * Sign In Attendance API.
      *
      * @param request AttendanceRequest object dto
+     * @param idempotencyKey optional key; a repeated key gets the first response replayed
      * @return ResponseEntity containing a CustomApiDataResponse with the new Attendance Record,
      * a success flag, and a message. Returns HttpStatus.CREATED or 201 status code if successful or HttpStatus.NOT_FOUND is employee not found.
+     * When queued ingestion is enabled, returns HttpStatus.ACCEPTED or 202 once the sign in is queued, or HttpStatus.TOO_MANY_REQUESTS if the queue is full.
      */
     @Operation(summary = "Sign in an Employee", description = "Sign in")  
     @ApiResponses(
       value = {
         @ApiResponse(responseCode = "201", description = "Attendance Sign in created"),
+        @ApiResponse(responseCode = "202", description = "Attendance Sign in queued"),
         @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
+        @ApiResponse(responseCode = "429", description = "Too many sign ins, retry shortly."),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress."),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body.")
       }
     )  
+    @SqlStatementBudget(8)
     @PostMapping("/sign-in")
-    public ResponseEntity<?> signIn(@Valid @RequestBody AttendanceRequest request) {
-        try{
-            AttendanceRecord record = attendanceService.signIn(
-                request.getEmployeeId(), 
-                request.getNotes()
-            );
-            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee signed in succesfully.", record), HttpStatus.CREATED);
-        } catch (ResourceNotFoundException e) {
-            return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
-        }
+    public ResponseEntity<?> signIn(@Valid @RequestBody AttendanceRequest request, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute("sign-in", idempotencyKey, request, () -> {
+            try{
+                if (ingestionQueue.isEnabled()) {
+                    ingestionQueue.submitSignIn(request.getEmployeeId(), request.getNotes());
+                    return new ResponseEntity<>(new CustomApiResponse(true, "Employee sign in accepted."), HttpStatus.ACCEPTED);
+                }
+                AttendanceRecord record = attendanceService.signIn(
+                    request.getEmployeeId(), 
+                    request.getNotes()
+                );
+                return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee signed in succesfully.", record), HttpStatus.CREATED);
+            } catch (ResourceNotFoundException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
+            } catch (TooManyRequestsException e) {
+                return new ResponseEntity<>(new CustomApiResponse(false, "Too many sign ins, retry shortly."), HttpStatus.TOO_MANY_REQUESTS);
+            }
+        });
     }
 
     /**
@@ -66,85 +108,201 @@ public class AttendanceController {
      *
      * @param recordId the Attendance record identifier
      * @param request AttendanceRequest object dto
+     * @param idempotencyKey optional key; a repeated key gets the first response replayed
      * @return ResponseEntity containing a CustomApiDataResponse with the new Attendance Record,
      * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.NOT_FOUND if no employee is found or HttpStatus.BAD_REQUEST if something went wrong.
+     * When queued ingestion is enabled, returns HttpStatus.ACCEPTED or 202 once the sign out is queued, or HttpStatus.TOO_MANY_REQUESTS if the queue is full.
      */
     @Operation(summary = "Sign out an Employee", description = "Sign out")
     @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Employee signed out succesfully."),
+        @ApiResponse(responseCode = "202", description = "Employee sign out queued."),
         @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
-        @ApiResponse(responseCode = "400", description = "Employee could not sign out unfortunately.")
+        @ApiResponse(responseCode = "400", description = "Employee could not sign out unfortunately."),
+        @ApiResponse(responseCode = "429", description = "Too many sign outs, retry shortly."),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress."),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body.")
       }
     )
+    @SqlStatementBudget(7)
     @PutMapping("/sign-out/{recordId}")
-    public ResponseEntity<?> signOut(@PathVariable Long recordId, @Valid @RequestBody AttendanceRequest request) {
-        try {
-            AttendanceRecord record = attendanceService.signOut(recordId, request.getNotes());
-            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee signed out succesfully.", record), HttpStatus.OK);
-        } catch (ResourceNotFoundException e) {
-            return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
-        } catch (BadRequestException e) {
-            return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee could not sign out unfortunately.", null), HttpStatus.BAD_REQUEST);
-        }
+    public ResponseEntity<?> signOut(@PathVariable Long recordId, @Valid @RequestBody AttendanceRequest request, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute("sign-out:" + recordId, idempotencyKey, request, () -> {
+            try {
+                if (ingestionQueue.isEnabled()) {
+                    ingestionQueue.submitSignOut(recordId, request.getNotes());
+                    return new ResponseEntity<>(new CustomApiResponse(true, "Employee sign out accepted."), HttpStatus.ACCEPTED);
+                }
+                AttendanceRecord record = attendanceService.signOut(recordId, request.getNotes());
+                return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee signed out succesfully.", record), HttpStatus.OK);
+            } catch (ResourceNotFoundException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
+            } catch (BadRequestException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee could not sign out unfortunately.", null), HttpStatus.BAD_REQUEST);
+            } catch (TooManyRequestsException e) {
+                return new ResponseEntity<>(new CustomApiResponse(false, "Too many sign outs, retry shortly."), HttpStatus.TOO_MANY_REQUESTS);
+            }
+        });
     }
 
     /**
-     * Clock in with Sick Leave in Attendance API.
+     * Sign Out by Employee Attendance API.
      *
+     * @param employeeId the Employee identifier
      * @param request AttendanceRequest object dto
-     * @return ResponseEntity containing a CustomApiDataResponse with the new Attendance Record,
-     * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.NOT_FOUND if no employee is found.
+     * @param idempotencyKey optional key; a repeated key gets the first response replayed
+     * @return ResponseEntity containing a CustomApiDataResponse with the signed out Attendance Record,
+     * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.NOT_FOUND if no employee is found or HttpStatus.BAD_REQUEST if the employee is not signed in.
      */
-    @Operation(summary = "Register Sick Leave for an Employee", description = "Sick leave registration")
+    @Operation(summary = "Sign out an Employee by employee ID", description = "Sign out of the employee's open attendance record")
+    @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Employee signed out succesfully."),
+        @ApiResponse(responseCode = "202", description = "Employee sign out queued."),
+        @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
+        @ApiResponse(responseCode = "400", description = "Employee could not sign out unfortunately."),
+        @ApiResponse(responseCode = "429", description = "Too many sign outs, retry shortly."),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress."),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body.")
+      }
+    )
+    @SqlStatementBudget(7)
+    @PutMapping("/employee/{employeeId}/sign-out")
+    public ResponseEntity<?> signOutEmployee(@PathVariable Long employeeId, @Valid @RequestBody AttendanceRequest request, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute("employee-sign-out:" + employeeId, idempotencyKey, request, () -> {
+            try {
+                if (ingestionQueue.isEnabled()) {
+                    ingestionQueue.submitSignOut(attendanceService.getOpenRecordId(employeeId), request.getNotes());
+                    return new ResponseEntity<>(new CustomApiResponse(true, "Employee sign out accepted."), HttpStatus.ACCEPTED);
+                }
+                AttendanceRecord record = attendanceService.signOutEmployee(employeeId, request.getNotes());
+                return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee signed out succesfully.", record), HttpStatus.OK);
+            } catch (ResourceNotFoundException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
+            } catch (BadRequestException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee could not sign out unfortunately.", null), HttpStatus.BAD_REQUEST);
+            } catch (TooManyRequestsException e) {
+                return new ResponseEntity<>(new CustomApiResponse(false, "Too many sign outs, retry shortly."), HttpStatus.TOO_MANY_REQUESTS);
+            }
+        });
+    }
+
+    /**
+     * On Site Count API.
+     *
+     * @return ResponseEntity containing a CustomApiDataResponse with the number of employees signed in and not yet signed out,
+     * a success flag, and a message. Returns HttpStatus.OK or 200 status code.
+     */
+    @Operation(summary = "Count employees on site", description = "Employees signed in and not yet signed out")
+    @SqlStatementBudget(1)
+    @GetMapping("/on-site")
+    public ResponseEntity<?> countOnSite() {
+        return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employees on site counted.", attendanceService.countOnSite()), HttpStatus.OK);
+    }
+
+    /**
+     * Clock in with Sick Leave in Attendance API.
+     *
+     * @param request AttendanceExcuseRequest object dto, with either a date or a from/to range
+     * @param idempotencyKey optional key; a repeated key gets the first response replayed
+     * @return ResponseEntity containing a CustomApiDataResponse with the new Attendance Record, or the list of records
+     * for a range, a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful,
+     * HttpStatus.NOT_FOUND if no employee is found or HttpStatus.BAD_REQUEST if the range is invalid.
+     */
+    @Operation(summary = "Register Sick Leave for an Employee", description = "Sick leave registration for one day or a date range")
     @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Employee attendance registered with Sick leave excuse."),
-        @ApiResponse(responseCode = "404", description = "Employee not found unfortunately.")
+        @ApiResponse(responseCode = "400", description = "Date range is not valid."),
+        @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress."),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body.")
       }
     )
+    @SqlStatementBudget(10)
     @PostMapping("/sick-leave")
-    public ResponseEntity<?> reportSickLeave(@Valid @RequestBody AttendanceExcuseRequest request) {
-        try {
-            AttendanceRecord record = attendanceService.recordSickLeave(
-                request.getEmployeeId(),
-                request.getDate(),
-                request.getNotes() != null ? request.getNotes() : ""
-            );
-            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee registered with Sick leave excuse, succesfully.", record), HttpStatus.OK);
-        }
-        catch (ResourceNotFoundException e) {
-            return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
-        }
+    public ResponseEntity<?> reportSickLeave(@Valid @RequestBody AttendanceExcuseRequest request, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute("sick-leave", idempotencyKey, request, () -> {
+            if (isRange(request)) {
+                return registerExcuseRange(request, AttendanceType.SICK_LEAVE, "Employee registered with Sick leave excuse, succesfully.", HttpStatus.OK);
+            }
+            try {
+                AttendanceRecord record = attendanceService.recordSickLeave(
+                    request.getEmployeeId(),
+                    request.getDate(),
+                    request.getNotes() != null ? request.getNotes() : ""
+                );
+                return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee registered with Sick leave excuse, succesfully.", record), HttpStatus.OK);
+            }
+            catch (ResourceNotFoundException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
+            }
+        });
     }
     
      /**
      * Clock in with Absence in Attendance API.
      *
-     * @param request AttendanceExcuseRequest object dto
-     * @return ResponseEntity containing a CustomApiDataResponse with the absence Attendance Record,
-     * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.NOT_FOUND if no employee is found.
+     * @param request AttendanceExcuseRequest object dto, with either a date or a from/to range
+     * @param idempotencyKey optional key; a repeated key gets the first response replayed
+     * @return ResponseEntity containing a CustomApiDataResponse with the absence Attendance Record, or the list of
+     * records for a range, a success flag, and a message. Returns HttpStatus.CREATED if successful,
+     * HttpStatus.NOT_FOUND if no employee is found or HttpStatus.BAD_REQUEST if the range is invalid.
      */
-    @Operation(summary = "Register Absence for an Employee", description = "Absence registration")
+    @Operation(summary = "Register Absence for an Employee", description = "Absence registration for one day or a date range")
     @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Employee attendance registered with Absent excuse."),
+        @ApiResponse(responseCode = "400", description = "Date range is not valid."),
         @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress."),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used with a different request body.")
       }
     )
+    @SqlStatementBudget(10)
     @PostMapping("/absence")
-    public ResponseEntity<?> reportAbsence(@Valid @RequestBody AttendanceExcuseRequest request) {
+    public ResponseEntity<?> reportAbsence(@Valid @RequestBody AttendanceExcuseRequest request, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute("absence", idempotencyKey, request, () -> {
+            if (isRange(request)) {
+                return registerExcuseRange(request, AttendanceType.ABSENT, "Employee registered with Absent excuse, succesfully.", HttpStatus.CREATED);
+            }
+            try {
+                AttendanceRecord record = attendanceService.recordAbsence(
+                    request.getEmployeeId(),
+                    request.getDate(),
+                    request.getNotes() != null ? request.getNotes() : ""
+                );
+                return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee registered with Absent excuse, succesfully.", record), HttpStatus.CREATED);
+            }
+            catch (ResourceNotFoundException e) {
+                return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
+            }
+        });
+    }
+
+    private static boolean isRange(AttendanceExcuseRequest request) {
+        return request.getFrom() != null || request.getTo() != null;
+    }
+
+    /** Record a sick leave or absence for every day of the request's range in one call. */
+    private ResponseEntity<?> registerExcuseRange(AttendanceExcuseRequest request, AttendanceType type, String message, HttpStatus status) {
+        if (request.getFrom() == null || request.getTo() == null || request.getDate() != null) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "Give either a date, or both from and to."), HttpStatus.BAD_REQUEST);
+        }
+        String notes = request.getNotes() != null ? request.getNotes() : "";
         try {
-            AttendanceRecord record = attendanceService.recordAbsence(
-                request.getEmployeeId(),
-                request.getDate(),
-                request.getNotes() != null ? request.getNotes() : ""
-            );
-            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employee registered with Absent excuse, succesfully.", record), HttpStatus.CREATED);
+            List<AttendanceRecord> records = type == AttendanceType.SICK_LEAVE
+                ? attendanceService.recordSickLeave(request.getEmployeeId(), request.getFrom(), request.getTo(), request.isSkipWeekends(), notes)
+                : attendanceService.recordAbsence(request.getEmployeeId(), request.getFrom(), request.getTo(), request.isSkipWeekends(), notes);
+            return new ResponseEntity<>(new CustomApiDataResponse<>(true, message, records), status);
         }
         catch (ResourceNotFoundException e) {
             return new ResponseEntity<>(new CustomApiDataResponse<>(false, "Employee not found unfortunately.", null), HttpStatus.NOT_FOUND);
         }
+        catch (BadRequestException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage() + "."), HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -162,6 +320,7 @@ public class AttendanceController {
         @ApiResponse(responseCode = "404", description = "Employee not found unfortunately."),
       }
     )
+    @SqlStatementBudget(3)
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<?> getEmployeeAttendanceReport(@PathVariable Long employeeId, @RequestParam(required = false) String startDate,@RequestParam(required = false) String endDate) {       
         LocalDate startDateVal = null;
@@ -197,4 +356,125 @@ public class AttendanceController {
             return new ResponseEntity<>(new CustomApiResponse(false, "Start date must be before or equal to end date."), HttpStatus.BAD_REQUEST);
         }
     }
+
+    /**
+     * Export Attendance API.
+     *
+     * @param startDate first day to export (YYYY-MM-DD)
+     * @param endDate last day to export (YYYY-MM-DD)
+     * @param departmentId optional department filter
+     * @param type optional attendance type filter (PRESENT, ABSENT or SICK_LEAVE)
+     * @param format ndjson (default) or csv
+     * @return ResponseEntity streaming one row per attendance record. Returns HttpStatus.OK or 200 status code if successful
+     * or HttpStatus.BAD_REQUEST if a filter is malformed or the start date is after the end date.
+     */
+    @Operation(summary = "Export attendance", description = "Stream attendance records as NDJSON or CSV")
+    @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Attendance export streamed."),
+        @ApiResponse(responseCode = "400", description = "Export filters are not valid."),
+      }
+    )
+    @SqlStatementBudget(1)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAttendance(@RequestParam String startDate, @RequestParam String endDate,
+            @RequestParam(required = false) Long departmentId, @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        LocalDate startDateVal;
+        LocalDate endDateVal;
+        AttendanceType typeVal = null;
+        AttendanceExportService.Format formatVal;
+        try {
+            startDateVal = LocalDate.parse(startDate, DateTimeFormatter.ISO_DATE);
+            endDateVal = LocalDate.parse(endDate, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "StartDate and EndDate should be valid LocalDates in ISO format (YYYY-MM-DD). "), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            if (type != null && !type.isEmpty()) {
+                typeVal = AttendanceType.valueOf(type.toUpperCase());
+            }
+            formatVal = AttendanceExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "Type must be PRESENT, ABSENT or SICK_LEAVE and format must be ndjson or csv."), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            exportService.validate(startDateVal, endDateVal);
+        } catch (BadRequestException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "Start date must be before or equal to end date."), HttpStatus.BAD_REQUEST);
+        }
+
+        AttendanceType exportType = typeVal;
+        StreamingResponseBody body = out -> exportService.export(formatVal, startDateVal, endDateVal, departmentId, exportType, out);
+        boolean csv = formatVal == AttendanceExportService.Format.CSV;
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attendance-" + startDateVal + "-" + endDateVal + (csv ? ".csv" : ".ndjson") + "\"")
+            .body(body);
+    }
+
+    /**
+     * Rebuild Daily Attendance Summary API.
+     *
+     * @param startDate first day to rebuild (YYYY-MM-DD)
+     * @param endDate last day to rebuild (YYYY-MM-DD)
+     * @return ResponseEntity containing a CustomApiDataResponse with the number of summary rows written,
+     * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.BAD_REQUEST if the range is not valid.
+     */
+    @Operation(summary = "Rebuild daily attendance summary", description = "Recompute the per-day, per-department totals from attendance records")
+    @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Daily attendance summary rebuilt."),
+        @ApiResponse(responseCode = "400", description = "Date range is not valid or already archived."),
+      }
+    )
+    @SqlStatementBudget(2)
+    @PostMapping("/daily-summary/rebuild")
+    public ResponseEntity<?> rebuildDailySummary(@RequestParam String startDate, @RequestParam String endDate) {
+        LocalDate startDateVal;
+        LocalDate endDateVal;
+        try {
+            startDateVal = LocalDate.parse(startDate, DateTimeFormatter.ISO_DATE);
+            endDateVal = LocalDate.parse(endDate, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "StartDate and EndDate should be valid LocalDates in ISO format (YYYY-MM-DD). "), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            int rows = summaryService.rebuild(startDateVal, endDateVal);
+            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Daily attendance summary rebuilt.", rows), HttpStatus.OK);
+        } catch (BadRequestException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage() + "."), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Mark Missing Employees Absent API.
+     *
+     * @param date day to complete (YYYY-MM-DD), today or earlier
+     * @return ResponseEntity containing a CustomApiDataResponse with the number of absences inserted and the time taken,
+     * a success flag, and a message. Returns HttpStatus.OK or 200 status code if successful or HttpStatus.BAD_REQUEST if the date is not valid.
+     */
+    @Operation(summary = "Mark missing employees absent", description = "Insert an ABSENT record for every employee without a record on a day; safe to run again")
+    @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Missing employees marked absent."),
+        @ApiResponse(responseCode = "400", description = "Date is not valid."),
+      }
+    )
+    @SqlStatementBudget(SqlStatementBudget.UNBOUNDED)
+    @PostMapping("/auto-absence")
+    public ResponseEntity<?> markMissingAbsent(@RequestParam String date) {
+        LocalDate dateVal;
+        try {
+            dateVal = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, "Date should be a valid LocalDate in ISO format (YYYY-MM-DD). "), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            AutoAbsenceReport report = autoAbsenceService.markAbsent(dateVal);
+            return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Missing employees marked absent.", report), HttpStatus.OK);
+        } catch (BadRequestException e) {
+            return new ResponseEntity<>(new CustomApiResponse(false, e.getMessage() + "."), HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package com.example.empattendance.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.empattendance.dto.EmployeeSearchHit;
+import com.example.empattendance.model.Department;
+import com.example.empattendance.model.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for responses tagged with the versions of the entities they contain.
+ * Responses may be stored by the client but must be revalidated with If-None-Match on every use.
+ * Only a found resource is tagged, so a 404 never carries an ETag or turns into a 304.
+ */
+final class ConditionalGet {
+
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+  private ConditionalGet() {}
+
+  /**
+   * Answer 304 if the client's copy has the given tag, otherwise 200 with the body. Either way
+   * the ETag header is set.
+   *
+   * @param request current request
+   * @param tag tag of the data the response contains
+   * @param body body to send when the client's copy is out of date
+   * @return 304 Not Modified or 200 OK
+   */
+  static ResponseEntity<?> respond(WebRequest request, String tag, Supplier<?> body) {
+    if (request.checkNotModified(tag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+    return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+  }
+
+  /** An employee is returned with their department, so a change to either changes the tag. */
+  static String tagOf(Employee employee) {
+    return employee.getId() + "." + employee.getVersion() + "." + employee.getDepartment().getVersion();
+  }
+
+  static String tagOf(Department department) {
+    return department.getId() + "." + department.getVersion();
+  }
+
+  /**
+   * Tag of a page of employees: a digest of every employee's tag and of what follows the items,
+   * so adding or removing an employee changes it as well as editing one.
+   *
+   * @param employees employees on the page
+   * @param extra other values returned with the page, such as the next cursor or the total
+   * @return tag of the page
+   */
+  static String tagOfEmployees(List<Employee> employees, Object... extra) {
+    StringBuilder content = new StringBuilder();
+    employees.forEach(employee -> content.append(tagOf(employee)).append(','));
+    return digest(content, extra);
+  }
+
+  static String tagOfDepartments(List<Department> departments) {
+    StringBuilder content = new StringBuilder();
+    departments.forEach(department -> content.append(tagOf(department)).append(','));
+    return digest(content);
+  }
+
+  /** Search hits come from the in-memory index rather than entities, so their contents are digested. */
+  static String tagOfSearchHits(List<EmployeeSearchHit> hits) {
+    StringBuilder content = new StringBuilder();
+    hits.forEach(hit -> content.append(hit.getId()).append('|').append(hit.getFirstName()).append('|')
+        .append(hit.getLastName()).append('|').append(hit.getAddress()).append('|').append(hit.getScore()).append(','));
+    return digest(content);
+  }
+
+  private static String digest(StringBuilder content, Object... extra) {
+    for (Object value : extra) {
+      content.append(';').append(value);
+    }
+    return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
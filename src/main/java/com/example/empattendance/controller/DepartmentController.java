@@ -9,14 +9,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.CursorPage;
 import com.example.empattendance.dto.CustomApiDataResponse;
 import com.example.empattendance.dto.CustomApiResponse;
+import com.example.empattendance.dto.DailyAttendanceSummary;
 import com.example.empattendance.dto.DepartmentRequest;
 import com.example.empattendance.model.Department;
 import com.example.empattendance.model.Employee;
 import com.example.empattendance.service.DepartmentService;
+import com.example.empattendance.service.EmployeeService;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -27,25 +35,34 @@ public class DepartmentController {
   @Autowired 
   private DepartmentService departmentService;
 
+  @Autowired
+  private EmployeeService employeeService;
+
   /**
    * Get all departments API.
    *
+   * @param request current request; a matching If-None-Match gets 304 Not Modified
    * @return ResponseEntity containing a CustomApiDataResponse with the list of departments,
    * a success flag, and a message. Returns HttpStatus.OK if successful.
    */
   @Operation(summary = "Get all departments", description = "Retrieve a list of all departments")
+  @SqlStatementBudget(2)
   @GetMapping
-  public ResponseEntity<?> getAllDepartments() {
+  public ResponseEntity<?> getAllDepartments(WebRequest request) {
     List<Department> allDepartments = departmentService.getAllDepartments();
-    return new ResponseEntity<>(new CustomApiDataResponse<List<Department>>(true, "All Departments list has been retrieved.", allDepartments), HttpStatus.OK);
+    return ConditionalGet.respond(request, ConditionalGet.tagOfDepartments(allDepartments),
+        () -> new CustomApiDataResponse<List<Department>>(true, "All Departments list has been retrieved.", allDepartments));
   }
 
   /**
    * Get all employees by department API.
    * @param id ID of the department to be retrieved
+   * @param after cursor from the previous page's next field, omitted for the first page
+   * @param limit page size, defaults to 100 and is capped at 1000
    *
-   * @return ResponseEntity containing a CustomApiDataResponse with the list of departments,
-   * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.NOT_FOUND if not found.
+   * @param request current request; a matching If-None-Match gets 304 Not Modified
+   * @return ResponseEntity containing a CustomApiDataResponse with the page of employees,
+   * a success flag, a message and the next cursor when more pages exist. Returns HttpStatus.OK if successful or HttpStatus.NOT_FOUND if not found.
    */
   @Operation(summary = "Get all employees by department", description = "Retrieve employees by department")
   @ApiResponses(
@@ -54,12 +71,60 @@ public class DepartmentController {
       @ApiResponse(responseCode = "404", description = "Employee not found within a certain Department ID")
     }
   )
+  @SqlStatementBudget(2)
   @GetMapping("/{id}/employees")
-  public ResponseEntity<?> getEmployeesByDepartment(@PathVariable Long id) {
+  public ResponseEntity<?> getEmployeesByDepartment(@PathVariable Long id, @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit, WebRequest request) {
+    return departmentService.getDepartmentById(id)
+    .<ResponseEntity<?>>map(department -> {
+      CursorPage<Employee> page = departmentService.getEmployeesPageByDepartmentId(id, after, PageLimits.clamp(limit));
+      return ConditionalGet.respond(request, ConditionalGet.tagOfEmployees(page.getItems(), page.getNext()),
+          () -> new CustomApiDataResponse<>(true, "Employees retreived based on Department ID: " + id, page.getItems(), page.getNext()));
+    })
+    .orElseGet(() -> new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Department was found with ID: " + id, null), HttpStatus.NOT_FOUND));
+  }
+
+  /**
+   * Get department attendance summary API.
+   *
+   * @param id ID of the department to be summarised
+   * @param from first day (YYYY-MM-DD), defaults to the first day of the current month
+   * @param to last day (YYYY-MM-DD), defaults to today
+   * @return ResponseEntity containing a CustomApiDataResponse with per-day counts for each attendance type,
+   * a success flag, and a message. Returns HttpStatus.OK if successful, HttpStatus.NOT_FOUND if the department
+   * does not exist or HttpStatus.BAD_REQUEST if the dates are invalid.
+   */
+  @Operation(summary = "Get department attendance summary", description = "Per-day PRESENT, ABSENT and SICK_LEAVE counts for a department")
+  @ApiResponses(
+    value = {
+      @ApiResponse(responseCode = "200", description = "Attendance summary computed"),
+      @ApiResponse(responseCode = "400", description = "Dates are not valid"),
+      @ApiResponse(responseCode = "404", description = "Department not found")
+    }
+  )
+  @SqlStatementBudget(2)
+  @GetMapping("/{id}/attendance-summary")
+  public ResponseEntity<?> getAttendanceSummary(@PathVariable Long id, @RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+    LocalDate fromVal = LocalDate.now().withDayOfMonth(1);
+    LocalDate toVal = LocalDate.now();
+    try {
+      if (from != null && !from.isEmpty()) {
+        fromVal = LocalDate.parse(from, DateTimeFormatter.ISO_DATE);
+      }
+      if (to != null && !to.isEmpty()) {
+        toVal = LocalDate.parse(to, DateTimeFormatter.ISO_DATE);
+      }
+    } catch (DateTimeParseException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "From and To should be valid LocalDates in ISO format (YYYY-MM-DD)."), HttpStatus.BAD_REQUEST);
+    }
+    if (fromVal.isAfter(toVal)) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "From date must be before or equal to To date."), HttpStatus.BAD_REQUEST);
+    }
+    LocalDate startDate = fromVal;
+    LocalDate endDate = toVal;
     return departmentService.getDepartmentById(id)
     .map(department -> {
-      List<Employee> employees = departmentService.getEmployeesByDepartmentId(id);
-      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Employees retreived based on Department ID: " + id, employees), HttpStatus.OK);
+      List<DailyAttendanceSummary> summary = departmentService.getAttendanceSummary(id, startDate, endDate);
+      return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Attendance summary computed for Department ID: " + id, summary), HttpStatus.OK);
     })
     .orElseGet(() -> new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Department was found with ID: " + id, null), HttpStatus.NOT_FOUND));
   }
@@ -68,6 +133,7 @@ public class DepartmentController {
    * Get department by ID API.
    *
    * @param id ID of the department to be retrieved
+   * @param request current request; a matching If-None-Match gets 304 Not Modified
    * @return ResponseEntity containing a CustomApiDataResponse with the copy of the retrieved department,
    * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.NOT_FOUND if not found.
    */
@@ -80,10 +146,12 @@ public class DepartmentController {
         @ApiResponse(responseCode = "404", description = "Department not found")
       }
   )
+  @SqlStatementBudget(2)
   @GetMapping("/{id}")
-  public ResponseEntity<?> getDepartmentById(@Parameter(description = "ID of the department to be retrieved") @PathVariable Long id) {
+  public ResponseEntity<?> getDepartmentById(@Parameter(description = "ID of the department to be retrieved") @PathVariable Long id, WebRequest request) {
     return departmentService.getDepartmentById(id)
-                .map(department -> new ResponseEntity<>(new CustomApiDataResponse<Department>(true, "Department details found.", department), HttpStatus.OK))
+                .<ResponseEntity<?>>map(department -> ConditionalGet.respond(request, ConditionalGet.tagOf(department),
+                    () -> new CustomApiDataResponse<Department>(true, "Department details found.", department)))
                 .orElseGet(() -> new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Department was found with ID: " + id, null), HttpStatus.NOT_FOUND));
   }
 
@@ -101,6 +169,7 @@ public class DepartmentController {
         @ApiResponse(responseCode = "400", description = "Bad Request found")
       }
   )
+  @SqlStatementBudget(3)
   @PostMapping
   public ResponseEntity<?> createDepartment(@RequestBody DepartmentRequest department) {
     if (department.getName().equals("") || department.getName() == null) {
@@ -128,6 +197,7 @@ public class DepartmentController {
         @ApiResponse(responseCode = "200", description = "Department updated"),
         @ApiResponse(responseCode = "404", description = "Department not found")
       })
+  @SqlStatementBudget(4)
   @PutMapping("/{id}")
   public ResponseEntity<?> updateDepartment(@Parameter(description = "ID of the department to be updated") @PathVariable Long id, @RequestBody DepartmentRequest departmentDetails) {     
     return departmentService.getDepartmentById(id)
@@ -153,6 +223,7 @@ public class DepartmentController {
         @ApiResponse(responseCode = "404", description = "Department not found")
       }
   )
+  @SqlStatementBudget(8)
   @DeleteMapping("/{id}")
   public ResponseEntity<?> deleteDepartment(@Parameter(description = "ID of the department to be deleted") @PathVariable Long id) {
       return departmentService.getDepartmentById(id).map(department -> { 
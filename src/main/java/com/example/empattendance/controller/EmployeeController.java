@@ -8,10 +8,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.CursorPage;
 import com.example.empattendance.dto.CustomApiDataResponse;
 import com.example.empattendance.dto.CustomApiResponse;
 import com.example.empattendance.dto.EmployeeRequest;
+import com.example.empattendance.dto.EmployeeSearchHit;
 import com.example.empattendance.model.Department;
 import com.example.empattendance.model.Employee;
 import com.example.empattendance.model.EmployeeType;
@@ -36,23 +40,97 @@ public class EmployeeController {
   @Autowired 
   private DepartmentService departmentService;
 
+  /** Results returned by a search unless the request asks for fewer or more. */
+  private static final int DEFAULT_SEARCH_LIMIT = 20;
+  private static final int MAX_SEARCH_LIMIT = 100;
+
   /**
- * Retrieves a list of all employees and returns it in a custom API response.
+ * Retrieves a page of employees in ID order and returns it in a custom API response.
  *
- * @return ResponseEntity containing a CustomApiDataResponse with the list of employees,
- * a success flag, and a message. Returns HttpStatus.OK if successful.
+ * @param department ID of the department to filter by, omitted for all departments
+ * @param type employment type to filter by, MEDICAL or NON_MEDICAL, omitted for both
+ * @param gender gender to filter by, MALE or FEMALE, omitted for both
+ * @param after cursor from the previous page's next field, omitted for the first page
+ * @param limit page size, defaults to 100 and is capped at 1000
+ * @param request current request; a matching If-None-Match gets 304 Not Modified
+ * @return ResponseEntity containing a CustomApiDataResponse with the page of employees,
+ * a success flag, a message and the next cursor when more pages exist. A filtered first page also
+ * carries the total number of matching employees. Returns HttpStatus.OK if successful or
+ * HttpStatus.BAD_REQUEST if a filter value is not recognised.
  */
-  @Operation(summary = "Get all employees", description = "Retrieve a list of all employees")
+  @Operation(summary = "Get all employees", description = "Retrieve a page of employees, optionally filtered by department, type and gender; follow the next cursor for more")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Employees returned"),
+        @ApiResponse(responseCode = "400", description = "Unknown type or gender")
+      }
+  )
+  @SqlStatementBudget(2)
   @GetMapping
-  public ResponseEntity<?> getAllEmployees() {
-    List<Employee> allEmployees = employeeService.getAllEmployees();
-    return new ResponseEntity<>(new CustomApiDataResponse<List<Employee>>(true, "All employees list retrieved.", allEmployees), HttpStatus.OK);
+  public ResponseEntity<?> getAllEmployees(@RequestParam(required = false) Long department, @RequestParam(required = false) String type,
+      @RequestParam(required = false) String gender, @RequestParam(required = false) Long after,
+      @RequestParam(required = false) Integer limit, WebRequest request) {
+    EmployeeType typeVal = null;
+    if (type != null) {
+      typeVal = Arrays.stream(EmployeeType.values()).filter(empTyp -> empTyp.name().equals(type.toUpperCase())).findFirst().orElse(null);
+      if (typeVal == null) {
+        return new ResponseEntity<>(new CustomApiResponse(false, "Employment Type enum value is not correct. It is either MEDICAL or NON_MEDICAL."), HttpStatus.BAD_REQUEST);
+      }
+    }
+    Gender genderVal = null;
+    if (gender != null) {
+      genderVal = Arrays.stream(Gender.values()).filter(gen -> gen.name().equals(gender.toUpperCase())).findFirst().orElse(null);
+      if (genderVal == null) {
+        return new ResponseEntity<>(new CustomApiResponse(false, "Gender enum value is not correct. It is either MALE or FEMALE."), HttpStatus.BAD_REQUEST);
+      }
+    }
+    if (department == null && typeVal == null && genderVal == null) {
+      CursorPage<Employee> page = employeeService.getEmployeesPage(after, PageLimits.clamp(limit));
+      return ConditionalGet.respond(request, ConditionalGet.tagOfEmployees(page.getItems(), page.getNext()),
+          () -> new CustomApiDataResponse<List<Employee>>(true, "All employees list retrieved.", page.getItems(), page.getNext()));
+    }
+    CursorPage<Employee> page = employeeService.getEmployeesPage(department, typeVal, genderVal, after, PageLimits.clamp(limit));
+    // Later pages carry only the cursor; the total was returned with the first
+    Long total = after != null ? null
+        : page.getNext() == null ? page.getItems().size() : employeeService.countEmployees(department, typeVal, genderVal);
+    return ConditionalGet.respond(request, ConditionalGet.tagOfEmployees(page.getItems(), page.getNext(), total),
+        () -> new CustomApiDataResponse<List<Employee>>(true, "Filtered employees list retrieved.", page.getItems(), page.getNext(), total));
+  }
+
+  /**
+   * Search employees API.
+   *
+   * @param q words to look for in first names, last names and addresses; words of three or more letters
+   * match anywhere in a word, shorter ones the start of a word
+   * @param limit maximum number of results, defaults to 20 and is capped at 100
+   * @param request current request; a matching If-None-Match gets 304 Not Modified
+   * @return ResponseEntity containing a CustomApiDataResponse with the best matching employees first,
+   * a success flag, and a message. Returns HttpStatus.OK if successful or HttpStatus.BAD_REQUEST if the query is empty.
+   */
+  @Operation(summary = "Search employees", description = "Ranked search over employee names and addresses")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Search results returned"),
+        @ApiResponse(responseCode = "400", description = "Query is empty")
+      }
+  )
+  @SqlStatementBudget(0)
+  @GetMapping("/search")
+  public ResponseEntity<?> searchEmployees(@RequestParam String q, @RequestParam(required = false) Integer limit, WebRequest request) {
+    if (q.isBlank()) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "Query cannot be empty."), HttpStatus.BAD_REQUEST);
+    }
+    int limitVal = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+    List<EmployeeSearchHit> hits = employeeService.searchEmployees(q, limitVal);
+    return ConditionalGet.respond(request, ConditionalGet.tagOfSearchHits(hits),
+        () -> new CustomApiDataResponse<>(true, "Employee search results retrieved.", hits));
   }
 
   /**
    * Get employee by ID API.
    *
    * @param id ID of the employee to be retrieved
+   * @param request current request; a matching If-None-Match gets 304 Not Modified
    * @return ResponseEntity containing a CustomApiDataResponse with the employee,
    * a success flag, and a message. Returns HttpStatus.OK if successful.
    */
@@ -65,10 +143,12 @@ public class EmployeeController {
         @ApiResponse(responseCode = "404", description = "Employee not found")
       }
   )
+  @SqlStatementBudget(2)
   @GetMapping("/{id}")
-  public ResponseEntity<?> getEmployeeById(@PathVariable Long id) {
+  public ResponseEntity<?> getEmployeeById(@PathVariable Long id, WebRequest request) {
     return employeeService.getEmployeeById(id)
-                .map(employee -> new ResponseEntity<>(new CustomApiDataResponse<Employee>(true, "Employee details found.", employee), HttpStatus.OK))
+                .<ResponseEntity<?>>map(employee -> ConditionalGet.respond(request, ConditionalGet.tagOf(employee),
+                    () -> new CustomApiDataResponse<Employee>(true, "Employee details found.", employee)))
                 .orElseGet(() -> new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Employee was found with ID: " + id, null), HttpStatus.NOT_FOUND));
   }
 
@@ -86,6 +166,7 @@ public class EmployeeController {
         @ApiResponse(responseCode = "400", description = "Bad Request in Payload.")
       }
   )
+  @SqlStatementBudget(4)
   @PostMapping
   public ResponseEntity<?> createEmployee(@Valid @RequestBody EmployeeRequest employee) {
     boolean isValidGender = Arrays.stream(Gender.values()).anyMatch(gender -> gender.name().equals( employee.getGender().toUpperCase() ));
@@ -130,6 +211,7 @@ public class EmployeeController {
         @ApiResponse(responseCode = "400", description = "Bad Request within the Payload")
       }
   )
+  @SqlStatementBudget(6)
   @PutMapping("/{id}")
   public ResponseEntity<?> updateEmployee(@PathVariable Long id, @RequestBody EmployeeRequest employeeDetails) {
     if (employeeDetails.getGender() != null) {
@@ -195,6 +277,7 @@ public class EmployeeController {
         @ApiResponse(responseCode = "204", description = "Employee deleted"),
         @ApiResponse(responseCode = "404", description = "Employee not found")
       })
+  @SqlStatementBudget(4)
   @DeleteMapping("/{id}")
   public ResponseEntity<?> deleteEmployee(@PathVariable Long id) {
       return employeeService.getEmployeeById(id).map(employee -> { 
@@ -0,0 +1,23 @@
+package com.example.empattendance.controller;
+
+/** Page size bounds shared by the paginated listing endpoints. */
+final class PageLimits {
+
+  static final int DEFAULT_LIMIT = 100;
+  static final int MAX_LIMIT = 1000;
+
+  private PageLimits() {}
+
+  /**
+   * Apply the default and maximum to a requested page size.
+   *
+   * @param limit requested page size, may be null
+   * @return a page size between 1 and MAX_LIMIT
+   */
+  static int clamp(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.max(1, Math.min(limit, MAX_LIMIT));
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.empattendance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.dto.CustomApiDataResponse;
+import com.example.empattendance.dto.CustomApiResponse;
+import com.example.empattendance.dto.PayrollSummary;
+import com.example.empattendance.service.EmployeeIdIndex;
+import com.example.empattendance.service.PayrollService;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/payroll")
+@Tag(name = "Payroll APIs", description = "API Operations related to payroll counters")
+public class PayrollController {
+
+  @Autowired
+  private PayrollService payrollService;
+
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  /**
+   * Get payroll counters for an employee API.
+   *
+   * @param employeeId ID of the employee
+   * @param period pay period as YYYY-MM, defaults to the current month
+   * @return ResponseEntity containing a CustomApiDataResponse with the payroll counters,
+   * a success flag, and a message. Returns HttpStatus.OK if successful, HttpStatus.NOT_FOUND if the employee
+   * does not exist or HttpStatus.BAD_REQUEST if the period is malformed.
+   */
+  @Operation(summary = "Get payroll counters", description = "Days present, sick days, absences and minutes worked in a pay period")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Payroll counters found"),
+        @ApiResponse(responseCode = "400", description = "Period is not a valid YYYY-MM value"),
+        @ApiResponse(responseCode = "404", description = "Employee not found")
+      }
+  )
+  @SqlStatementBudget(1)
+  @GetMapping("/{employeeId}")
+  public ResponseEntity<?> getPayroll(@PathVariable Long employeeId, @RequestParam(required = false) String period) {
+    YearMonth periodVal = YearMonth.now();
+    if (period != null && !period.isEmpty()) {
+      try {
+        periodVal = YearMonth.parse(period);
+      } catch (DateTimeParseException e) {
+        return new ResponseEntity<>(new CustomApiResponse(false, "Period should be a valid month in ISO format (YYYY-MM)."), HttpStatus.BAD_REQUEST);
+      }
+    }
+    if (!employeeIdIndex.exists(employeeId)) {
+      return new ResponseEntity<>(new CustomApiDataResponse<>(false, "No Employee was found with ID: " + employeeId, null), HttpStatus.NOT_FOUND);
+    }
+    PayrollSummary summary = payrollService.getSummary(employeeId, periodVal);
+    return new ResponseEntity<>(new CustomApiDataResponse<>(true, "Payroll counters retrieved.", summary), HttpStatus.OK);
+  }
+}
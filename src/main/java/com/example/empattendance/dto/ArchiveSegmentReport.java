@@ -0,0 +1,20 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveSegmentReport {
+    private String month;
+    private long expectedRows;
+    private long actualRows;
+    private String expectedChecksum;
+    private String actualChecksum;
+    private long liveRows;
+    private boolean valid;
+}
@@ -0,0 +1,27 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.EmployeeType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Optional restrictions for an analytics aggregate; null fields match everything. */
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceAnalyticsFilter {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long employeeId;
+    private Long departmentId;
+    private EmployeeType employeeType;
+    private AttendanceType attendanceType;
+    private LocalTime lateAfter;
+}
@@ -0,0 +1,19 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceAnalyticsRow {
+    private String group;
+    private long records;
+    private long lateArrivals;
+    private long completedSessions;
+    private long workedMinutes;
+    private double averageHours;
+}
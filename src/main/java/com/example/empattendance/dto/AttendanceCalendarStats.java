@@ -0,0 +1,20 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import com.example.empattendance.model.AttendanceType;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceCalendarStats {
+    private Long employeeId;
+    private int year;
+    private AttendanceType type;
+    private int days;
+    private int longestStreak;
+}
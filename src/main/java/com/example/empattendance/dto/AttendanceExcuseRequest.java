@@ -16,7 +16,13 @@ import lombok.Setter;
 public class AttendanceExcuseRequest {
     @NotNull
     private Long employeeId;
-    @NotNull
+    /** Single day to record; today if neither this nor a range is given. */
     private LocalDate date;
+    /** First day of a range, given together with {@code to} instead of {@code date}. */
+    private LocalDate from;
+    /** Last day of a range, inclusive. */
+    private LocalDate to;
+    /** Leave Saturdays and Sundays in the range unrecorded. */
+    private boolean skipWeekends;
     private String notes;
 }
@@ -0,0 +1,58 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Flat attendance row written by the export endpoint. */
+@Getter
+@AllArgsConstructor
+public class AttendanceExportRow {
+
+    public static final String[] CSV_HEADER = {
+        "id", "employeeId", "firstName", "lastName", "departmentId", "departmentName",
+        "dateOfAtt", "type", "signInTime", "signOutTime", "notes"
+    };
+
+    private Long id;
+    private Long employeeId;
+    private String firstName;
+    private String lastName;
+    private Long departmentId;
+    private String departmentName;
+    private LocalDate dateOfAtt;
+    private AttendanceType type;
+    private LocalTime signInTime;
+    private LocalTime signOutTime;
+    private String notes;
+
+    public static AttendanceExportRow from(AttendanceRecord record) {
+        Employee employee = record.getEmployee();
+        return new AttendanceExportRow(
+            record.getId(),
+            employee.getId(),
+            employee.getFirstName(),
+            employee.getLastName(),
+            employee.getDepartment().getId(),
+            employee.getDepartment().getName(),
+            record.getDateOfAtt(),
+            record.getType(),
+            record.getSignInTime(),
+            record.getSignOutTime(),
+            record.getNotes()
+        );
+    }
+
+    public Object[] toCsvValues() {
+        return new Object[] {
+            id, employeeId, firstName, lastName, departmentId, departmentName,
+            dateOfAtt, type, signInTime, signOutTime, notes
+        };
+    }
+}
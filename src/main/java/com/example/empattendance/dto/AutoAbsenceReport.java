@@ -0,0 +1,20 @@
+package com.example.empattendance.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAbsenceReport {
+    private LocalDate date;
+    private int departments;
+    private int chunks;
+    private long inserted;
+    private long durationMs;
+}
@@ -0,0 +1,33 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/** One keyset page of results and the cursor for the page after it, or null on the last page. */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> items;
+
+    private final String next;
+
+    /**
+     * Build a page from a query that fetched one row more than the limit.
+     *
+     * @param rows rows fetched, at most limit + 1
+     * @param limit page size requested
+     * @param cursorOf extracts the cursor value from the last row on the page
+     * @return the page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, ?> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, String.valueOf(cursorOf.apply(items.get(limit - 1))));
+    }
+}
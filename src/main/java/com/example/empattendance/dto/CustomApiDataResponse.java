@@ -1,5 +1,7 @@
 package com.example.empattendance.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,4 +20,20 @@ public class CustomApiDataResponse<T> {
 
     private T dataObject;
 
+    /** Cursor for the next page of a paginated list; omitted when there are no more pages. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
+
+    /** Number of matching items across all pages; sent with the first page of a filtered list. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public CustomApiDataResponse(Boolean success, String message, T dataObject) {
+        this(success, message, dataObject, null, null);
+    }
+
+    public CustomApiDataResponse(Boolean success, String message, T dataObject, String next) {
+        this(success, message, dataObject, next, null);
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import com.example.empattendance.model.AttendanceType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAttendanceSummary {
+    private LocalDate date;
+    private Map<AttendanceType, Long> counts;
+    private long totalMinutes;
+}
@@ -0,0 +1,18 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchHit {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private int score;
+}
@@ -0,0 +1,21 @@
+package com.example.empattendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.YearMonth;
+
+@Getter 
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSummary {
+    private Long employeeId;
+    private YearMonth period;
+    private int daysPresent;
+    private int sickDays;
+    private int absences;
+    private long minutesWorked;
+}
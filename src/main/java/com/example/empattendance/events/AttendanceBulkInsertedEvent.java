@@ -0,0 +1,110 @@
+package com.example.empattendance.events;
+
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Department;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * New records of one type on one day for many employees of a department, written by a single
+ * statement. Published once per statement instead of one {@link AttendanceRegisteredEvent} per
+ * row; entry {@code i} of the arrays describes one record. Every employee has exactly one record
+ * here, and none of them has a sign in or sign out.
+ */
+public class AttendanceBulkInsertedEvent extends ApplicationEvent {
+    private final Long departmentId;
+    private final LocalDate date;
+    private final AttendanceType type;
+    private final String notes;
+    private final long[] recordIds;
+    private final long[] employeeIds;
+    private final EmployeeType[] employeeTypes;
+
+    public AttendanceBulkInsertedEvent(Object source, Long departmentId, LocalDate date, AttendanceType type, String notes,
+                                       long[] recordIds, long[] employeeIds, EmployeeType[] employeeTypes) {
+        super(source);
+        if (recordIds.length != employeeIds.length || recordIds.length != employeeTypes.length) {
+            throw new IllegalArgumentException("Record IDs, employee IDs and employee types must have the same length");
+        }
+        this.departmentId = departmentId;
+        this.date = date;
+        this.type = type;
+        this.notes = notes;
+        this.recordIds = recordIds;
+        this.employeeIds = employeeIds;
+        this.employeeTypes = employeeTypes;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public AttendanceType getType() {
+        return type;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public int size() {
+        return recordIds.length;
+    }
+
+    public long getRecordId(int i) {
+        return recordIds[i];
+    }
+
+    public long getEmployeeId(int i) {
+        return employeeIds[i];
+    }
+
+    public EmployeeType getEmployeeType(int i) {
+        return employeeTypes[i];
+    }
+
+    /**
+     * The entries at some positions, as an event of their own.
+     *
+     * @param positions positions to keep, in the order wanted
+     * @return event with only those records
+     */
+    public AttendanceBulkInsertedEvent select(int[] positions) {
+        long[] selectedRecordIds = new long[positions.length];
+        long[] selectedEmployeeIds = new long[positions.length];
+        EmployeeType[] selectedEmployeeTypes = new EmployeeType[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            selectedRecordIds[i] = recordIds[positions[i]];
+            selectedEmployeeIds[i] = employeeIds[positions[i]];
+            selectedEmployeeTypes[i] = employeeTypes[positions[i]];
+        }
+        return new AttendanceBulkInsertedEvent(getSource(), departmentId, date, type, notes,
+            selectedRecordIds, selectedEmployeeIds, selectedEmployeeTypes);
+    }
+
+    /** The same records as one {@link AttendanceRegisteredEvent} per employee, for handlers without a bulk path. */
+    public List<AttendanceRegisteredEvent> toRegisteredEvents() {
+        Department department = new Department();
+        department.setId(departmentId);
+        List<AttendanceRegisteredEvent> events = new ArrayList<>(recordIds.length);
+        for (int i = 0; i < recordIds.length; i++) {
+            Employee employee = new Employee();
+            employee.setId(employeeIds[i]);
+            employee.setType(employeeTypes[i]);
+            employee.setDepartment(department);
+            events.add(new AttendanceRegisteredEvent(getSource(), employee,
+                new AttendanceRecord(recordIds[i], employee, date, type, null, null, notes)));
+        }
+        return events;
+    }
+}
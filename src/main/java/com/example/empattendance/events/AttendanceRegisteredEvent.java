@@ -2,23 +2,59 @@ package com.example.empattendance.events;
 
 import com.example.empattendance.model.AttendanceRecord;
 import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
 import org.springframework.context.ApplicationEvent;
 
+import java.util.List;
+
+/**
+ * One or more attendance records of a single employee written in the same transaction. A ranged
+ * sick leave or absence is published as one event carrying every day it wrote. The employee's
+ * department and type are read when the event is created, inside the writing transaction, so
+ * handlers running after the commit do not have to load the employee again.
+ */
 public class AttendanceRegisteredEvent extends ApplicationEvent {
     private final Employee employee;
-    private final AttendanceRecord attendance;
+    private final Long departmentId;
+    private final EmployeeType employeeType;
+    private final List<AttendanceRecord> attendances;
 
     public AttendanceRegisteredEvent(Object source, Employee employee, AttendanceRecord attendance) {
+        this(source, employee, List.of(attendance));
+    }
+
+    public AttendanceRegisteredEvent(Object source, Employee employee, List<AttendanceRecord> attendances) {
         super(source);
         this.employee = employee;
-        this.attendance = attendance;
+        this.departmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
+        this.employeeType = employee.getType();
+        this.attendances = List.copyOf(attendances);
     }
 
+    /**
+     * The employee the record belongs to. This may be an uninitialised reference, loaded only when
+     * a listener reads more than its id.
+     */
     public Employee getEmployee() {
         return employee;
     }
 
-    public AttendanceRecord getAttendance() {
-        return attendance;
+    public Long getEmployeeId() {
+        return employee.getId();
+    }
+
+    /** The employee's department when the records were written, null if it had none. */
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    /** The employee's type when the records were written. */
+    public EmployeeType getEmployeeType() {
+        return employeeType;
+    }
+
+    /** The records written, in date order for a ranged write. */
+    public List<AttendanceRecord> getAttendances() {
+        return attendances;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.example.empattendance.listeners;
+
+import com.example.empattendance.config.StripedExecutor;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.model.AttendanceRecord;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Routes {@link AttendanceRegisteredEvent}s and {@link AttendanceBulkInsertedEvent}s to every
+ * {@link AttendanceEventHandler}.
+ *
+ * <p>In {@code async} mode (the default) handlers run on the attendance event executor once the
+ * publishing transaction has committed, so they never see rolled-back records and do not add to
+ * request latency. Events are queued on the executor stripe for their employee, so each employee's
+ * events reach every handler in commit order; a bulk event is split by stripe so each part queues
+ * behind the same employees' earlier events. In {@code sync} mode they run inline when the event
+ * is published. Each handler is timed separately; handlers that declare themselves idempotent are
+ * retried with a fixed backoff, and any failure that is not retried is logged.
+ */
+@Component
+public class AttendanceEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceEventDispatcher.class);
+
+    @Autowired
+    private List<AttendanceEventHandler> handlers;
+
+    @Autowired
+    @Qualifier("attendanceEventExecutor")
+    private StripedExecutor executor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${attendance.events.dispatch:async}")
+    private String dispatchMode;
+
+    @Value("${attendance.events.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${attendance.events.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("attendance.events.queue.depth", executor, StripedExecutor::getQueueSize)
+            .description("Attendance events waiting for a handler thread")
+            .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onPublished(AttendanceRegisteredEvent event) {
+        if (!isAsync()) {
+            handlers.forEach(handler -> invoke(handler, event));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(AttendanceRegisteredEvent event) {
+        if (isAsync()) {
+            executor.execute(event.getEmployeeId(), () -> handlers.forEach(handler -> invoke(handler, event)));
+        }
+    }
+
+    @EventListener
+    public void onPublished(AttendanceBulkInsertedEvent event) {
+        if (!isAsync()) {
+            handlers.forEach(handler -> invoke(handler, event));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(AttendanceBulkInsertedEvent event) {
+        if (!isAsync()) {
+            return;
+        }
+        int stripes = executor.getStripeCount();
+        List<List<Integer>> positions = new ArrayList<>(stripes);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < event.size(); i++) {
+            positions.get((int) Math.floorMod(event.getEmployeeId(i), (long) stripes)).add(i);
+        }
+        for (List<Integer> stripePositions : positions) {
+            if (!stripePositions.isEmpty()) {
+                AttendanceBulkInsertedEvent part = event.select(stripePositions.stream().mapToInt(Integer::intValue).toArray());
+                executor.execute(part.getEmployeeId(0), () -> handlers.forEach(handler -> invoke(handler, part)));
+            }
+        }
+    }
+
+    private boolean isAsync() {
+        return "async".equalsIgnoreCase(dispatchMode);
+    }
+
+    private void invoke(AttendanceEventHandler handler, AttendanceRegisteredEvent event) {
+        invoke(handler, h -> h.handle(event), () -> recordIds(event));
+    }
+
+    private void invoke(AttendanceEventHandler handler, AttendanceBulkInsertedEvent event) {
+        invoke(handler, h -> h.handle(event), () -> recordIds(event));
+    }
+
+    private void invoke(AttendanceEventHandler handler, Consumer<AttendanceEventHandler> call, Supplier<List<Long>> recordIds) {
+        String name = handler.getClass().getSimpleName();
+        int attempts = handler.isIdempotent() ? maxAttempts : 1;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                call.accept(handler);
+                sample.stop(timer(name, "success"));
+                return;
+            } catch (RuntimeException e) {
+                sample.stop(timer(name, "error"));
+                if (attempt == attempts) {
+                    meterRegistry.counter("attendance.events.failed", "listener", name).increment();
+                    log.error("{} failed for attendance records {} after {} attempts",
+                        name, recordIds.get(), attempt, e);
+                    return;
+                }
+                log.warn("{} failed for attendance records {}, retrying", name, recordIds.get(), e);
+                if (!backoff()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static List<Long> recordIds(AttendanceRegisteredEvent event) {
+        return event.getAttendances().stream().map(AttendanceRecord::getId).toList();
+    }
+
+    private static List<Long> recordIds(AttendanceBulkInsertedEvent event) {
+        return LongStream.range(0, event.size()).map(i -> event.getRecordId((int) i)).boxed().toList();
+    }
+
+    private Timer timer(String listener, String outcome) {
+        return Timer.builder("attendance.events.listener")
+            .description("Time spent in each attendance event handler")
+            .tag("listener", listener)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private boolean backoff() {
+        try {
+            Thread.sleep(retryBackoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.empattendance.listeners;
+
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+
+/**
+ * A consumer of attendance events. Handlers are invoked by {@link AttendanceEventDispatcher}, which
+ * decides whether they run inline or on the attendance event executor after the transaction commits.
+ */
+public interface AttendanceEventHandler {
+
+    void handle(AttendanceRegisteredEvent event);
+
+    /**
+     * Apply records inserted in bulk. By default each record is handled as its own event; handlers
+     * that can apply a whole batch at once should override this.
+     *
+     * @param event records inserted by one statement
+     */
+    default void handle(AttendanceBulkInsertedEvent event) {
+        event.toRegisteredEvents().forEach(this::handle);
+    }
+
+    /**
+     * Whether handling the same event twice has the same effect as handling it once. Only
+     * idempotent handlers are retried after a failure, since a failed attempt may have applied
+     * part of its work.
+     *
+     * @return true if the handler can safely be retried
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+}
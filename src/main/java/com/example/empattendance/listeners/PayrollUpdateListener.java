@@ -1,22 +1,35 @@
 package com.example.empattendance.listeners;
 
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
 import com.example.empattendance.events.AttendanceRegisteredEvent;
 import com.example.empattendance.model.AttendanceRecord;
-import com.example.empattendance.model.Employee;
-import org.springframework.context.event.EventListener;
+import com.example.empattendance.service.PayrollService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class PayrollUpdateListener {
+public class PayrollUpdateListener implements AttendanceEventHandler {
 
-    @EventListener
-    public void handleAttendanceRegisteredEvent(AttendanceRegisteredEvent event) {
-        Employee employee = event.getEmployee();
-        AttendanceRecord attendance = event.getAttendance();
-        
-        // Simulate updating payroll calculations
-        System.out.println("Updating payroll for Employee: " + employee.getFirstName() + " " + employee.getLastName());
-        System.out.println("Attendance Type: " + attendance.getType() + " at " + attendance.getDateOfAtt());
+    @Autowired
+    private PayrollService payrollService;
+
+    @Override
+    public void handle(AttendanceRegisteredEvent event) {
+        for (AttendanceRecord attendance : event.getAttendances()) {
+            payrollService.record(
+                event.getEmployeeId(),
+                attendance.getDateOfAtt(),
+                attendance.getType(),
+                attendance.getSignInTime(),
+                attendance.getSignOutTime()
+            );
+        }
     }
-}
 
+    @Override
+    public void handle(AttendanceBulkInsertedEvent event) {
+        for (int i = 0; i < event.size(); i++) {
+            payrollService.record(event.getEmployeeId(i), event.getDate(), event.getType(), null, null);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * Running totals of attendance records per day, department and type. Rows are adjusted in the
+ * transaction that writes the underlying record, so reports read a handful of rows per day
+ * instead of scanning attendancerecords. Each total is split over several stripes of employees so
+ * that concurrent writers for one department rarely wait on the same row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_daily_summary", indexes = @Index(name = "idx_daily_summary_department_date", columnList = "department_id, date_of_att"))
+public class AttendanceDailySummary {
+
+    @EmbeddedId
+    private AttendanceDailySummaryId id;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "total_minutes", nullable = false)
+    private long totalMinutes;
+}
@@ -0,0 +1,33 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Day, department and attendance type that an {@link AttendanceDailySummary} row totals, and the
+ * stripe of employees it counts. A day's total for a department and type is the sum over stripes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class AttendanceDailySummaryId implements Serializable {
+
+    @Column(name = "date_of_att", nullable = false)
+    private LocalDate dateOfAtt;
+
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AttendanceType type;
+
+    @Column(nullable = false)
+    private int stripe;
+}
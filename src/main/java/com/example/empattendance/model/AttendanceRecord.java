@@ -2,9 +2,12 @@ package com.example.empattendance.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import jakarta.persistence.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
@@ -13,18 +16,36 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "attendancerecords")
+@NamedEntityGraph(
+    name = AttendanceRecord.WITH_EMPLOYEE,
+    attributeNodes = @NamedAttributeNode(value = "employee", subgraph = "employee"),
+    subgraphs = @NamedSubgraph(name = "employee", attributeNodes = @NamedAttributeNode("department"))
+)
+@Table(
+    name = "attendancerecords",
+    uniqueConstraints = @UniqueConstraint(name = "uk_attendance_employee_date", columnNames = {"employee_id", "date_of_att"}),
+    indexes = {
+        @Index(name = "idx_attendance_date", columnList = "date_of_att"),
+        @Index(name = "idx_attendance_employee_date_type", columnList = "employee_id, date_of_att, type")
+    }
+)
 public class AttendanceRecord {
 
+    /** Entity graph loading the employee and their department along with the record. */
+    public static final String WITH_EMPLOYEE = "AttendanceRecord.withEmployee";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendancerecords_seq")
+    @SequenceGenerator(name = "attendancerecords_seq", sequenceName = "attendancerecords_seq", allocationSize = 50)
     private Long id;
   
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Employee employee;
     
-    @Column(nullable = false)
+    @Column(name = "date_of_att", nullable = false)
     private LocalDate dateOfAtt;
     
     @Enumerated(EnumType.STRING)
@@ -36,5 +57,24 @@ public class AttendanceRecord {
     private LocalTime signOutTime;
     
     private String notes;        
+
+    /**
+     * Whole minutes worked on this record.
+     *
+     * @return minutes between sign in and sign out, 0 while either is missing
+     */
+    public int workedMinutes() {
+        return minutesBetween(signInTime, signOutTime);
+    }
+
+    /**
+     * Whole minutes between two times of the same day, 0 if either is missing or they are out of order.
+     */
+    public static int minutesBetween(LocalTime signInTime, LocalTime signOutTime) {
+        if (signInTime == null || signOutTime == null || signOutTime.isBefore(signInTime)) {
+            return 0;
+        }
+        return (int) Duration.between(signInTime, signOutTime).toMinutes();
+    }
     
 }
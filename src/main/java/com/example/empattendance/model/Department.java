@@ -4,6 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.empattendance.config.EntityCacheConfig;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
@@ -13,16 +18,25 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.DEPARTMENTS)
 @Table(name = "departments")
 public class Department {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_seq")
+  @SequenceGenerator(name = "departments_seq", sequenceName = "departments_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true)
   private String name;
 
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  @JsonIgnore
+  private long version;
+
   @OneToMany(mappedBy = "department", cascade = CascadeType.ALL)
   @JsonManagedReference
   @JsonIgnore
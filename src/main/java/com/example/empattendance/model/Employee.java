@@ -2,20 +2,35 @@ package com.example.empattendance.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.empattendance.config.EntityCacheConfig;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.EMPLOYEES)
+@Table(name = "employees", indexes = {
+    @Index(name = "idx_employees_department_id", columnList = "department_id, id"),
+    @Index(name = "idx_employees_department_type_gender", columnList = "department_id, type, gender")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Employee {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+  @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -28,9 +43,11 @@ public class Employee {
   @Column(nullable = false)
   private Gender gender;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "department_id", nullable = false)
   @JsonIgnoreProperties("employees")
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private Department department;
 
   private String address;
@@ -39,4 +56,10 @@ public class Employee {
   @Column(nullable = false)
   private EmployeeType type;
 
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  @JsonIgnore
+  private long version;
+
 }
\ No newline at end of file
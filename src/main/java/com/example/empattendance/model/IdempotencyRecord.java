@@ -0,0 +1,35 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** A completed response stored against its idempotency key, shared between nodes. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+  /** Endpoint scope and client key, e.g. "sign-in:3f1c...". */
+  @Id
+  @Column(name = "idempotency_key", length = 320)
+  private String key;
+
+  /** SHA-256 of the request body, so a key reused with a different body can be refused. */
+  @Column(nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(nullable = false)
+  private int status;
+
+  @Lob
+  private String body;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+}
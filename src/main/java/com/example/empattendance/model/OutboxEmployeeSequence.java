@@ -0,0 +1,25 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * Last outbox sequence number handed out for an employee. The row stays locked until the writing
+ * transaction commits, so an employee's outbox events are numbered in commit order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_outbox_sequence")
+public class OutboxEmployeeSequence {
+
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
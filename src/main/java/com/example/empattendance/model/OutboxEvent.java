@@ -0,0 +1,61 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Snapshot of an attendance record written in the same transaction as the record itself, waiting
+ * to be relayed to downstream systems. Ids are auto-increment values assigned as rows are inserted,
+ * so the relay reads a partition in insertion order; rows for one employee are inserted while the
+ * employee's sequence row is locked, so their ids follow {@code employeeSeq}. {@code relayPartition}
+ * decides which relay partition delivers them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "attendance_outbox",
+    uniqueConstraints = @UniqueConstraint(name = "uk_outbox_employee_seq", columnNames = {"employee_id", "employee_seq"}),
+    indexes = @Index(name = "idx_outbox_partition_id", columnList = "relay_partition, id")
+)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long recordId;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private Long employeeSeq;
+
+    @Column(nullable = false)
+    private Integer relayPartition;
+
+    @Column(nullable = false)
+    private LocalDate dateOfAtt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceType type;
+
+    private LocalTime signInTime;
+
+    private LocalTime signOutTime;
+
+    private String notes;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
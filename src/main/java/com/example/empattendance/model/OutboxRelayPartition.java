@@ -0,0 +1,27 @@
+package com.example.empattendance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One slice of the outbox, holding the events of every employee whose id falls in it. A relay
+ * locks a partition for the length of a batch, so each employee's events are only ever delivered
+ * by one relay at a time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attendance_outbox_partition")
+public class OutboxRelayPartition {
+
+    @Id
+    private Integer id;
+
+    /** When a relay last took a batch from this partition; null if it never has. */
+    private Instant lastRelayedAt;
+}
@@ -0,0 +1,11 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.EmployeeType;
+
+/** Attendance fact together with the employee's current department and type. */
+public interface AttendanceAnalyticsFact extends AttendanceFact {
+
+  Long getDepartmentId();
+
+  EmployeeType getEmployeeType();
+}
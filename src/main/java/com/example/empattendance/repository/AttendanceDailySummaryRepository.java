@@ -0,0 +1,20 @@
+package com.example.empattendance.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.empattendance.model.AttendanceDailySummary;
+import com.example.empattendance.model.AttendanceDailySummaryId;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceDailySummaryRepository extends JpaRepository<AttendanceDailySummary, AttendanceDailySummaryId> {
+
+  @Query("SELECT s.id.dateOfAtt AS dateOfAtt, s.id.type AS type, SUM(s.recordCount) AS recordCount, " +
+         "SUM(s.totalMinutes) AS totalMinutes FROM AttendanceDailySummary s WHERE s.id.departmentId = :departmentId " +
+         "AND s.id.dateOfAtt BETWEEN :startDate AND :endDate GROUP BY s.id.dateOfAtt, s.id.type ORDER BY s.id.dateOfAtt ASC")
+  List<DailySummaryTotals> findByDepartment(Long departmentId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,22 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.AttendanceType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Flat projection of an attendance record without its employee graph. */
+public interface AttendanceFact {
+
+  Long getRecordId();
+
+  Long getEmployeeId();
+
+  LocalDate getDateOfAtt();
+
+  AttendanceType getType();
+
+  LocalTime getSignInTime();
+
+  LocalTime getSignOutTime();
+}
@@ -1,22 +1,133 @@
 package com.example.empattendance.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<AttendanceRecord, Long> {
+public interface AttendanceRepository extends JpaRepository<AttendanceRecord, Long>, AttendanceRepositoryCustom {
+    /*
+     * The locking finders below guard read-modify-write paths: the daily summary is adjusted by the
+     * difference between the old and new state of a record, so two writers must not both see the
+     * same old state. They leave the employee unloaded; callers only need its ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<AttendanceRecord> findByEmployeeIdAndDateOfAtt(Long employeeId, LocalDate date);
-    
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AttendanceRecord> findByEmployeeIdInAndDateOfAtt(Collection<Long> employeeIds, LocalDate date);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AttendanceRecord a WHERE a.id IN :ids")
+    List<AttendanceRecord> findAllForUpdate(Collection<Long> ids);
+
+    /**
+     * Under MySQL's default REPEATABLE READ this also locks the gaps between the employee's records
+     * in the range, so no other transaction can insert a day into it until the caller commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AttendanceRecord a WHERE a.employee.id = :employeeId AND a.dateOfAtt BETWEEN :startDate AND :endDate")
+    List<AttendanceRecord> findForUpdateByEmployeeIdAndDateBetween(Long employeeId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Both bounds are required: an optional bound written as {@code :date IS NULL OR ...} hides the
+     * date range from MySQL, which then cannot prune partitions or narrow the index range.
+     */
+    @EntityGraph(AttendanceRecord.WITH_EMPLOYEE)
     @Query("SELECT a FROM AttendanceRecord a WHERE a.employee.id = :employeeId " +
-           "AND (:startDate IS NULL OR a.dateOfAtt >= :startDate) " +
-           "AND (:endDate IS NULL OR a.dateOfAtt <= :endDate) " +
+           "AND a.dateOfAtt BETWEEN :startDate AND :endDate " +
            "ORDER BY a.dateOfAtt ASC")
     List<AttendanceRecord> findByEmployeeIdAndDateBetweenOrderByDateAsc(Long employeeId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT a.id AS recordId, a.employee.id AS employeeId, a.dateOfAtt AS dateOfAtt, a.type AS type, " +
+           "a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a WHERE a.dateOfAtt BETWEEN :startDate AND :endDate")
+    List<AttendanceFact> findFactsBetween(LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT a.id AS recordId, a.employee.id AS employeeId, a.dateOfAtt AS dateOfAtt, a.type AS type, " +
+           "a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a WHERE a.employee.id = :employeeId AND a.dateOfAtt BETWEEN :startDate AND :endDate")
+    List<AttendanceFact> findFactsByEmployeeIdBetween(Long employeeId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT a.id AS recordId, a.employee.id AS employeeId, a.dateOfAtt AS dateOfAtt, a.type AS type, " +
+           "a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a WHERE a.employee.id = :employeeId")
+    List<AttendanceFact> findFactsByEmployeeId(Long employeeId);
+
+    /*
+     * Bulk deletes for removing employees. A partitioned attendancerecords has no foreign key to
+     * employees, so nothing else would remove their records.
+     */
+    @Modifying
+    @Query("DELETE FROM AttendanceRecord a WHERE a.employee.id = :employeeId")
+    int deleteByEmployeeId(Long employeeId);
+
+    @Modifying
+    @Query("DELETE FROM AttendanceRecord a WHERE a.employee.id IN " +
+           "(SELECT e.id FROM Employee e WHERE e.department.id = :departmentId)")
+    int deleteByDepartmentId(Long departmentId);
+
+    /**
+     * Stream facts for every record from a date on, read from a server-side cursor. The caller must
+     * consume the stream inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS recordId, a.employee.id AS employeeId, a.dateOfAtt AS dateOfAtt, a.type AS type, " +
+           "a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a WHERE a.dateOfAtt >= :fromDate")
+    Stream<AttendanceFact> streamFactsSince(LocalDate fromDate);
+
+    /**
+     * Stream every record with its employee's department and type in ID order, read from a
+     * server-side cursor. The caller must consume the stream inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS recordId, e.id AS employeeId, e.department.id AS departmentId, e.type AS employeeType, " +
+           "a.dateOfAtt AS dateOfAtt, a.type AS type, a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a JOIN a.employee e ORDER BY a.id")
+    Stream<AttendanceAnalyticsFact> streamAnalyticsFacts();
+
+    @Query("SELECT a.id AS recordId, a.employee.id AS employeeId, a.dateOfAtt AS dateOfAtt, a.type AS type, " +
+           "a.signInTime AS signInTime, a.signOutTime AS signOutTime " +
+           "FROM AttendanceRecord a WHERE a.dateOfAtt >= :fromDate AND a.type = 'PRESENT' " +
+           "AND a.signInTime IS NOT NULL AND a.signOutTime IS NULL")
+    List<AttendanceFact> findOpenSessionsSince(LocalDate fromDate);
+
+    /**
+     * Stream records for export with their employee and department in a single query. Rows are
+     * fetched from a server-side cursor, so the caller must consume the stream inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AttendanceRecord a JOIN FETCH a.employee e JOIN FETCH e.department d " +
+           "WHERE a.dateOfAtt >= :startDate AND a.dateOfAtt <= :endDate " +
+           "AND (:departmentId IS NULL OR d.id = :departmentId) " +
+           "AND (:type IS NULL OR a.type = :type) " +
+           "ORDER BY a.dateOfAtt ASC, a.id ASC")
+    Stream<AttendanceRecord> streamForExport(LocalDate startDate, LocalDate endDate, Long departmentId, AttendanceType type);
 }
@@ -0,0 +1,27 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.AttendanceRecord;
+
+import java.util.List;
+
+/** Single-statement attendance writes that rely on the (employee_id, date_of_att) unique key. */
+public interface AttendanceRepositoryCustom {
+
+  /**
+   * Insert a record unless the employee already has one for that day. The record's id is assigned
+   * before the statement runs, so after an insert it describes the stored row.
+   *
+   * @param record transient record carrying employee, date, type, times and notes
+   * @return 1 if the row was inserted, 0 if a record for the day already exists
+   */
+  int insertIfAbsent(AttendanceRecord record);
+
+  /**
+   * Draw ids for records inserted outside Hibernate from the generator mapped on
+   * {@link AttendanceRecord}, so they never collide with the ids it hands out itself.
+   *
+   * @param count ids needed
+   * @return the ids, in ascending order
+   */
+  List<Long> nextIds(int count);
+}
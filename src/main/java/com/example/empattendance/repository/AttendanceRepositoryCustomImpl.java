@@ -0,0 +1,70 @@
+package com.example.empattendance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.query.NativeQuery;
+
+import com.example.empattendance.model.AttendanceRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MySQL implementation of {@link AttendanceRepositoryCustom} using {@code INSERT ... ON DUPLICATE
+ * KEY UPDATE id = id}, a no-op on conflict. The returned count is MySQL affected rows, which
+ * requires {@code useAffectedRows=true} on the JDBC URL.
+ */
+public class AttendanceRepositoryCustomImpl implements AttendanceRepositoryCustom {
+
+  private static final String INSERT_IF_ABSENT =
+      "INSERT INTO attendancerecords (id, employee_id, date_of_att, type, sign_in_time, sign_out_time, notes) "
+          + "VALUES (:id, :employeeId, :date, :type, :signInTime, :signOutTime, :notes) "
+          + "ON DUPLICATE KEY UPDATE id = id";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public int insertIfAbsent(AttendanceRecord record) {
+    record.setId(nextId());
+    // Naming the affected table stops Hibernate from invalidating every second-level cache region
+    return entityManager.createNativeQuery(INSERT_IF_ABSENT)
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(AttendanceRecord.class)
+        .setParameter("id", record.getId())
+        .setParameter("employeeId", record.getEmployee().getId())
+        .setParameter("date", record.getDateOfAtt())
+        .setParameter("type", record.getType().name())
+        .setParameter("signInTime", record.getSignInTime())
+        .setParameter("signOutTime", record.getSignOutTime())
+        .setParameter("notes", record.getNotes())
+        .executeUpdate();
+  }
+
+  @Override
+  public List<Long> nextIds(int count) {
+    SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+    IdentifierGenerator generator = generator(session);
+    List<Long> ids = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      // The pooled optimizer only goes to the database once per block
+      ids.add((Long) generator.generate(session, null));
+    }
+    return ids;
+  }
+
+  /** Draw the next id from the same pooled sequence Hibernate uses for persisted records. */
+  private Long nextId() {
+    SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+    return (Long) generator(session).generate(session, null);
+  }
+
+  private static IdentifierGenerator generator(SharedSessionContractImplementor session) {
+    return (IdentifierGenerator) session.getFactory()
+        .getMappingMetamodel()
+        .getEntityDescriptor(AttendanceRecord.class)
+        .getGenerator();
+  }
+}
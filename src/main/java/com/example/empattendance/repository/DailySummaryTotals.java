@@ -0,0 +1,17 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.AttendanceType;
+
+import java.time.LocalDate;
+
+/** A department's total for one day and type, summed over the summary stripes. */
+public interface DailySummaryTotals {
+
+  LocalDate getDateOfAtt();
+
+  AttendanceType getType();
+
+  Long getRecordCount();
+
+  Long getTotalMinutes();
+}
@@ -0,0 +1,13 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.EmployeeType;
+
+/** An employee's current department and type, without the rest of the entity. */
+public interface EmployeeDimensions {
+
+  Long getEmployeeId();
+
+  Long getDepartmentId();
+
+  EmployeeType getEmployeeType();
+}
@@ -1,15 +1,22 @@
 package com.example.empattendance.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.example.empattendance.config.EntityCacheConfig;
 import com.example.empattendance.model.Employee;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 import java.util.List;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
 
   /**
    * Find all employees with their departments.
@@ -19,5 +26,43 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
   @Query("SELECT e FROM Employee e JOIN FETCH e.department")
   List<Employee> findAllWithDepartments();
 
-  List<Employee> findByDepartmentId(Long departmentId);
+  /**
+   * Find the next page of employees after a given ID, with their departments. Pages are kept in
+   * the query cache and dropped whenever the employees or departments table changes.
+   *
+   * @param afterId last ID of the previous page, 0 for the first page
+   * @param pageable page size (the page number must be 0)
+   * @return employees in ID order
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.EMPLOYEE_PAGES)
+  })
+  @Query("SELECT e FROM Employee e JOIN FETCH e.department WHERE e.id > :afterId ORDER BY e.id ASC")
+  List<Employee> findPageWithDepartments(Long afterId, Pageable pageable);
+
+  /**
+   * Find the next page of a department's employees after a given ID. Pages are kept in the query
+   * cache and dropped whenever the employees or departments table changes.
+   *
+   * @param departmentId ID of the department
+   * @param afterId last ID of the previous page, 0 for the first page
+   * @param pageable page size (the page number must be 0)
+   * @return employees in ID order
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.EMPLOYEE_PAGES)
+  })
+  @Query("SELECT e FROM Employee e JOIN FETCH e.department d WHERE d.id = :departmentId AND e.id > :afterId ORDER BY e.id ASC")
+  List<Employee> findPageByDepartmentId(Long departmentId, Long afterId, Pageable pageable);
+
+  @Query("SELECT e.id FROM Employee e")
+  List<Long> findAllIds();
+
+  @Query("SELECT e.id FROM Employee e WHERE e.department.id = :departmentId")
+  List<Long> findIdsByDepartmentId(Long departmentId);
+
+  @Query("SELECT e.id AS employeeId, e.department.id AS departmentId, e.type AS employeeType FROM Employee e")
+  List<EmployeeDimensions> findAllDimensions();
 }
@@ -0,0 +1,58 @@
+package com.example.empattendance.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
+
+/**
+ * Predicates for filtering employees. Every filter is optional and a null value matches all
+ * employees. Department, type and gender together are served by idx_employees_department_type_gender,
+ * which InnoDB extends with the primary key, so counts read only the index and pages come back in
+ * ID order without a sort when all three are given.
+ */
+public final class EmployeeSpecifications {
+
+  private EmployeeSpecifications() {}
+
+  /**
+   * Employees matching every filter given.
+   *
+   * @param departmentId ID of the department, or null for any
+   * @param type employment type, or null for any
+   * @param gender gender, or null for any
+   * @return the combined predicate
+   */
+  public static Specification<Employee> matching(Long departmentId, EmployeeType type, Gender gender) {
+    return Specification.where(inDepartment(departmentId)).and(ofType(type)).and(ofGender(gender));
+  }
+
+  /**
+   * Employees after a keyset cursor, with their departments fetched in the same statement.
+   *
+   * @param afterId last ID of the previous page, 0 for the first page
+   * @return the predicate
+   */
+  public static Specification<Employee> pageAfter(Long afterId) {
+    return (root, query, builder) -> {
+      // Count queries cannot fetch
+      if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+        root.fetch("department");
+      }
+      return builder.greaterThan(root.get("id"), afterId);
+    };
+  }
+
+  private static Specification<Employee> inDepartment(Long departmentId) {
+    return departmentId == null ? null : (root, query, builder) -> builder.equal(root.get("department").get("id"), departmentId);
+  }
+
+  private static Specification<Employee> ofType(EmployeeType type) {
+    return type == null ? null : (root, query, builder) -> builder.equal(root.get("type"), type);
+  }
+
+  private static Specification<Employee> ofGender(Gender gender) {
+    return gender == null ? null : (root, query, builder) -> builder.equal(root.get("gender"), gender);
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.empattendance.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.empattendance.model.IdempotencyRecord;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  /**
+   * Store a record, failing with a duplicate key error if the key is already taken. Unlike
+   * {@code save}, this never overwrites a response another node stored first.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, body, created_at) "
+      + "VALUES (:#{#record.key}, :#{#record.requestHash}, :#{#record.status}, :#{#record.body}, :#{#record.createdAt})",
+      nativeQuery = true)
+  void insert(IdempotencyRecord record);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+  int deleteCreatedBefore(Instant cutoff);
+}
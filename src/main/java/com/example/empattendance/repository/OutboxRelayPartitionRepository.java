@@ -0,0 +1,33 @@
+package com.example.empattendance.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.example.empattendance.model.OutboxRelayPartition;
+
+import java.util.List;
+
+@Repository
+public interface OutboxRelayPartitionRepository extends JpaRepository<OutboxRelayPartition, Integer> {
+
+  /**
+   * Lock the pending partition that was relayed longest ago. Partitions another relay holds are
+   * skipped (a lock timeout of -2 is SKIP LOCKED), so relays on several nodes work on different
+   * partitions and never interleave one employee's events.
+   *
+   * @param pageable number of partitions to claim, normally one
+   * @return claimed partitions that have events waiting
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT p FROM OutboxRelayPartition p "
+      + "WHERE EXISTS (SELECT 1 FROM OutboxEvent o WHERE o.relayPartition = p.id) "
+      + "ORDER BY p.lastRelayedAt ASC NULLS FIRST, p.id ASC")
+  List<OutboxRelayPartition> claimPending(Pageable pageable);
+}
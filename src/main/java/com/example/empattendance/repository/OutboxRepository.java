@@ -0,0 +1,35 @@
+package com.example.empattendance.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.empattendance.model.OutboxEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long>, OutboxRepositoryCustom {
+
+  /**
+   * Read the oldest events of a partition the caller has claimed, in the order they were inserted.
+   * Every employee with a pending event gets to the front of the queue in turn, whatever its id.
+   *
+   * @param relayPartition claimed partition
+   * @param pageable batch size
+   * @return pending events ordered by id
+   */
+  @Query("SELECT o FROM OutboxEvent o WHERE o.relayPartition = :relayPartition ORDER BY o.id ASC")
+  List<OutboxEvent> findNextBatch(Integer relayPartition, Pageable pageable);
+
+  /**
+   * Creation time of the oldest event still waiting in a partition.
+   *
+   * @param relayPartition relay partition
+   * @return when the oldest pending event was written, null if the partition is empty
+   */
+  @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o WHERE o.relayPartition = :relayPartition")
+  Instant findOldestCreatedAt(Integer relayPartition);
+}
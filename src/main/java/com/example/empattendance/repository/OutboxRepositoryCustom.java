@@ -0,0 +1,39 @@
+package com.example.empattendance.repository;
+
+import com.example.empattendance.model.OutboxEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/** Outbox writes that need MySQL's upsert or a plain JDBC batch. */
+public interface OutboxRepositoryCustom {
+
+  /**
+   * Reserve the next sequence numbers for an employee's outbox events. The employee's sequence row
+   * stays locked until the calling transaction ends, so a later transaction for the same employee
+   * waits and gets higher numbers.
+   *
+   * @param employeeId ID of the employee
+   * @param count how many numbers to reserve
+   * @return the last number reserved; the reserved range ends here and is {@code count} long
+   */
+  long reserveSequence(Long employeeId, int count);
+
+  /**
+   * Reserve one sequence number for each of many employees, in one batch. Rows are locked in the
+   * order given, so callers should pass employee IDs in ascending order.
+   *
+   * @param employeeIds IDs of the employees, each at most once
+   * @return the number reserved for each employee
+   */
+  Map<Long, Long> reserveSequences(long[] employeeIds);
+
+  /**
+   * Insert events in one JDBC batch. Auto-increment ids keep Hibernate from batching inserts, so
+   * the rows are written without going through the entity manager and their ids are not read
+   * back.
+   *
+   * @param events events to insert
+   */
+  void insertAll(List<OutboxEvent> events);
+}
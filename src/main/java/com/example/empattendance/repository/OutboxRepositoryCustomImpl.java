@@ -0,0 +1,104 @@
+package com.example.empattendance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.empattendance.model.OutboxEmployeeSequence;
+import com.example.empattendance.model.OutboxEvent;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MySQL implementation of {@link OutboxRepositoryCustom}. The upsert creates or advances the
+ * employee's row in one statement and holds its lock; the following read sees the transaction's
+ * own write. Events are inserted with JdbcTemplate, which the MySQL driver rewrites into
+ * multi-row inserts.
+ */
+public class OutboxRepositoryCustomImpl implements OutboxRepositoryCustom {
+
+  private static final String ADVANCE_SEQUENCE =
+      "INSERT INTO attendance_outbox_sequence (employee_id, last_seq) VALUES (:employeeId, :count) "
+          + "ON DUPLICATE KEY UPDATE last_seq = last_seq + :count";
+
+  private static final String SELECT_SEQUENCE =
+      "SELECT last_seq FROM attendance_outbox_sequence WHERE employee_id = :employeeId";
+
+  private static final String ADVANCE_SEQUENCE_BY_ONE =
+      "INSERT INTO attendance_outbox_sequence (employee_id, last_seq) VALUES (?, 1) "
+          + "ON DUPLICATE KEY UPDATE last_seq = last_seq + 1";
+
+  private static final String SELECT_SEQUENCE_RANGE =
+      "SELECT employee_id, last_seq FROM attendance_outbox_sequence WHERE employee_id BETWEEN ? AND ?";
+
+  private static final String INSERT_EVENT =
+      "INSERT INTO attendance_outbox (record_id, employee_id, employee_seq, relay_partition, date_of_att, type, "
+          + "sign_in_time, sign_out_time, notes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Override
+  public long reserveSequence(Long employeeId, int count) {
+    entityManager.createNativeQuery(ADVANCE_SEQUENCE)
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(OutboxEmployeeSequence.class)
+        .setParameter("employeeId", employeeId)
+        .setParameter("count", count)
+        .executeUpdate();
+    return ((Number) entityManager.createNativeQuery(SELECT_SEQUENCE)
+        .setParameter("employeeId", employeeId)
+        .getSingleResult()).longValue();
+  }
+
+  @Override
+  public Map<Long, Long> reserveSequences(long[] employeeIds) {
+    Map<Long, Long> reserved = new HashMap<>();
+    if (employeeIds.length == 0) {
+      return reserved;
+    }
+    List<Object[]> rows = new ArrayList<>(employeeIds.length);
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (long employeeId : employeeIds) {
+      rows.add(new Object[] {employeeId});
+      reserved.put(employeeId, null);
+      min = Math.min(min, employeeId);
+      max = Math.max(max, employeeId);
+    }
+    jdbcTemplate.batchUpdate(ADVANCE_SEQUENCE_BY_ONE, rows);
+    // The range may take in other employees' rows; only the ones reserved here are kept
+    jdbcTemplate.query(SELECT_SEQUENCE_RANGE, row -> {
+      long employeeId = row.getLong(1);
+      if (reserved.containsKey(employeeId)) {
+        reserved.put(employeeId, row.getLong(2));
+      }
+    }, min, max);
+    return reserved;
+  }
+
+  @Override
+  public void insertAll(List<OutboxEvent> events) {
+    jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+      ps.setLong(1, event.getRecordId());
+      ps.setLong(2, event.getEmployeeId());
+      ps.setLong(3, event.getEmployeeSeq());
+      ps.setInt(4, event.getRelayPartition());
+      ps.setObject(5, event.getDateOfAtt());
+      ps.setString(6, event.getType().name());
+      ps.setObject(7, event.getSignInTime());
+      ps.setObject(8, event.getSignOutTime());
+      ps.setString(9, event.getNotes());
+      ps.setTimestamp(10, Timestamp.from(event.getCreatedAt()));
+    });
+  }
+}
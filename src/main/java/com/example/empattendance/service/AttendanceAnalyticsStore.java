@@ -0,0 +1,551 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.dto.AttendanceAnalyticsFilter;
+import com.example.empattendance.dto.AttendanceAnalyticsRow;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.listeners.AttendanceEventHandler;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.repository.AttendanceAnalyticsFact;
+import com.example.empattendance.repository.AttendanceRepository;
+import com.example.empattendance.repository.EmployeeDimensions;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Column store of every attendance record, archived or in attendancerecords, for organisation-wide
+ * aggregates that should not touch MySQL. Each record is one row across primitive columns
+ * (employee id, epoch day, type ordinal, sign-in and sign-out second of day, department, employee
+ * type) held in fixed-size segments. Departments are dictionary encoded, so every grouping
+ * dimension is a small dense ordinal and a scan accumulates into a flat {@code long[]} rather
+ * than a map.
+ *
+ * <p>Aggregates split the segments across a dedicated fork/join pool, and segments whose day range
+ * misses the filter are skipped without being read. Rows are appended and updated by the attendance
+ * event dispatcher after each committed write, and the whole store is rebuilt at startup and on a
+ * schedule, which also picks up employees that moved department or were deleted since. Scans do
+ * not lock, so a scan running alongside a write may or may not see it.
+ */
+@Component
+public class AttendanceAnalyticsStore implements AttendanceEventHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceAnalyticsStore.class);
+
+  /** Dimensions an aggregate can be grouped by. */
+  public enum Dimension {
+    DEPARTMENT, EMPLOYEE_TYPE, ATTENDANCE_TYPE
+  }
+
+  private static final int SEGMENT_BITS = 16;
+  private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+  /** Stored in the time columns when the record has no sign in or sign out. */
+  private static final int NO_TIME = -1;
+
+  /** Accumulator slots per group. */
+  private static final int RECORDS = 0;
+  private static final int LATE = 1;
+  private static final int SESSIONS = 2;
+  private static final int MINUTES = 3;
+  private static final int SLOTS = 4;
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  /** Worker threads for scans; 0 uses one per available processor. */
+  @Value("${attendance.analytics.parallelism:0}")
+  private int parallelism;
+
+  /** Sign ins after this time count as late arrivals unless a query overrides it. */
+  @Value("${attendance.analytics.late-after:09:00}")
+  private LocalTime lateAfter;
+
+  private TransactionTemplate readOnlyTransaction;
+  private ForkJoinPool pool;
+  private volatile Columns columns;
+
+  /** Writes seen while a rebuild is loading, replayed onto the new columns before the swap. */
+  private List<Consumer<Columns>> pendingWrites;
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    columns = new Columns();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /** Load every archived and live attendance record into fresh columns and swap them in. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${attendance.analytics.rebuild-cron:0 30 3 * * *}")
+  public void rebuild() {
+    long started = System.nanoTime();
+    Columns fresh = new Columns();
+    synchronized (this) {
+      pendingWrites = new ArrayList<>();
+    }
+    try {
+      readOnlyTransaction.executeWithoutResult(status -> {
+        try (Stream<AttendanceAnalyticsFact> facts = attendanceRepository.streamAnalyticsFacts()) {
+          facts.forEach(fact -> fresh.upsert(fact.getRecordId(), fact.getEmployeeId(), fact.getDepartmentId(),
+              fact.getEmployeeType(), fact.getDateOfAtt(), fact.getType(), fact.getSignInTime(), fact.getSignOutTime()));
+        }
+        // After the live rows, so those stay in ID order and only archived rows need a map entry
+        loadArchived(fresh);
+      });
+      synchronized (this) {
+        pendingWrites.forEach(write -> write.accept(fresh));
+        columns = fresh;
+      }
+    } finally {
+      synchronized (this) {
+        pendingWrites = null;
+      }
+    }
+    log.info("Attendance analytics store loaded {} records in {} ms",
+        fresh.rows, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /**
+   * Load the archived records, joined in memory to their employees' current department and type.
+   * Records of employees deleted since are skipped, as the live query's join would skip them.
+   */
+  private void loadArchived(Columns target) {
+    if (attendanceArchiveService.getArchivedThrough() == null) {
+      return;
+    }
+    Map<Long, EmployeeDimensions> employees = new HashMap<>();
+    for (EmployeeDimensions employee : employeeRepository.findAllDimensions()) {
+      employees.put(employee.getEmployeeId(), employee);
+    }
+    attendanceArchiveService.forEachRow(row -> {
+      EmployeeDimensions employee = employees.get(row.employeeId);
+      if (employee != null) {
+        target.upsert(row.id, row.employeeId, employee.getDepartmentId(), employee.getEmployeeType(),
+            row.date, row.type, row.signInTime, row.signOutTime);
+      }
+    });
+  }
+
+  /** Apply committed records, using the department and employee type carried by the event. */
+  @Override
+  public void handle(AttendanceRegisteredEvent event) {
+    List<AttendanceRecord> records = event.getAttendances();
+    Consumer<Columns> write = target -> {
+      for (AttendanceRecord record : records) {
+        target.upsert(record.getId(), event.getEmployeeId(), event.getDepartmentId(), event.getEmployeeType(),
+            record.getDateOfAtt(), record.getType(), record.getSignInTime(), record.getSignOutTime());
+      }
+    };
+    synchronized (this) {
+      write.accept(columns);
+      if (pendingWrites != null) {
+        pendingWrites.add(write);
+      }
+    }
+  }
+
+  /** Append a bulk insert's rows under one lock. */
+  @Override
+  public void handle(AttendanceBulkInsertedEvent event) {
+    Consumer<Columns> write = target -> {
+      for (int i = 0; i < event.size(); i++) {
+        target.upsert(event.getRecordId(i), event.getEmployeeId(i), event.getDepartmentId(), event.getEmployeeType(i),
+            event.getDate(), event.getType(), null, null);
+      }
+    };
+    synchronized (this) {
+      write.accept(columns);
+      if (pendingWrites != null) {
+        pendingWrites.add(write);
+      }
+    }
+  }
+
+  /** Upserting the same record again leaves the same row. */
+  @Override
+  public boolean isIdempotent() {
+    return true;
+  }
+
+  /**
+   * Aggregate the records matching a filter, grouped by one dimension.
+   *
+   * @param groupBy dimension to group by
+   * @param filter restrictions on the records counted
+   * @return one row per group with at least one record, departments in ID order
+   */
+  public List<AttendanceAnalyticsRow> aggregate(Dimension groupBy, AttendanceAnalyticsFilter filter) {
+    Columns current = columns;
+    // Rows are published after the segments and dictionary entries they use, so read them first
+    int rows = current.rows;
+    Segment[] segments = current.segments;
+    long[] departmentIds = current.departmentIds;
+
+    int department = -1;
+    if (filter.getDepartmentId() != null) {
+      department = indexOf(departmentIds, filter.getDepartmentId());
+      if (department < 0) {
+        return List.of();
+      }
+    }
+    int groups = switch (groupBy) {
+      case DEPARTMENT -> departmentIds.length;
+      case EMPLOYEE_TYPE -> EmployeeType.values().length;
+      case ATTENDANCE_TYPE -> AttendanceType.values().length;
+    };
+    LocalTime late = filter.getLateAfter() != null ? filter.getLateAfter() : lateAfter;
+    Scan scan = new Scan(segments, rows, groupBy, groups,
+        filter.getStartDate() != null ? (int) filter.getStartDate().toEpochDay() : Integer.MIN_VALUE,
+        filter.getEndDate() != null ? (int) filter.getEndDate().toEpochDay() : Integer.MAX_VALUE,
+        filter.getEmployeeId() != null ? filter.getEmployeeId() : -1,
+        department,
+        filter.getEmployeeType() != null ? filter.getEmployeeType().ordinal() : -1,
+        filter.getAttendanceType() != null ? filter.getAttendanceType().ordinal() : -1,
+        late.toSecondOfDay());
+    int segmentCount = (rows + SEGMENT_SIZE - 1) >>> SEGMENT_BITS;
+    long[] totals = pool.invoke(new ScanTask(scan, 0, segmentCount));
+
+    List<Integer> order = new ArrayList<>();
+    for (int group = 0; group < groups; group++) {
+      if (totals[group * SLOTS + RECORDS] > 0) {
+        order.add(group);
+      }
+    }
+    if (groupBy == Dimension.DEPARTMENT) {
+      order.sort(Comparator.comparingLong(group -> departmentIds[group]));
+    }
+    List<AttendanceAnalyticsRow> result = new ArrayList<>(order.size());
+    for (int group : order) {
+      int base = group * SLOTS;
+      long sessions = totals[base + SESSIONS];
+      long minutes = totals[base + MINUTES];
+      double averageHours = sessions > 0 ? Math.round(minutes * 100.0 / 60 / sessions) / 100.0 : 0;
+      result.add(new AttendanceAnalyticsRow(label(groupBy, group, departmentIds),
+          totals[base + RECORDS], totals[base + LATE], sessions, minutes, averageHours));
+    }
+    return result;
+  }
+
+  private static String label(Dimension groupBy, int group, long[] departmentIds) {
+    return switch (groupBy) {
+      case DEPARTMENT -> String.valueOf(departmentIds[group]);
+      case EMPLOYEE_TYPE -> EmployeeType.values()[group].name();
+      case ATTENDANCE_TYPE -> AttendanceType.values()[group].name();
+    };
+  }
+
+  private static int indexOf(long[] values, long value) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int secondOfDay(LocalTime time) {
+    return time != null ? time.toSecondOfDay() : NO_TIME;
+  }
+
+  /** Immutable parameters of one aggregate, shared by its scan tasks. */
+  private static final class Scan {
+
+    private final Segment[] segments;
+    private final int rows;
+    private final Dimension groupBy;
+    private final int groups;
+    private final int fromDay;
+    private final int toDay;
+    private final long employeeId;
+    private final int department;
+    private final int employeeType;
+    private final int attendanceType;
+    private final int lateAfter;
+
+    Scan(Segment[] segments, int rows, Dimension groupBy, int groups, int fromDay, int toDay,
+        long employeeId, int department, int employeeType, int attendanceType, int lateAfter) {
+      this.segments = segments;
+      this.rows = rows;
+      this.groupBy = groupBy;
+      this.groups = groups;
+      this.fromDay = fromDay;
+      this.toDay = toDay;
+      this.employeeId = employeeId;
+      this.department = department;
+      this.employeeType = employeeType;
+      this.attendanceType = attendanceType;
+      this.lateAfter = lateAfter;
+    }
+
+    long[] scan(int segmentIndex) {
+      long[] acc = new long[groups * SLOTS];
+      Segment segment = segments[segmentIndex];
+      int size = Math.min(SEGMENT_SIZE, rows - (segmentIndex << SEGMENT_BITS));
+      if (segment.maxDay < fromDay || segment.minDay > toDay) {
+        return acc;
+      }
+      for (int row = 0; row < size; row++) {
+        int day = segment.days[row];
+        if (day < fromDay || day > toDay
+            || (attendanceType >= 0 && segment.types[row] != attendanceType)
+            || (employeeType >= 0 && segment.employeeTypes[row] != employeeType)
+            || (department >= 0 && segment.departments[row] != department)
+            || (employeeId >= 0 && segment.employeeIds[row] != employeeId)) {
+          continue;
+        }
+        int group = groupBy == Dimension.DEPARTMENT ? segment.departments[row]
+            : groupBy == Dimension.EMPLOYEE_TYPE ? segment.employeeTypes[row]
+            : segment.types[row];
+        int base = group * SLOTS;
+        acc[base + RECORDS]++;
+        int signIn = segment.signIns[row];
+        int signOut = segment.signOuts[row];
+        if (signIn > lateAfter) {
+          acc[base + LATE]++;
+        }
+        if (signIn != NO_TIME && signOut >= signIn) {
+          acc[base + SESSIONS]++;
+          acc[base + MINUTES] += (signOut - signIn) / 60;
+        }
+      }
+      return acc;
+    }
+  }
+
+  /** Scans a range of segments, splitting it in half until one segment is left. */
+  private static final class ScanTask extends RecursiveTask<long[]> {
+
+    private final Scan scan;
+    private final int from;
+    private final int to;
+
+    ScanTask(Scan scan, int from, int to) {
+      this.scan = scan;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected long[] compute() {
+      if (to - from <= 1) {
+        return from < to ? scan.scan(from) : new long[scan.groups * SLOTS];
+      }
+      int middle = (from + to) >>> 1;
+      ScanTask left = new ScanTask(scan, from, middle);
+      left.fork();
+      long[] totals = new ScanTask(scan, middle, to).compute();
+      long[] leftTotals = left.join();
+      for (int i = 0; i < totals.length; i++) {
+        totals[i] += leftTotals[i];
+      }
+      return totals;
+    }
+  }
+
+  /** One block of rows; the day range lets scans skip blocks outside the filter. */
+  private static final class Segment {
+
+    final long[] recordIds = new long[SEGMENT_SIZE];
+    final long[] employeeIds = new long[SEGMENT_SIZE];
+    final int[] days = new int[SEGMENT_SIZE];
+    final byte[] types = new byte[SEGMENT_SIZE];
+    final int[] signIns = new int[SEGMENT_SIZE];
+    final int[] signOuts = new int[SEGMENT_SIZE];
+    final int[] departments = new int[SEGMENT_SIZE];
+    final byte[] employeeTypes = new byte[SEGMENT_SIZE];
+    int minDay = Integer.MAX_VALUE;
+    int maxDay = Integer.MIN_VALUE;
+  }
+
+  /**
+   * The rows themselves. Writers are serialised by the store; readers see rows up to {@link #rows},
+   * which is written last. The load streams live records in ID order, so the leading rows are found
+   * by binary search on their record IDs and only archived rows and rows appended out of order need
+   * a map entry.
+   */
+  private static final class Columns {
+
+    volatile Segment[] segments = new Segment[0];
+    volatile long[] departmentIds = new long[0];
+    volatile int rows;
+
+    private final Map<Long, Integer> departmentOrdinals = new HashMap<>();
+    private final LongIntMap unsortedRows = new LongIntMap();
+    private int sortedRows;
+
+    /** Row holding a record, or -1 if it is not stored. */
+    int rowOf(long recordId) {
+      int low = 0;
+      int high = sortedRows - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        long id = recordIdAt(middle);
+        if (id < recordId) {
+          low = middle + 1;
+        } else if (id > recordId) {
+          high = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+      return unsortedRows.get(recordId);
+    }
+
+    private long recordIdAt(int row) {
+      return segments[row >>> SEGMENT_BITS].recordIds[row & (SEGMENT_SIZE - 1)];
+    }
+
+    /**
+     * Update a record's row, or append one when it is new. A new record without a department is
+     * dropped; it can only come from a replayed update of a record the rebuild did not load.
+     */
+    void upsert(Long recordId, Long employeeId, Long departmentId, EmployeeType employeeType,
+        LocalDate date, AttendanceType type, LocalTime signInTime, LocalTime signOutTime) {
+      int row = rowOf(recordId);
+      if (row < 0) {
+        if (departmentId == null) {
+          return;
+        }
+        row = append(recordId, employeeId, departmentId, employeeType, date);
+      }
+      Segment segment = segments[row >>> SEGMENT_BITS];
+      int offset = row & (SEGMENT_SIZE - 1);
+      segment.types[offset] = (byte) type.ordinal();
+      segment.signIns[offset] = secondOfDay(signInTime);
+      segment.signOuts[offset] = secondOfDay(signOutTime);
+      if (row == rows) {
+        rows = row + 1;
+      }
+    }
+
+    /** Fill the fixed columns of a new row, leaving it unpublished. */
+    private int append(Long recordId, Long employeeId, Long departmentId, EmployeeType employeeType, LocalDate date) {
+      Integer department = departmentOrdinals.get(departmentId);
+      if (department == null) {
+        department = departmentIds.length;
+        departmentOrdinals.put(departmentId, department);
+        long[] grown = Arrays.copyOf(departmentIds, department + 1);
+        grown[department] = departmentId;
+        departmentIds = grown;
+      }
+      int row = rows;
+      if ((row >>> SEGMENT_BITS) == segments.length) {
+        Segment[] grown = Arrays.copyOf(segments, segments.length + 1);
+        grown[segments.length] = new Segment();
+        segments = grown;
+      }
+      Segment segment = segments[row >>> SEGMENT_BITS];
+      int offset = row & (SEGMENT_SIZE - 1);
+      int day = (int) date.toEpochDay();
+      segment.recordIds[offset] = recordId;
+      segment.employeeIds[offset] = employeeId;
+      segment.days[offset] = day;
+      segment.departments[offset] = department;
+      segment.employeeTypes[offset] = (byte) employeeType.ordinal();
+      segment.minDay = Math.min(segment.minDay, day);
+      segment.maxDay = Math.max(segment.maxDay, day);
+      if (row == sortedRows && (row == 0 || recordId > recordIdAt(row - 1))) {
+        sortedRows++;
+      } else {
+        unsortedRows.put(recordId, row);
+      }
+      return row;
+    }
+  }
+
+  /** Open-addressing map from record ID to row, avoiding a boxed entry per record. */
+  private static final class LongIntMap {
+
+    /** Record IDs come from a sequence and are never 0. */
+    private static final long EMPTY = 0;
+
+    private long[] keys = new long[1 << 10];
+    private int[] values = new int[1 << 10];
+    private int size;
+
+    int get(long key) {
+      int mask = keys.length - 1;
+      for (int slot = slot(key, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return values[slot];
+        }
+      }
+      return -1;
+    }
+
+    void put(long key, int value) {
+      if ((size + 1) * 4L > keys.length * 3L) {
+        resize();
+      }
+      int mask = keys.length - 1;
+      int slot = slot(key, mask);
+      while (keys[slot] != EMPTY && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      if (keys[slot] == EMPTY) {
+        size++;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+    }
+
+    private void resize() {
+      long[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new int[oldValues.length * 2];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != EMPTY) {
+          put(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+
+    private static int slot(long key, int mask) {
+      return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+  }
+}
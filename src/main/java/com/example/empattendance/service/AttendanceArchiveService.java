@@ -0,0 +1,313 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.dto.ArchiveSegmentReport;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Moves closed months of attendancerecords into compressed segment files, one per month, and
+ * serves them back for reports. A month is archived once it is older than {@code retain-months}:
+ * its rows, together with any earlier segment for that month, are written to a new file, read
+ * back and checked against the row count and checksum of the source, and only then deleted from
+ * the table. Each month is archived in one transaction that locks its rows before reading them,
+ * so a record cannot be changed between being copied into the segment and being deleted; writers
+ * to that month wait until the segment is in place. Once a month is archived, attendance writes
+ * dated in it are refused; one that got past the check while the month was being archived is
+ * picked up by the next run, which replaces the segment.
+ *
+ * <p>Segments live on the local file system under {@code attendance.archive.directory}; nodes
+ * sharing a database must share that directory as well. The daily summary keeps its totals for
+ * archived months.
+ */
+@Service
+public class AttendanceArchiveService {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceArchiveService.class);
+
+  private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'attendance-'yyyy-MM'.seg'");
+
+  private static final String SELECT_MONTH =
+      "SELECT id, employee_id, date_of_att, type, sign_in_time, sign_out_time, notes FROM attendancerecords "
+          + "WHERE date_of_att BETWEEN ? AND ? FOR UPDATE";
+
+  private static final String COUNT_LIVE_BY_MONTH =
+      "SELECT DATE_FORMAT(date_of_att, '%Y-%m'), COUNT(*) FROM attendancerecords "
+          + "WHERE date_of_att < ? GROUP BY DATE_FORMAT(date_of_att, '%Y-%m')";
+
+  /** Receives the facts of archived records. */
+  @FunctionalInterface
+  public interface FactConsumer {
+    void accept(Long employeeId, LocalDate date, AttendanceType type);
+  }
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${attendance.archive.enabled:false}")
+  private boolean enabled;
+
+  @Value("${attendance.archive.directory:archive}")
+  private String directoryName;
+
+  /** Months, counting the current one, that stay in attendancerecords. */
+  @Value("${attendance.archive.retain-months:24}")
+  private int retainMonths;
+
+  @Value("${attendance.archive.delete-batch-size:1000}")
+  private int deleteBatchSize;
+
+  private Path directory;
+  private TransactionTemplate transaction;
+  private final NavigableMap<YearMonth, AttendanceSegment> segments = new ConcurrentSkipListMap<>();
+
+  @PostConstruct
+  void openSegments() throws IOException {
+    transaction = new TransactionTemplate(transactionManager);
+    directory = Path.of(directoryName);
+    Files.createDirectories(directory);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "attendance-*.seg")) {
+      for (Path file : files) {
+        AttendanceSegment segment = AttendanceSegment.open(file);
+        segments.put(segment.getMonth(), segment);
+      }
+    }
+    log.info("Opened {} attendance archive segments in {}", segments.size(), directory.toAbsolutePath());
+  }
+
+  @Scheduled(cron = "${attendance.archive.cron:0 0 3 * * *}")
+  public void scheduledArchive() {
+    if (enabled) {
+      archiveClosedMonths();
+    }
+  }
+
+  /**
+   * Archive every month older than the retention period that still has rows in attendancerecords.
+   *
+   * @return one report per month archived
+   */
+  public synchronized List<ArchiveSegmentReport> archiveClosedMonths() {
+    LocalDate cutoff = YearMonth.now().minusMonths(retainMonths - 1L).atDay(1);
+    Date earliest = jdbcTemplate.queryForObject(
+        "SELECT MIN(date_of_att) FROM attendancerecords WHERE date_of_att < ?", Date.class, cutoff);
+    List<ArchiveSegmentReport> reports = new ArrayList<>();
+    if (earliest == null) {
+      return reports;
+    }
+    for (YearMonth month = YearMonth.from(earliest.toLocalDate()); month.atDay(1).isBefore(cutoff); month = month.plusMonths(1)) {
+      ArchiveSegmentReport report = archiveMonth(month);
+      if (report != null) {
+        reports.add(report);
+      }
+    }
+    return reports;
+  }
+
+  /**
+   * Check every segment against the row count and checksum it was written with, and count the
+   * rows of its month still in attendancerecords.
+   *
+   * @return one report per segment, oldest month first
+   */
+  public List<ArchiveSegmentReport> verify() {
+    Map<String, Long> liveRows = new HashMap<>();
+    if (!segments.isEmpty()) {
+      jdbcTemplate.query(COUNT_LIVE_BY_MONTH, row -> {
+        liveRows.put(row.getString(1), row.getLong(2));
+      }, segments.lastKey().plusMonths(1).atDay(1));
+    }
+    List<ArchiveSegmentReport> reports = new ArrayList<>();
+    for (AttendanceSegment segment : segments.values()) {
+      reports.add(report(segment.getMonth(), segment.getRows(), segment.getChecksum(), recount(segment),
+          liveRows.getOrDefault(segment.getMonth().toString(), 0L)));
+    }
+    return reports;
+  }
+
+  /**
+   * Find an employee's archived records in a date range. The records are detached copies without
+   * their employee set.
+   *
+   * @param employeeId ID of the employee
+   * @param startDate first day
+   * @param endDate last day
+   * @return records in date order
+   */
+  public List<AttendanceRecord> findRecords(Long employeeId, LocalDate startDate, LocalDate endDate) {
+    List<AttendanceRecord> records = new ArrayList<>();
+    for (AttendanceSegment segment : segments.subMap(YearMonth.from(startDate), true, YearMonth.from(endDate), true).values()) {
+      for (AttendanceSegment.Row row : segment.find(employeeId)) {
+        if (!row.date.isBefore(startDate) && !row.date.isAfter(endDate)) {
+          records.add(new AttendanceRecord(row.id, null, row.date, row.type, row.signInTime, row.signOutTime, row.notes));
+        }
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Visit the facts of every archived record from a date on.
+   *
+   * @param fromDate first day visited
+   * @param consumer receives each record's employee, date and type
+   */
+  public void forEachFact(LocalDate fromDate, FactConsumer consumer) {
+    for (AttendanceSegment segment : segments.tailMap(YearMonth.from(fromDate), true).values()) {
+      segment.forEach(row -> {
+        if (!row.date.isBefore(fromDate)) {
+          consumer.accept(row.employeeId, row.date, row.type);
+        }
+      });
+    }
+  }
+
+  /**
+   * Visit every archived row, month by month.
+   *
+   * @param consumer receives each row
+   */
+  void forEachRow(Consumer<AttendanceSegment.Row> consumer) {
+    for (AttendanceSegment segment : segments.values()) {
+      segment.forEach(consumer);
+    }
+  }
+
+  /**
+   * The latest archived month.
+   *
+   * @return the month, or null if nothing has been archived
+   */
+  public YearMonth getArchivedThrough() {
+    return segments.isEmpty() ? null : segments.lastKey();
+  }
+
+  private ArchiveSegmentReport archiveMonth(YearMonth month) {
+    return transaction.execute(status -> archiveLockedMonth(month));
+  }
+
+  /** Archive a month inside the caller's transaction, locking its rows as they are read. */
+  private ArchiveSegmentReport archiveLockedMonth(YearMonth month) {
+    long started = System.nanoTime();
+    LocalDate first = month.atDay(1);
+    LocalDate last = month.atEndOfMonth();
+
+    // Keyed by employee and day, so a live row replaces the archived copy of the same record
+    Map<String, AttendanceSegment.Row> rows = new LinkedHashMap<>();
+    AttendanceSegment previous = segments.get(month);
+    if (previous != null) {
+      previous.forEach(row -> rows.put(row.employeeId + "/" + row.date, row));
+    }
+    List<Long> liveIds = new ArrayList<>();
+    jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(SELECT_MONTH);
+      statement.setFetchSize(1000);
+      statement.setDate(1, Date.valueOf(first));
+      statement.setDate(2, Date.valueOf(last));
+      return statement;
+    }, result -> {
+      Time signIn = result.getTime(5);
+      Time signOut = result.getTime(6);
+      AttendanceSegment.Row row = new AttendanceSegment.Row(result.getLong(1), result.getLong(2),
+          result.getDate(3).toLocalDate(), AttendanceType.valueOf(result.getString(4)),
+          signIn != null ? signIn.toLocalTime() : null, signOut != null ? signOut.toLocalTime() : null,
+          result.getString(7));
+      rows.put(row.employeeId + "/" + row.date, row);
+      liveIds.add(row.id);
+    });
+    if (liveIds.isEmpty()) {
+      return null;
+    }
+
+    List<AttendanceSegment.Row> sorted = new ArrayList<>(rows.values());
+    sorted.sort(Comparator.comparingLong((AttendanceSegment.Row row) -> row.employeeId).thenComparing(row -> row.date));
+    long sourceChecksum = AttendanceSegment.checksum(sorted);
+    Path file = directory.resolve(FILE_NAME.format(month));
+    Path temporary = directory.resolve(file.getFileName() + ".tmp");
+    AttendanceSegment segment;
+    long[] written;
+    try {
+      AttendanceSegment.write(temporary, month, sorted);
+      segment = AttendanceSegment.open(temporary);
+      written = segment.recount();
+      if (written[0] != sorted.size() || written[1] != sourceChecksum) {
+        Files.delete(temporary);
+        log.error("Attendance archive for {} failed verification: {} rows with checksum {} written, {} rows with checksum {} expected",
+            month, written[0], Long.toHexString(written[1]), sorted.size(), Long.toHexString(sourceChecksum));
+        return report(month, sorted.size(), sourceChecksum, written, liveIds.size());
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write attendance archive for " + month, e);
+    }
+    segments.put(month, segment);
+
+    int deleted = 0;
+    for (int from = 0; from < liveIds.size(); from += deleteBatchSize) {
+      List<Long> batch = liveIds.subList(from, Math.min(from + deleteBatchSize, liveIds.size()));
+      // The date bounds let MySQL prune to the month's partition when the table is partitioned
+      String sql = "DELETE FROM attendancerecords WHERE date_of_att BETWEEN ? AND ? AND id IN ("
+          + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+      List<Object> args = new ArrayList<>(batch.size() + 2);
+      args.add(first);
+      args.add(last);
+      args.addAll(batch);
+      deleted += jdbcTemplate.update(sql, args.toArray());
+    }
+    log.info("Archived {} attendance records for {} ({} in segment) in {} ms",
+        deleted, month, sorted.size(), (System.nanoTime() - started) / 1_000_000);
+    return report(month, sorted.size(), sourceChecksum, written, liveIds.size() - deleted);
+  }
+
+  /** Row count and checksum read back from a segment, or -1 for both if it cannot be decoded. */
+  private static long[] recount(AttendanceSegment segment) {
+    try {
+      return segment.recount();
+    } catch (RuntimeException e) {
+      log.error("Could not read attendance archive for {}", segment.getMonth(), e);
+      return new long[] {-1, -1};
+    }
+  }
+
+  private static ArchiveSegmentReport report(YearMonth month, long expectedRows, long expectedChecksum, long[] actual, long liveRows) {
+    boolean valid = actual[0] == expectedRows && actual[1] == expectedChecksum;
+    return new ArchiveSegmentReport(month.toString(), expectedRows, actual[0],
+        Long.toHexString(expectedChecksum), Long.toHexString(actual[1]), liveRows, valid);
+  }
+}
@@ -0,0 +1,196 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.dto.AutoAbsenceReport;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks every employee without a record for a day as ABSENT. Each chunk of up to
+ * {@code chunk-size} employees of one department is found by a single
+ * {@code SELECT ... WHERE NOT EXISTS} and inserted with {@code ON DUPLICATE KEY UPDATE id = id}, so
+ * employees who signed in or were excused keep their record and running the job again for the same
+ * day inserts nothing.
+ *
+ * <p>Record ids come from the generator mapped on {@link AttendanceRecord}, whose pooled optimizer
+ * goes to the database once per block. Each chunk is inserted as one JDBC batch, which the MySQL
+ * driver rewrites into multi-row inserts, and the daily summary is adjusted with one statement per
+ * chunk. Each chunk's inserted records are published as one {@link AttendanceBulkInsertedEvent},
+ * which the calendar, analytics, payroll and outbox apply in bulk.
+ */
+@Service
+public class AttendanceAutoAbsenceService {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceAutoAbsenceService.class);
+
+  static final String NOTES = "Marked absent automatically: no attendance recorded";
+
+  private static final String NEXT_CHUNK =
+      "SELECT e.id, e.type FROM employees e WHERE e.department_id = ? AND e.id > ? "
+          + "AND NOT EXISTS (SELECT 1 FROM attendancerecords a WHERE a.employee_id = e.id AND a.date_of_att = ?) "
+          + "ORDER BY e.id LIMIT ?";
+
+  private static final String INSERT_ABSENT =
+      "INSERT INTO attendancerecords (id, employee_id, date_of_att, type, sign_in_time, sign_out_time, notes) "
+          + "VALUES (?, ?, ?, 'ABSENT', NULL, NULL, ?) ON DUPLICATE KEY UPDATE id = id";
+
+  private static final String SELECT_CHUNK_RECORDS =
+      "SELECT id, employee_id FROM attendancerecords WHERE date_of_att = ? AND id BETWEEN ? AND ?";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private AttendanceSummaryService attendanceSummaryService;
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Value("${attendance.auto-absence.enabled:false}")
+  private boolean enabled;
+
+  /** Leave Saturdays and Sundays unmarked when the job runs on its schedule. */
+  @Value("${attendance.auto-absence.skip-weekends:true}")
+  private boolean skipWeekends;
+
+  /** Most employees written by one statement and one transaction. */
+  @Value("${attendance.auto-absence.chunk-size:5000}")
+  private int chunkSize;
+
+  private TransactionTemplate chunkTransaction;
+
+  @PostConstruct
+  void createTransactionTemplate() {
+    chunkTransaction = new TransactionTemplate(transactionManager);
+  }
+
+  /** Mark yesterday's missing employees absent, once the day is over. */
+  @Scheduled(cron = "${attendance.auto-absence.cron:0 15 0 * * *}")
+  public void scheduledRun() {
+    if (!enabled) {
+      return;
+    }
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    if (skipWeekends && (yesterday.getDayOfWeek() == DayOfWeek.SATURDAY || yesterday.getDayOfWeek() == DayOfWeek.SUNDAY)) {
+      return;
+    }
+    markAbsent(yesterday);
+  }
+
+  /**
+   * Insert an ABSENT record for every employee without a record on a day.
+   *
+   * @param date day to complete; today or earlier, and after the archived months
+   * @return rows inserted and time taken
+   */
+  public AutoAbsenceReport markAbsent(LocalDate date) {
+    if (date == null || date.isAfter(LocalDate.now())) {
+      throw new BadRequestException("Date must be today or earlier");
+    }
+    // Archived records are no longer in attendancerecords, so NOT EXISTS would miss every one of them
+    YearMonth archivedThrough = attendanceArchiveService.getArchivedThrough();
+    if (archivedThrough != null && !YearMonth.from(date).isAfter(archivedThrough)) {
+      throw new BadRequestException("Attendance up to " + archivedThrough + " is archived and cannot be marked absent");
+    }
+    long started = System.nanoTime();
+    List<Long> departmentIds = jdbcTemplate.queryForList("SELECT id FROM departments ORDER BY id", Long.class);
+    int chunks = 0;
+    long inserted = 0;
+    for (Long departmentId : departmentIds) {
+      long after = 0;
+      while (true) {
+        long[] chunk = markChunk(date, departmentId, after);
+        if (chunk == null) {
+          break;
+        }
+        chunks++;
+        inserted += chunk[0];
+        after = chunk[1];
+      }
+    }
+    long durationMs = (System.nanoTime() - started) / 1_000_000;
+    log.info("Marked {} employees absent on {} in {} chunks over {} departments in {} ms",
+        inserted, date, chunks, departmentIds.size(), durationMs);
+    return new AutoAbsenceReport(date, departmentIds.size(), chunks, inserted, durationMs);
+  }
+
+  /**
+   * Mark the next chunk of a department's missing employees absent, in its own transaction.
+   *
+   * @return {rows inserted, last employee ID of the chunk}, or null when none are left
+   */
+  private long[] markChunk(LocalDate date, Long departmentId, long after) {
+    return chunkTransaction.execute(status -> {
+      List<Long> employeeIds = new ArrayList<>();
+      List<EmployeeType> employeeTypes = new ArrayList<>();
+      jdbcTemplate.query(NEXT_CHUNK, row -> {
+        employeeIds.add(row.getLong(1));
+        employeeTypes.add(EmployeeType.valueOf(row.getString(2)));
+      }, departmentId, after, date, chunkSize);
+      if (employeeIds.isEmpty()) {
+        return null;
+      }
+      List<Long> ids = attendanceRepository.nextIds(employeeIds.size());
+      List<Object[]> rows = new ArrayList<>(employeeIds.size());
+      for (int i = 0; i < employeeIds.size(); i++) {
+        rows.add(new Object[] {ids.get(i), employeeIds.get(i), date, NOTES});
+      }
+      // An employee signing in meanwhile keeps their record; the unique key turns our row into a no-op
+      jdbcTemplate.batchUpdate(INSERT_ABSENT, rows);
+
+      // Batch counts are not reliable once the driver rewrites the batch, so see which ids landed
+      long lastEmployeeId = employeeIds.get(employeeIds.size() - 1);
+      Map<Long, Long> landed = new HashMap<>();
+      jdbcTemplate.query(SELECT_CHUNK_RECORDS, row -> {
+        landed.put(row.getLong(2), row.getLong(1));
+      }, date, ids.get(0), ids.get(ids.size() - 1));
+      List<Integer> inserted = new ArrayList<>();
+      for (int i = 0; i < employeeIds.size(); i++) {
+        if (ids.get(i).equals(landed.get(employeeIds.get(i)))) {
+          inserted.add(i);
+        }
+      }
+      if (!inserted.isEmpty()) {
+        long[] insertedEmployeeIds = inserted.stream().mapToLong(employeeIds::get).toArray();
+        attendanceSummaryService.recordInserted(date, departmentId, AttendanceType.ABSENT, insertedEmployeeIds);
+        eventPublisher.publishEvent(new AttendanceBulkInsertedEvent(this, departmentId, date, AttendanceType.ABSENT, NOTES,
+            inserted.stream().mapToLong(ids::get).toArray(),
+            insertedEmployeeIds,
+            inserted.stream().map(employeeTypes::get).toArray(EmployeeType[]::new)));
+      }
+      return new long[] {inserted.size(), lastEmployeeId};
+    });
+  }
+}
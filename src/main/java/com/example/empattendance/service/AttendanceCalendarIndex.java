@@ -0,0 +1,501 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.dto.AttendanceCalendarStats;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.AttendanceFact;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * One bitmap per employee, year and attendance type, with bit {@code dayOfYear - 1} set when the
+ * employee has a record of that type on that day. Each employee-year is a single
+ * {@code long[]} of {@value #WORDS_PER_YEAR} words per type, so counts, streaks and intersections
+ * are word-wide bit operations instead of range scans. The same bits are also kept per day and
+ * type as a bitmap over employees, so finding the employees who share a set of days ANDs one
+ * bitmap per day instead of visiting every employee.
+ *
+ * <p>Rebuilt at startup for the retained years and updated after every committed attendance
+ * write; writes committed while a rebuild is loading are replayed onto it before it is swapped in.
+ * Records dated before the first retained year are not indexed. When the year changes, the window
+ * rolls forward and the year that fell out of it is dropped. Deleting an employee removes their
+ * days once the deletion has committed.
+ */
+@Component
+public class AttendanceCalendarIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceCalendarIndex.class);
+
+  private static final AttendanceType[] TYPES = AttendanceType.values();
+
+  /** 366 days fit in six 64-bit words. */
+  private static final int WORDS_PER_YEAR = 6;
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  /** Number of calendar years kept, counting the current one. */
+  @Value("${attendance.calendar.retained-years:5}")
+  private int retainedYears;
+
+  /** Source of the current year. */
+  Clock clock = Clock.systemDefaultZone();
+
+  private TransactionTemplate readOnlyTransaction;
+  private volatile Calendars calendars;
+
+  /** Writes seen while a rebuild is loading, replayed onto the new calendars before the swap. */
+  private List<Consumer<Calendars>> pendingWrites;
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    calendars = new Calendars(firstRetainedYear());
+  }
+
+  /** Load the retained years from the archive and attendancerecords and swap them in. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long started = System.nanoTime();
+    Calendars fresh = new Calendars(firstRetainedYear());
+    long[] rows = new long[1];
+    synchronized (this) {
+      pendingWrites = new ArrayList<>();
+    }
+    try {
+      // Archived first, so a day still in attendancerecords overrides its archived copy
+      attendanceArchiveService.forEachFact(LocalDate.of(fresh.firstYear, 1, 1), (employeeId, date, type) -> {
+        fresh.mark(employeeId, date, type);
+        rows[0]++;
+      });
+      readOnlyTransaction.executeWithoutResult(status -> {
+        try (Stream<AttendanceFact> facts = attendanceRepository.streamFactsSince(LocalDate.of(fresh.firstYear, 1, 1))) {
+          facts.forEach(fact -> {
+            fresh.mark(fact.getEmployeeId(), fact.getDateOfAtt(), fact.getType());
+            rows[0]++;
+          });
+        }
+      });
+      synchronized (this) {
+        pendingWrites.forEach(write -> write.accept(fresh));
+        calendars = fresh;
+      }
+    } finally {
+      synchronized (this) {
+        pendingWrites = null;
+      }
+    }
+    log.info("Attendance calendar rebuilt from {} records since {} in {} ms",
+        rows[0], fresh.firstYear, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttendanceRegistered(AttendanceRegisteredEvent event) {
+    Long employeeId = event.getEmployeeId();
+    List<AttendanceRecord> records = event.getAttendances();
+    Consumer<Calendars> write = target -> {
+      for (AttendanceRecord record : records) {
+        target.mark(employeeId, record.getDateOfAtt(), record.getType());
+      }
+    };
+    synchronized (this) {
+      write.accept(current());
+      if (pendingWrites != null) {
+        pendingWrites.add(write);
+      }
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttendanceBulkInserted(AttendanceBulkInsertedEvent event) {
+    Consumer<Calendars> write = target -> {
+      for (int i = 0; i < event.size(); i++) {
+        target.mark(event.getEmployeeId(i), event.getDate(), event.getType());
+      }
+    };
+    synchronized (this) {
+      write.accept(current());
+      if (pendingWrites != null) {
+        pendingWrites.add(write);
+      }
+    }
+  }
+
+  /**
+   * Get the number of days and the longest run of consecutive days of one type in a year.
+   *
+   * @param employeeId ID of the employee
+   * @param year calendar year
+   * @param type attendance type
+   * @return AttendanceCalendarStats, all zero if nothing was recorded
+   */
+  public AttendanceCalendarStats getStats(Long employeeId, int year, AttendanceType type) {
+    long[] row = covering(year).row(employeeId, year, type);
+    int days = 0;
+    for (long word : row) {
+      days += Long.bitCount(word);
+    }
+    return new AttendanceCalendarStats(employeeId, year, type, days, longestRun(row));
+  }
+
+  /**
+   * Count the days of one type in a date range, which may span years.
+   *
+   * @param employeeId ID of the employee
+   * @param type attendance type
+   * @param startDate first day counted
+   * @param endDate last day counted
+   * @return number of days
+   */
+  public int countDays(Long employeeId, AttendanceType type, LocalDate startDate, LocalDate endDate) {
+    if (startDate.isAfter(endDate)) {
+      throw new BadRequestException("Start date must be before or equal to end date");
+    }
+    Calendars current = covering(startDate.getYear());
+    int count = 0;
+    for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+      long[] row = current.row(employeeId, year, type);
+      int fromDay = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+      int toDay = year == endDate.getYear() ? endDate.getDayOfYear() - 1 : Year.of(year).length() - 1;
+      for (int word = fromDay >>> 6; word <= toDay >>> 6; word++) {
+        long mask = -1L;
+        if (word == fromDay >>> 6) {
+          mask &= -1L << (fromDay & 63);
+        }
+        if (word == toDay >>> 6) {
+          mask &= -1L >>> (63 - (toDay & 63));
+        }
+        count += Long.bitCount(row[word] & mask);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Find the days on which every given employee had a record of one type.
+   *
+   * @param employeeIds IDs of the employees
+   * @param year calendar year
+   * @param type attendance type
+   * @return matching days in date order
+   */
+  public List<LocalDate> findCommonDays(Collection<Long> employeeIds, int year, AttendanceType type) {
+    if (employeeIds.isEmpty()) {
+      throw new BadRequestException("At least one employee is required");
+    }
+    Calendars current = covering(year);
+    long[] common = null;
+    for (Long employeeId : employeeIds) {
+      long[] row = current.row(employeeId, year, type);
+      if (common == null) {
+        common = row;
+      } else {
+        for (int word = 0; word < WORDS_PER_YEAR; word++) {
+          common[word] &= row[word];
+        }
+      }
+    }
+    List<LocalDate> days = new ArrayList<>();
+    for (int word = 0; word < WORDS_PER_YEAR; word++) {
+      for (long bits = common[word]; bits != 0; bits &= bits - 1) {
+        days.add(LocalDate.ofYearDay(year, (word << 6) + Long.numberOfTrailingZeros(bits) + 1));
+      }
+    }
+    return days;
+  }
+
+  /**
+   * Find the employees who had a record of one type on every given date.
+   *
+   * @param type attendance type
+   * @param dates dates that must all match
+   * @return matching employee IDs in ascending order
+   */
+  public List<Long> findEmployeesOnAllDates(AttendanceType type, Collection<LocalDate> dates) {
+    if (dates.isEmpty()) {
+      throw new BadRequestException("At least one date is required");
+    }
+    Calendars current = covering(dates.stream().mapToInt(LocalDate::getYear).min().getAsInt());
+    BitSet common = null;
+    for (LocalDate date : dates) {
+      BitSet employees = current.employeesOn(date, type);
+      if (common == null) {
+        common = employees;
+      } else {
+        common.and(employees);
+      }
+      if (common.isEmpty()) {
+        break;
+      }
+    }
+    List<Long> employeeIds = new ArrayList<>(common.cardinality());
+    for (int employee = common.nextSetBit(0); employee >= 0; employee = common.nextSetBit(employee + 1)) {
+      employeeIds.add(current.employeeId(employee));
+    }
+    employeeIds.sort(null);
+    return employeeIds;
+  }
+
+  /**
+   * Forget an employee's days, once the employee and their records have been deleted.
+   *
+   * @param employeeId ID of the deleted employee
+   */
+  public void removeEmployee(Long employeeId) {
+    Consumer<Calendars> write = target -> target.remove(employeeId);
+    synchronized (this) {
+      write.accept(current());
+      if (pendingWrites != null) {
+        pendingWrites.add(write);
+      }
+    }
+  }
+
+  /** The current calendars, provided they cover the given year. */
+  private Calendars covering(int year) {
+    Calendars current = current();
+    if (year < current.firstYear) {
+      throw new BadRequestException("Attendance calendar only covers " + current.firstYear + " onwards");
+    }
+    return current;
+  }
+
+  /** The current calendars, first rolled forward if the year has changed since they were built. */
+  private Calendars current() {
+    Calendars current = calendars;
+    int firstYear = firstRetainedYear();
+    if (firstYear > current.firstYear) {
+      synchronized (this) {
+        if (firstYear > calendars.firstYear) {
+          calendars = calendars.rolledTo(firstYear);
+          log.info("Attendance calendar rolled forward to {}", firstYear);
+        }
+        current = calendars;
+      }
+    }
+    return current;
+  }
+
+  private int firstRetainedYear() {
+    return Year.now(clock).getValue() - Math.max(1, retainedYears) + 1;
+  }
+
+  private static boolean isSet(long[] bits, AttendanceType type, int day) {
+    synchronized (bits) {
+      return (bits[type.ordinal() * WORDS_PER_YEAR + (day >>> 6)] & (1L << day)) != 0;
+    }
+  }
+
+  private static int longestRun(long[] row) {
+    int longest = 0;
+    int run = 0;
+    for (int day = 0; day < WORDS_PER_YEAR * 64; day++) {
+      if ((row[day >>> 6] & (1L << day)) != 0) {
+        longest = Math.max(longest, ++run);
+      } else {
+        run = 0;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Bitmaps of the retained years, keyed by year and then by employee, and the same bits turned
+   * around: for each day and type, a bitmap over employee IDs.
+   */
+  private static final class Calendars {
+
+    private final int firstYear;
+    private final Map<Integer, Map<Long, long[]>> years = new ConcurrentHashMap<>();
+    private final Map<Long, BitSet> employeesByDay = new ConcurrentHashMap<>();
+    private final EmployeeOrdinals ordinals;
+
+    Calendars(int firstYear) {
+      this(firstYear, new EmployeeOrdinals());
+    }
+
+    private Calendars(int firstYear, EmployeeOrdinals ordinals) {
+      this.firstYear = firstYear;
+      this.ordinals = ordinals;
+    }
+
+    /** The same bitmaps without the years before a later first year. */
+    Calendars rolledTo(int firstYear) {
+      Calendars rolled = new Calendars(firstYear, ordinals);
+      years.forEach((year, employees) -> {
+        if (year >= firstYear) {
+          rolled.years.put(year, employees);
+        }
+      });
+      long firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+      employeesByDay.forEach((key, employees) -> {
+        if (key / TYPES.length >= firstDay) {
+          rolled.employeesByDay.put(key, employees);
+        }
+      });
+      return rolled;
+    }
+
+    /** Record that the employee's day now has this type, replacing any other type that day. */
+    void mark(Long employeeId, LocalDate date, AttendanceType type) {
+      if (date.getYear() < firstYear) {
+        return;
+      }
+      long[] bits = years.computeIfAbsent(date.getYear(), year -> new ConcurrentHashMap<>())
+          .computeIfAbsent(employeeId, id -> new long[TYPES.length * WORDS_PER_YEAR]);
+      int day = date.getDayOfYear() - 1;
+      int word = day >>> 6;
+      long mask = 1L << day;
+      int employee = ordinals.ordinalOf(employeeId);
+      synchronized (bits) {
+        for (int t = 0; t < TYPES.length; t++) {
+          if ((bits[t * WORDS_PER_YEAR + word] & mask) != 0) {
+            bits[t * WORDS_PER_YEAR + word] &= ~mask;
+            clearEmployee(date.toEpochDay(), TYPES[t], employee);
+          }
+        }
+        bits[type.ordinal() * WORDS_PER_YEAR + word] |= mask;
+      }
+      BitSet employees = employeesByDay.computeIfAbsent(dayKey(date.toEpochDay(), type), key -> new BitSet());
+      synchronized (employees) {
+        employees.set(employee);
+      }
+    }
+
+    /** Forget every day of an employee. */
+    void remove(Long employeeId) {
+      int employee = ordinals.find(employeeId);
+      if (employee < 0) {
+        return;
+      }
+      years.forEach((year, employees) -> {
+        long[] bits = employees.remove(employeeId);
+        if (bits == null) {
+          return;
+        }
+        long firstDay = LocalDate.of(year, 1, 1).toEpochDay();
+        synchronized (bits) {
+          for (int t = 0; t < TYPES.length; t++) {
+            for (int word = 0; word < WORDS_PER_YEAR; word++) {
+              for (long set = bits[t * WORDS_PER_YEAR + word]; set != 0; set &= set - 1) {
+                clearEmployee(firstDay + (word << 6) + Long.numberOfTrailingZeros(set), TYPES[t], employee);
+              }
+            }
+          }
+        }
+      });
+    }
+
+    private void clearEmployee(long epochDay, AttendanceType type, int employee) {
+      BitSet employees = employeesByDay.get(dayKey(epochDay, type));
+      if (employees != null) {
+        synchronized (employees) {
+          employees.clear(employee);
+        }
+      }
+    }
+
+    /** Employee ID numbered {@code ordinal} in the per-day bitmaps. */
+    long employeeId(int ordinal) {
+      return ordinals.employeeId(ordinal);
+    }
+
+    /** Copy of the employees with a record of one type on a day, empty if there are none. */
+    BitSet employeesOn(LocalDate date, AttendanceType type) {
+      BitSet employees = employeesByDay.get(dayKey(date.toEpochDay(), type));
+      if (employees == null) {
+        return new BitSet();
+      }
+      synchronized (employees) {
+        return (BitSet) employees.clone();
+      }
+    }
+
+    private static long dayKey(long epochDay, AttendanceType type) {
+      return epochDay * TYPES.length + type.ordinal();
+    }
+
+    /** Copy of one type's words for an employee-year, all zero if nothing was recorded. */
+    long[] row(Long employeeId, int year, AttendanceType type) {
+      long[] row = new long[WORDS_PER_YEAR];
+      long[] bits = years.getOrDefault(year, Map.of()).get(employeeId);
+      if (bits != null) {
+        synchronized (bits) {
+          System.arraycopy(bits, type.ordinal() * WORDS_PER_YEAR, row, 0, WORDS_PER_YEAR);
+        }
+      }
+      return row;
+    }
+  }
+
+  /**
+   * Dense numbers for employee IDs, so the per-day bitmaps are as long as the number of employees
+   * rather than the largest ID. Writers are serialised by the index; a number is published before
+   * any bitmap bit that refers to it.
+   */
+  private static final class EmployeeOrdinals {
+
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile long[] employeeIds = new long[1024];
+    private int size;
+
+    int ordinalOf(Long employeeId) {
+      Integer ordinal = ordinals.get(employeeId);
+      if (ordinal == null) {
+        long[] ids = employeeIds;
+        if (size == ids.length) {
+          ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = employeeId;
+        employeeIds = ids;
+        ordinal = size++;
+        ordinals.put(employeeId, ordinal);
+      }
+      return ordinal;
+    }
+
+    /** Number of an employee, or -1 if the employee has never been marked. */
+    int find(Long employeeId) {
+      return ordinals.getOrDefault(employeeId, -1);
+    }
+
+    long employeeId(int ordinal) {
+      return employeeIds[ordinal];
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.empattendance.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A sign-in or sign-out accepted by the ingestion queue but not yet written. The date and time are
+ * captured when the command is acknowledged, so queueing delay does not shift the recorded times.
+ */
+@Getter
+@AllArgsConstructor
+public class AttendanceCommand {
+
+  public enum Kind {
+    SIGN_IN, SIGN_OUT
+  }
+
+  private final Kind kind;
+
+  /** Employee signing in; null for sign-outs. */
+  private final Long employeeId;
+
+  /** Record being signed out of; null for sign-ins. */
+  private final Long recordId;
+
+  private final LocalDate date;
+
+  private final LocalTime time;
+
+  private final String notes;
+
+  public static AttendanceCommand signIn(Long employeeId, String notes) {
+    return new AttendanceCommand(Kind.SIGN_IN, employeeId, null, LocalDate.now(), LocalTime.now().truncatedTo(ChronoUnit.SECONDS), notes);
+  }
+
+  public static AttendanceCommand signOut(Long recordId, String notes) {
+    return new AttendanceCommand(Kind.SIGN_OUT, null, recordId, LocalDate.now(), LocalTime.now().truncatedTo(ChronoUnit.SECONDS), notes);
+  }
+}
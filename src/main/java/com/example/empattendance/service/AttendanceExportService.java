@@ -0,0 +1,140 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.empattendance.dto.AttendanceExportRow;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes attendance records straight from a database cursor to an output stream. The persistence
+ * context is cleared every {@value #CLEAR_INTERVAL} rows, so memory stays flat however many rows
+ * are exported. Archived months are not in the table, so a range reaching into them is refused.
+ */
+@Service
+public class AttendanceExportService {
+
+  public enum Format {
+    NDJSON, CSV
+  }
+
+  private static final int CLEAR_INTERVAL = 1000;
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Check export filters before the response is committed.
+   *
+   * @param startDate first day to export
+   * @param endDate last day to export
+   */
+  public void validate(LocalDate startDate, LocalDate endDate) {
+    if (startDate == null || endDate == null) {
+      throw new BadRequestException("Start date and end date are required");
+    }
+    if (startDate.isAfter(endDate)) {
+      throw new BadRequestException("Start date must be before or equal to end date");
+    }
+    // The export streams attendancerecords, which no longer holds archived months
+    YearMonth archivedThrough = attendanceArchiveService.getArchivedThrough();
+    if (archivedThrough != null && !YearMonth.from(startDate).isAfter(archivedThrough)) {
+      throw new BadRequestException("Attendance up to " + archivedThrough + " is archived; export from "
+          + archivedThrough.plusMonths(1).atDay(1) + " onwards");
+    }
+  }
+
+  /**
+   * Export attendance records.
+   *
+   * @param format NDJSON or CSV
+   * @param startDate first day to export
+   * @param endDate last day to export
+   * @param departmentId only export this department, or null for all
+   * @param type only export this attendance type, or null for all
+   * @param out stream the export is written to
+   * @return number of rows written
+   */
+  @Transactional(readOnly = true)
+  public long export(Format format, LocalDate startDate, LocalDate endDate, Long departmentId, AttendanceType type, OutputStream out)
+      throws IOException {
+    validate(startDate, endDate);
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    ObjectWriter jsonWriter = objectMapper.writerFor(AttendanceExportRow.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    if (format == Format.CSV) {
+      writeCsvLine(writer, AttendanceExportRow.CSV_HEADER);
+    }
+
+    long rows = 0;
+    try (Stream<AttendanceRecord> records = attendanceRepository.streamForExport(startDate, endDate, departmentId, type)) {
+      Iterator<AttendanceRecord> iterator = records.iterator();
+      while (iterator.hasNext()) {
+        AttendanceExportRow row = AttendanceExportRow.from(iterator.next());
+        if (format == Format.CSV) {
+          writeCsvLine(writer, row.toCsvValues());
+        } else {
+          jsonWriter.writeValue(writer, row);
+          writer.write('\n');
+        }
+        if (++rows % CLEAR_INTERVAL == 0) {
+          entityManager.clear();
+          writer.flush();
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    return rows;
+  }
+
+  private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      if (values[i] != null) {
+        writer.write(escapeCsv(values[i].toString()));
+      }
+    }
+    writer.write("\r\n");
+  }
+
+  private static String escapeCsv(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
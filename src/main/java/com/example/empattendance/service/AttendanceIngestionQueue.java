@@ -0,0 +1,230 @@
+package com.example.empattendance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.exception.ResourceNotFoundException;
+import com.example.empattendance.exception.TooManyRequestsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for sign-in and sign-out bursts. When enabled, commands are validated and
+ * acknowledged straight away, held in a bounded queue and written to the database in batched
+ * transactions once {@code batch-size} commands are waiting or {@code flush-interval-ms} has passed.
+ * If a batch cannot be written, its commands are retried one per transaction so a single bad
+ * command does not take the rest of the batch with it; a command that still fails is logged with
+ * everything needed to replay it and counted in {@code attendance.ingestion.failed}.
+ */
+@Service
+public class AttendanceIngestionQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceIngestionQueue.class);
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${attendance.ingestion.enabled:false}")
+  private boolean enabled;
+
+  @Value("${attendance.ingestion.capacity:10000}")
+  private int capacity;
+
+  @Value("${attendance.ingestion.batch-size:500}")
+  private int batchSize;
+
+  @Value("${attendance.ingestion.flush-interval-ms:200}")
+  private long flushIntervalMs;
+
+  private BlockingQueue<AttendanceCommand> queue;
+  private Thread flusher;
+  private volatile boolean running;
+  /** Offers hold the read lock; shutdown takes the write lock to stop them before the final drain. */
+  private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+  private Timer flushTimer;
+  private DistributionSummary batchSizes;
+  private Counter rejected;
+  private Counter failed;
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(capacity);
+    Gauge.builder("attendance.ingestion.queue.depth", queue, BlockingQueue::size)
+        .description("Attendance commands waiting to be flushed")
+        .register(meterRegistry);
+    flushTimer = Timer.builder("attendance.ingestion.flush")
+        .description("Time taken to write one batch of attendance commands")
+        .register(meterRegistry);
+    batchSizes = DistributionSummary.builder("attendance.ingestion.batch.size")
+        .register(meterRegistry);
+    rejected = Counter.builder("attendance.ingestion.rejected")
+        .description("Commands rejected because the queue was full")
+        .register(meterRegistry);
+    failed = Counter.builder("attendance.ingestion.failed")
+        .description("Commands dropped because they could not be written on their own")
+        .register(meterRegistry);
+
+    running = true;
+    flusher = new Thread(this::runFlushLoop, "attendance-ingestion-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Accept a sign-in for later writing.
+   *
+   * @param employeeId ID of the employee signing in
+   * @param notes notes to add into register
+   * @throws ResourceNotFoundException if the employee does not exist
+   * @throws TooManyRequestsException if the queue is full
+   */
+  public void submitSignIn(Long employeeId, String notes) {
+    if (!employeeIdIndex.exists(employeeId)) {
+      throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+    }
+    offer(AttendanceCommand.signIn(employeeId, notes));
+  }
+
+  /**
+   * Accept a sign-out for later writing.
+   *
+   * @param recordId ID of the record from register
+   * @param notes notes to add into register
+   * @throws TooManyRequestsException if the queue is full
+   */
+  public void submitSignOut(Long recordId, String notes) {
+    if (recordId == null) {
+      throw new BadRequestException("Record id is required");
+    }
+    offer(AttendanceCommand.signOut(recordId, notes));
+  }
+
+  private void offer(AttendanceCommand command) {
+    acceptLock.readLock().lock();
+    try {
+      if (!running) {
+        rejected.increment();
+        throw new TooManyRequestsException("Attendance queue is shutting down, please retry shortly");
+      }
+      if (!queue.offer(command)) {
+        rejected.increment();
+        throw new TooManyRequestsException("Attendance queue is full, please retry shortly");
+      }
+    } finally {
+      acceptLock.readLock().unlock();
+    }
+  }
+
+  private void runFlushLoop() {
+    List<AttendanceCommand> batch = new ArrayList<>(batchSize);
+    while (running) {
+      try {
+        AttendanceCommand first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+          if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+            continue;
+          }
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          AttendanceCommand next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        flush(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(List<AttendanceCommand> batch) {
+    long start = System.nanoTime();
+    try {
+      attendanceService.applyQueuedCommands(batch);
+    } catch (RuntimeException e) {
+      log.warn("Failed to write batch of {} attendance commands, retrying them one at a time", batch.size(), e);
+      batch.forEach(this::flushOne);
+    } finally {
+      flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      batchSizes.record(batch.size());
+    }
+  }
+
+  /** Write one command in its own transaction, dead-lettering it to the log if that fails too. */
+  private void flushOne(AttendanceCommand command) {
+    try {
+      attendanceService.applyQueuedCommands(List.of(command));
+    } catch (RuntimeException e) {
+      failed.increment();
+      log.error("Dropped attendance command {} employeeId={} recordId={} date={} time={} notes={}",
+          command.getKind(), command.getEmployeeId(), command.getRecordId(), command.getDate(),
+          command.getTime(), command.getNotes(), e);
+    }
+  }
+
+  /** Stop accepting commands and write out everything still queued. */
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (!enabled) {
+      return;
+    }
+    // Once the write lock is held no offer is in flight, so nothing can be queued after the drain
+    // below. The flusher finishes its current batch and notices within one flush interval.
+    acceptLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      acceptLock.writeLock().unlock();
+    }
+    flusher.join(TimeUnit.SECONDS.toMillis(30));
+
+    List<AttendanceCommand> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      flush(batch);
+      batch.clear();
+    }
+  }
+}
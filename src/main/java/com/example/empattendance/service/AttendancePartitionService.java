@@ -0,0 +1,114 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps attendancerecords range partitioned by month of date_of_att, so range queries only read
+ * the months they cover. Each month gets a partition named {@code pYYYYMM}; the first one also
+ * holds anything older, and {@value #CATCH_ALL} takes dates beyond the last month created.
+ *
+ * <p>On startup an unpartitioned table is converted in place. MySQL requires every unique key to
+ * contain the partitioning column and does not allow foreign keys on partitioned tables, so the
+ * primary key becomes (id, date_of_att) and the foreign key to employees is dropped. Converting
+ * a large existing table rebuilds it and should be done in a maintenance window. A daily job then
+ * splits the next months out of {@value #CATCH_ALL} ahead of time, while it is still empty.
+ */
+@Service
+@ConditionalOnProperty(name = "attendance.partitioning.enabled", havingValue = "true")
+public class AttendancePartitionService {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendancePartitionService.class);
+
+  private static final String TABLE = "attendancerecords";
+  private static final String CATCH_ALL = "pmax";
+  private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+  private static final String LIST_PARTITIONS =
+      "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+          + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+          + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+  private static final String LIST_FOREIGN_KEYS =
+      "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS "
+          + "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /** Not used directly; depending on it makes sure the schema update has created the table. */
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  /** Months after the current one that must already have their own partition. */
+  @Value("${attendance.partitioning.months-ahead:2}")
+  private int monthsAhead;
+
+  @PostConstruct
+  void partitionTable() {
+    if (!jdbcTemplate.queryForList(LIST_PARTITIONS, String.class, TABLE).isEmpty()) {
+      createUpcomingPartitions();
+      return;
+    }
+    for (String foreignKey : jdbcTemplate.queryForList(LIST_FOREIGN_KEYS, String.class, TABLE)) {
+      jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY `" + foreignKey + "`");
+    }
+    Date earliest = jdbcTemplate.queryForObject("SELECT MIN(date_of_att) FROM " + TABLE, Date.class);
+    YearMonth first = earliest != null ? YearMonth.from(earliest.toLocalDate()) : YearMonth.now();
+    YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+    long started = System.nanoTime();
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, date_of_att) "
+        + "PARTITION BY RANGE COLUMNS (date_of_att) (" + monthPartitions(first, last) + ")");
+    log.info("Partitioned {} by month from {} to {} in {} ms",
+        TABLE, first, last, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /** Split the months up to {@code months-ahead} from now out of the catch-all partition. */
+  @Scheduled(cron = "${attendance.partitioning.cron:0 0 1 * * *}")
+  public void createUpcomingPartitions() {
+    YearMonth covered = null;
+    for (String description : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class, TABLE)) {
+      if (!"MAXVALUE".equals(description)) {
+        // Descriptions of RANGE COLUMNS partitions are quoted literals, e.g. '2026-02-01'
+        covered = YearMonth.from(LocalDate.parse(description.replace("'", ""))).minusMonths(1);
+      }
+    }
+    if (covered == null) {
+      log.warn("{} is not partitioned by month; no partitions created", TABLE);
+      return;
+    }
+    YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+    if (!covered.isBefore(last)) {
+      return;
+    }
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + CATCH_ALL
+        + " INTO (" + monthPartitions(covered.plusMonths(1), last) + ")");
+    log.info("Created {} partitions from {} to {}", TABLE, covered.plusMonths(1), last);
+  }
+
+  /** One partition per month from first to last, followed by the catch-all partition. */
+  private static String monthPartitions(YearMonth first, YearMonth last) {
+    List<String> partitions = new ArrayList<>();
+    for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+      partitions.add("PARTITION " + month.format(PARTITION_NAME)
+          + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+    partitions.add("PARTITION " + CATCH_ALL + " VALUES LESS THAN (MAXVALUE)");
+    return String.join(", ", partitions);
+  }
+}
@@ -0,0 +1,331 @@
+package com.example.empattendance.service;
+
+import com.example.empattendance.model.AttendanceType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One month of archived attendance records in an immutable file, read through a memory mapping.
+ *
+ * <p>Layout, big-endian: a 36-byte header (magic, version, year, month, employee count, row count,
+ * CRC32 of the rows), an index of one 24-byte entry per employee in ascending ID order (employee
+ * ID, block offset, block length, row count), then one deflated block per employee holding that
+ * employee's rows in date order. A lookup binary-searches the index and inflates a single block.
+ * The checksum covers, for each employee in order, the 8-byte employee ID followed by the
+ * uncompressed block, so it can be recomputed from source rows as well as from the file.
+ */
+final class AttendanceSegment {
+
+  private static final long MAGIC = 0x4154545345473031L; // "ATTSEG01"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 36;
+  private static final int INDEX_ENTRY_BYTES = 24;
+
+  /** Stored in place of a missing sign-in or sign-out time. */
+  private static final long NO_TIME = -1;
+
+  private final YearMonth month;
+  private final ByteBuffer buffer;
+  private final int employees;
+  private final int rows;
+  private final long checksum;
+
+  private AttendanceSegment(YearMonth month, ByteBuffer buffer, int employees, int rows, long checksum) {
+    this.month = month;
+    this.buffer = buffer;
+    this.employees = employees;
+    this.rows = rows;
+    this.checksum = checksum;
+  }
+
+  /**
+   * Map a segment file and read its header.
+   *
+   * @param path segment file
+   * @return the segment
+   * @throws IOException if the file cannot be read or is not a segment
+   */
+  static AttendanceSegment open(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+      throw new IOException(path + " is not an attendance segment");
+    }
+    YearMonth month = YearMonth.of(buffer.getInt(12), buffer.getInt(16));
+    return new AttendanceSegment(month, buffer, buffer.getInt(20), buffer.getInt(24), buffer.getLong(28));
+  }
+
+  /**
+   * Write rows to a new segment file.
+   *
+   * @param path file to create; an existing file is replaced
+   * @param month month the rows belong to
+   * @param rows rows sorted by employee ID and then date
+   * @throws IOException if the file cannot be written
+   */
+  static void write(Path path, YearMonth month, List<Row> rows) throws IOException {
+    List<long[]> index = new ArrayList<>();
+    ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+    CRC32 crc = new CRC32();
+    int start = 0;
+    while (start < rows.size()) {
+      long employeeId = rows.get(start).employeeId;
+      int end = start;
+      while (end < rows.size() && rows.get(end).employeeId == employeeId) {
+        end++;
+      }
+      byte[] block = encode(rows.subList(start, end));
+      updateChecksum(crc, employeeId, block);
+      byte[] compressed = deflate(block);
+      index.add(new long[] {employeeId, blocks.size(), compressed.length, end - start});
+      blocks.write(compressed);
+      start = end;
+    }
+
+    long dataStart = HEADER_BYTES + (long) index.size() * INDEX_ENTRY_BYTES;
+    ByteBuffer head = ByteBuffer.allocate((int) dataStart);
+    head.putLong(MAGIC).putInt(VERSION).putInt(month.getYear()).putInt(month.getMonthValue())
+        .putInt(index.size()).putInt(rows.size()).putLong(crc.getValue());
+    for (long[] entry : index) {
+      head.putLong(entry[0]).putLong(dataStart + entry[1]).putInt((int) entry[2]).putInt((int) entry[3]);
+    }
+    head.flip();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (head.hasRemaining()) {
+        channel.write(head);
+      }
+      ByteBuffer data = ByteBuffer.wrap(blocks.toByteArray());
+      while (data.hasRemaining()) {
+        channel.write(data);
+      }
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Checksum of rows as it would be stored in a segment holding them.
+   *
+   * @param rows rows sorted by employee ID and then date
+   * @return CRC32 value
+   */
+  static long checksum(List<Row> rows) {
+    CRC32 crc = new CRC32();
+    int start = 0;
+    while (start < rows.size()) {
+      long employeeId = rows.get(start).employeeId;
+      int end = start;
+      while (end < rows.size() && rows.get(end).employeeId == employeeId) {
+        end++;
+      }
+      updateChecksum(crc, employeeId, encode(rows.subList(start, end)));
+      start = end;
+    }
+    return crc.getValue();
+  }
+
+  YearMonth getMonth() {
+    return month;
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  long getChecksum() {
+    return checksum;
+  }
+
+  /**
+   * Rows of one employee.
+   *
+   * @param employeeId ID of the employee
+   * @return the employee's rows in date order, empty if none were archived
+   */
+  List<Row> find(long employeeId) {
+    int low = 0;
+    int high = employees - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long id = buffer.getLong(entryOffset(middle));
+      if (id < employeeId) {
+        low = middle + 1;
+      } else if (id > employeeId) {
+        high = middle - 1;
+      } else {
+        return decode(employeeId, inflate(middle));
+      }
+    }
+    return List.of();
+  }
+
+  /**
+   * Visit every row, employee by employee.
+   *
+   * @param consumer receives each row
+   */
+  void forEach(Consumer<Row> consumer) {
+    for (int entry = 0; entry < employees; entry++) {
+      decode(buffer.getLong(entryOffset(entry)), inflate(entry)).forEach(consumer);
+    }
+  }
+
+  /**
+   * Decode every block and recompute the row count and checksum recorded in the header.
+   *
+   * @return {row count, checksum} as read back from the blocks
+   */
+  long[] recount() {
+    CRC32 crc = new CRC32();
+    long counted = 0;
+    for (int entry = 0; entry < employees; entry++) {
+      long employeeId = buffer.getLong(entryOffset(entry));
+      byte[] block = inflate(entry);
+      updateChecksum(crc, employeeId, block);
+      counted += decode(employeeId, block).size();
+    }
+    return new long[] {counted, crc.getValue()};
+  }
+
+  private static int entryOffset(int entry) {
+    return HEADER_BYTES + entry * INDEX_ENTRY_BYTES;
+  }
+
+  private byte[] inflate(int entry) {
+    int at = entryOffset(entry);
+    long offset = buffer.getLong(at + 8);
+    int length = buffer.getInt(at + 16);
+    ByteBuffer compressed = buffer.slice(Math.toIntExact(offset), length);
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+      byte[] chunk = new byte[8192];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(chunk);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalStateException("Truncated block in attendance segment " + month);
+        }
+        out.write(chunk, 0, n);
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupt block in attendance segment " + month, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static byte[] deflate(byte[] block) {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      deflater.setInput(block);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(block.length / 2 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void updateChecksum(CRC32 crc, long employeeId, byte[] block) {
+    crc.update(ByteBuffer.allocate(8).putLong(0, employeeId));
+    crc.update(block);
+  }
+
+  private static byte[] encode(List<Row> rows) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 32);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      for (Row row : rows) {
+        out.writeLong(row.id);
+        out.writeByte(row.date.getDayOfMonth());
+        out.writeByte(row.type.ordinal());
+        out.writeLong(row.signInTime != null ? row.signInTime.toNanoOfDay() : NO_TIME);
+        out.writeLong(row.signOutTime != null ? row.signOutTime.toNanoOfDay() : NO_TIME);
+        if (row.notes == null) {
+          out.writeInt(-1);
+        } else {
+          byte[] notes = row.notes.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(notes.length);
+          out.write(notes);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private List<Row> decode(long employeeId, byte[] block) {
+    ByteBuffer in = ByteBuffer.wrap(block);
+    AttendanceType[] types = AttendanceType.values();
+    List<Row> decoded = new ArrayList<>();
+    while (in.hasRemaining()) {
+      long id = in.getLong();
+      LocalDate date = month.atDay(in.get());
+      AttendanceType type = types[in.get()];
+      long signIn = in.getLong();
+      long signOut = in.getLong();
+      int notesLength = in.getInt();
+      String notes = null;
+      if (notesLength >= 0) {
+        byte[] bytes = new byte[notesLength];
+        in.get(bytes);
+        notes = new String(bytes, StandardCharsets.UTF_8);
+      }
+      decoded.add(new Row(id, employeeId, date, type,
+          signIn != NO_TIME ? LocalTime.ofNanoOfDay(signIn) : null,
+          signOut != NO_TIME ? LocalTime.ofNanoOfDay(signOut) : null,
+          notes));
+    }
+    return decoded;
+  }
+
+  /** One archived attendance record. */
+  static final class Row {
+
+    final long id;
+    final long employeeId;
+    final LocalDate date;
+    final AttendanceType type;
+    final LocalTime signInTime;
+    final LocalTime signOutTime;
+    final String notes;
+
+    Row(long id, long employeeId, LocalDate date, AttendanceType type, LocalTime signInTime,
+        LocalTime signOutTime, String notes) {
+      this.id = id;
+      this.employeeId = employeeId;
+      this.date = date;
+      this.type = type;
+      this.signInTime = signInTime;
+      this.signOutTime = signOutTime;
+      this.notes = notes;
+    }
+  }
+}
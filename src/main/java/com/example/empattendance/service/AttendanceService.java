@@ -1,8 +1,10 @@
 package com.example.empattendance.service;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.empattendance.events.AttendanceRegisteredEvent;
@@ -11,17 +13,33 @@ import com.example.empattendance.exception.ResourceNotFoundException;
 import com.example.empattendance.model.AttendanceRecord;
 import com.example.empattendance.model.AttendanceType;
 import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.AttendanceFact;
 import com.example.empattendance.repository.AttendanceRepository;
 import com.example.empattendance.repository.EmployeeRepository;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class AttendanceService {
 
+  /** Bounds of MySQL's DATE type, used for an open end of a report range. */
+  private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+  private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+  /** Longest range one sick leave or absence request may cover. */
+  private static final int MAX_EXCUSE_DAYS = 366;
+
   @Autowired 
   private EmployeeRepository employeeRepository;
 
@@ -31,6 +49,18 @@ public class AttendanceService {
   @Autowired 
   private ApplicationEventPublisher eventPublisher;
 
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  @Autowired
+  private OpenSessionIndex openSessionIndex;
+
+  @Autowired
+  private AttendanceSummaryService attendanceSummaryService;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
     /**
      * Sign in Employee.
      *
@@ -40,31 +70,22 @@ public class AttendanceService {
      */
     @Transactional
     public AttendanceRecord signIn(Long employeeId, String notes) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
-        
-        LocalDate today = LocalDate.now();
-        Optional<AttendanceRecord> existingRecord = attendanceRepository.findByEmployeeIdAndDateOfAtt(employeeId, today);
-        
-        if (existingRecord.isPresent()) {
-            AttendanceRecord record = existingRecord.get();
-            if (record.getType() == AttendanceType.PRESENT && record.getSignInTime() != null) {
-                throw new IllegalStateException("Employee already signed in today");
-            }
-        }
+        Employee employee = employeeReference(employeeId);
         
         AttendanceRecord record = new AttendanceRecord();
         record.setEmployee(employee);
-        record.setDateOfAtt(today);
+        record.setDateOfAtt(LocalDate.now());
         record.setType(AttendanceType.PRESENT);
-        record.setSignInTime(LocalTime.now());
+        record.setSignInTime(LocalTime.now().truncatedTo(ChronoUnit.SECONDS));
         record.setNotes(notes);
 
+        record = store(record);
+
         // Publish the event so that any listeners can react to a new sign in event
         AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
         eventPublisher.publishEvent(event);
         
-        return attendanceRepository.save(record);
+        return record;
     }
 
     /**
@@ -76,7 +97,8 @@ public class AttendanceService {
      */
     @Transactional
     public AttendanceRecord signOut(Long recordId, String notes) {
-        AttendanceRecord record = attendanceRepository.findById(recordId)
+        AttendanceRecord record = attendanceRepository.findAllForUpdate(List.of(recordId)).stream()
+            .findFirst()
             .orElseThrow(() -> new ResourceNotFoundException("Attendance record not found with id: " + recordId));
         
         if (record.getSignInTime() == null) {
@@ -87,7 +109,9 @@ public class AttendanceService {
             throw new BadRequestException("Employee already signed out");
         }
 
-        record.setSignOutTime(LocalTime.now());
+        record.setSignOutTime(LocalTime.now().truncatedTo(ChronoUnit.SECONDS));
+        attendanceSummaryService.recordChange(record.getEmployee().getId(), record.getDateOfAtt(),
+            AttendanceType.PRESENT, 0, AttendanceType.PRESENT, record.workedMinutes());
         
         if (notes != null && !notes.isEmpty()) {
             String existingNotes = record.getNotes();
@@ -101,6 +125,44 @@ public class AttendanceService {
         return attendanceRepository.save(record);
     }
 
+    /**
+     * Find the record an employee is currently signed in on.
+     *
+     * @param employeeId ID of the employee
+     * @return ID of the open attendance record
+     */
+    public Long getOpenRecordId(Long employeeId) {
+        if (!employeeIdIndex.exists(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
+        Long recordId = openSessionIndex.findOpenRecordId(employeeId);
+        if (recordId == null) {
+            throw new BadRequestException("Employee is not signed in");
+        }
+        return recordId;
+    }
+
+    /**
+     * Sign out Employee by employee ID, using their open attendance record.
+     *
+     * @param employeeId ID of the employee
+     * @param notes notes to add into register
+     * @return an AttendanceRecord
+     */
+    @Transactional
+    public AttendanceRecord signOutEmployee(Long employeeId, String notes) {
+        return signOut(getOpenRecordId(employeeId), notes);
+    }
+
+    /**
+     * Count employees currently signed in and not yet signed out.
+     *
+     * @return number of employees on site
+     */
+    public int countOnSite() {
+        return openSessionIndex.countOnSite();
+    }
+
     /**
      * Record Sick Leave.
      *
@@ -111,34 +173,7 @@ public class AttendanceService {
      */
     @Transactional
     public AttendanceRecord recordSickLeave(Long employeeId, LocalDate date, String notes) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
-        
-        LocalDate recordDate = (date != null) ? date : LocalDate.now();
-        
-        Optional<AttendanceRecord> existingRecord = attendanceRepository.findByEmployeeIdAndDateOfAtt(employeeId, recordDate);
-        
-        if (existingRecord.isPresent()) {
-            AttendanceRecord record = existingRecord.get();
-            record.setType(AttendanceType.SICK_LEAVE);
-            record.setSignInTime(null);
-            record.setSignOutTime(null);
-            record.setNotes(notes);
-            // Publish the event so that any listeners can react to a new sick leave event
-            AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
-            eventPublisher.publishEvent(event);
-            return attendanceRepository.save(record);
-        } else {
-            AttendanceRecord record = new AttendanceRecord();
-            record.setEmployee(employee);
-            record.setDateOfAtt(date);
-            record.setType(AttendanceType.SICK_LEAVE);
-            record.setNotes(notes);
-            // Publish the event so that any listeners can react to a new sick leave event
-            AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
-            eventPublisher.publishEvent(event);
-            return attendanceRepository.save(record);
-        }
+        return recordExcuse(employeeId, date, AttendanceType.SICK_LEAVE, notes);
     }
 
     /**
@@ -151,47 +186,329 @@ public class AttendanceService {
      */
     @Transactional
     public AttendanceRecord recordAbsence(Long employeeId, LocalDate date, String notes) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
-        
-        LocalDate recordDate = (date != null) ? date : LocalDate.now();
-        
-        Optional<AttendanceRecord> existingRecord = attendanceRepository.findByEmployeeIdAndDateOfAtt(employeeId, recordDate);
-        
-        if (existingRecord.isPresent()) {
-            AttendanceRecord record = existingRecord.get();
-            record.setType(AttendanceType.ABSENT);
+        return recordExcuse(employeeId, date, AttendanceType.ABSENT, notes);
+    }
+
+    /**
+     * Record Sick Leave for every day of a range.
+     *
+     * @param employeeId ID of the employee
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @param skipWeekends leave Saturdays and Sundays unrecorded
+     * @param notes notes to add into sick leave register
+     * @return the AttendanceRecords written, in date order
+     */
+    @Transactional
+    public List<AttendanceRecord> recordSickLeave(Long employeeId, LocalDate from, LocalDate to, boolean skipWeekends, String notes) {
+        return recordExcuses(employeeId, from, to, skipWeekends, AttendanceType.SICK_LEAVE, notes);
+    }
+
+    /**
+     * Record Absence of Employee for every day of a range.
+     *
+     * @param employeeId ID of the employee
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @param skipWeekends leave Saturdays and Sundays unrecorded
+     * @param notes notes to add into absence register
+     * @return the AttendanceRecords written, in date order
+     */
+    @Transactional
+    public List<AttendanceRecord> recordAbsence(Long employeeId, LocalDate from, LocalDate to, boolean skipWeekends, String notes) {
+        return recordExcuses(employeeId, from, to, skipWeekends, AttendanceType.ABSENT, notes);
+    }
+
+    /**
+     * Write one excuse per day of a range. The employee's records in the range are locked and read
+     * with one query, days without a record are inserted and the rest overwritten in JDBC batches,
+     * the summary is adjusted in one batch and a single event carries every record.
+     */
+    private List<AttendanceRecord> recordExcuses(Long employeeId, LocalDate from, LocalDate to, boolean skipWeekends,
+            AttendanceType type, String notes) {
+        Employee employee = employeeReference(employeeId);
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Start date must be before or equal to end date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_EXCUSE_DAYS) {
+            throw new BadRequestException("A range can cover at most " + MAX_EXCUSE_DAYS + " days");
+        }
+        requireLive(from);
+
+        Map<LocalDate, AttendanceRecord> existing = attendanceRepository.findForUpdateByEmployeeIdAndDateBetween(employeeId, from, to)
+            .stream()
+            .collect(Collectors.toMap(AttendanceRecord::getDateOfAtt, r -> r));
+        List<AttendanceRecord> records = new ArrayList<>();
+        List<AttendanceSummaryService.Change> changes = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (skipWeekends && (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)) {
+                continue;
+            }
+            AttendanceRecord record = existing.get(date);
+            AttendanceType oldType = null;
+            int oldMinutes = 0;
+            if (record == null) {
+                record = new AttendanceRecord();
+                record.setEmployee(employee);
+                record.setDateOfAtt(date);
+            } else {
+                oldType = record.getType();
+                oldMinutes = record.workedMinutes();
+            }
+            record.setType(type);
             record.setSignInTime(null);
             record.setSignOutTime(null);
             record.setNotes(notes);
-            // Publish the event so that any listeners can react to a new absence event
-            AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
-            eventPublisher.publishEvent(event);
-            return attendanceRepository.save(record);
-        } else {
-            AttendanceRecord record = new AttendanceRecord();
-            record.setEmployee(employee);
-            record.setDateOfAtt(recordDate);
-            record.setType(AttendanceType.ABSENT);
-            record.setNotes(notes);
-            // Publish the event so that any listeners can react to a new absence event
-            AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
-            eventPublisher.publishEvent(event);
-            return attendanceRepository.save(record);
+            changes.add(new AttendanceSummaryService.Change(employeeId, date, oldType, oldMinutes, type, 0));
+            records.add(record);
+        }
+        if (records.isEmpty()) {
+            return records;
+        }
+
+        attendanceRepository.saveAll(records);
+        attendanceSummaryService.recordChanges(changes);
+
+        // Publish one event for the whole range so listeners can react to the new sick leave or absence days
+        eventPublisher.publishEvent(new AttendanceRegisteredEvent(this, employee, records));
+        return records;
+    }
+
+    private AttendanceRecord recordExcuse(Long employeeId, LocalDate date, AttendanceType type, String notes) {
+        Employee employee = employeeReference(employeeId);
+        
+        AttendanceRecord record = new AttendanceRecord();
+        record.setEmployee(employee);
+        record.setDateOfAtt((date != null) ? date : LocalDate.now());
+        record.setType(type);
+        record.setNotes(notes);
+
+        record = store(record);
+
+        // Publish the event so that any listeners can react to a new sick leave or absence event
+        AttendanceRegisteredEvent event = new AttendanceRegisteredEvent(this, employee, record);
+        eventPublisher.publishEvent(event);
+        return record;
+    }
+
+    /**
+     * Refuse a write dated in an archived month. Its records have left attendancerecords, so an
+     * insert would sit beside the archived record of the same day and be counted in the summary a
+     * second time.
+     *
+     * @param date date being written
+     */
+    private void requireLive(LocalDate date) {
+        YearMonth archivedThrough = attendanceArchiveService.getArchivedThrough();
+        if (archivedThrough != null && !YearMonth.from(date).isAfter(archivedThrough)) {
+            throw new BadRequestException("Attendance up to " + archivedThrough + " is archived and cannot be changed");
         }
     }
 
+    /**
+     * Resolve an employee for attaching to a record without loading it.
+     *
+     * @param employeeId ID of the employee
+     * @return an uninitialised reference to the employee
+     */
+    private Employee employeeReference(Long employeeId) {
+        if (!employeeIdIndex.exists(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
+        return employeeRepository.getReferenceById(employeeId);
+    }
+
+    /**
+     * Insert a record for the employee's day, or overwrite the record already there, and adjust the
+     * daily summary by the difference. The insert is attempted first so the common case is a single
+     * statement; an existing record is locked before it is read and changed.
+     *
+     * @param record transient record to store
+     * @return the stored record
+     */
+    private AttendanceRecord store(AttendanceRecord record) {
+        requireLive(record.getDateOfAtt());
+        Long employeeId = record.getEmployee().getId();
+        if (attendanceRepository.insertIfAbsent(record) == 1) {
+            attendanceSummaryService.recordChange(employeeId, record.getDateOfAtt(),
+                null, 0, record.getType(), record.workedMinutes());
+            return record;
+        }
+
+        AttendanceRecord existing = attendanceRepository.findByEmployeeIdAndDateOfAtt(employeeId, record.getDateOfAtt())
+            .orElseThrow(() -> new IllegalStateException("Attendance record vanished after insert conflict"));
+        if (record.getType() == AttendanceType.PRESENT
+                && existing.getType() == AttendanceType.PRESENT && existing.getSignInTime() != null) {
+            throw new IllegalStateException("Employee already signed in today");
+        }
+        AttendanceType oldType = existing.getType();
+        int oldMinutes = existing.workedMinutes();
+        existing.setType(record.getType());
+        existing.setSignInTime(record.getSignInTime());
+        existing.setSignOutTime(record.getSignOutTime());
+        existing.setNotes(record.getNotes());
+        attendanceSummaryService.recordChange(employeeId, existing.getDateOfAtt(),
+            oldType, oldMinutes, existing.getType(), existing.workedMinutes());
+        return existing;
+    }
+
+    /**
+     * Write a batch of queued sign-ins and sign-outs in one transaction. Commands that would be
+     * rejected by {@link #signIn} or {@link #signOut} are skipped rather than failing the batch.
+     *
+     * @param commands commands accepted by the ingestion queue
+     * @return number of commands written
+     */
+    @Transactional
+    public int applyQueuedCommands(List<AttendanceCommand> commands) {
+        List<AttendanceRecord> toSave = new ArrayList<>(commands.size());
+        List<AttendanceSummaryService.Change> changes = new ArrayList<>(commands.size());
+
+        YearMonth archivedThrough = attendanceArchiveService.getArchivedThrough();
+        Map<LocalDate, List<AttendanceCommand>> signInsByDate = commands.stream()
+            .filter(c -> c.getKind() == AttendanceCommand.Kind.SIGN_IN)
+            .filter(c -> archivedThrough == null || YearMonth.from(c.getDate()).isAfter(archivedThrough))
+            .collect(Collectors.groupingBy(AttendanceCommand::getDate));
+        for (Map.Entry<LocalDate, List<AttendanceCommand>> entry : signInsByDate.entrySet()) {
+            LocalDate date = entry.getKey();
+            Map<Long, AttendanceRecord> existing = attendanceRepository.findByEmployeeIdInAndDateOfAtt(
+                    entry.getValue().stream().map(AttendanceCommand::getEmployeeId).collect(Collectors.toSet()), date)
+                .stream()
+                .collect(Collectors.toMap(r -> r.getEmployee().getId(), r -> r));
+            Set<Long> signedIn = new HashSet<>();
+
+            for (AttendanceCommand command : entry.getValue()) {
+                if (!signedIn.add(command.getEmployeeId())) {
+                    continue;
+                }
+                AttendanceRecord record = existing.get(command.getEmployeeId());
+                if (record != null && record.getType() == AttendanceType.PRESENT && record.getSignInTime() != null) {
+                    continue;
+                }
+                AttendanceType oldType = null;
+                int oldMinutes = 0;
+                if (record == null) {
+                    record = new AttendanceRecord();
+                    record.setEmployee(employeeRepository.getReferenceById(command.getEmployeeId()));
+                    record.setDateOfAtt(date);
+                } else {
+                    oldType = record.getType();
+                    oldMinutes = record.workedMinutes();
+                }
+                changes.add(new AttendanceSummaryService.Change(
+                    command.getEmployeeId(), date, oldType, oldMinutes, AttendanceType.PRESENT, 0));
+                record.setType(AttendanceType.PRESENT);
+                record.setSignInTime(command.getTime());
+                record.setSignOutTime(null);
+                record.setNotes(command.getNotes());
+                toSave.add(record);
+            }
+        }
+
+        Map<Long, AttendanceCommand> signOuts = commands.stream()
+            .filter(c -> c.getKind() == AttendanceCommand.Kind.SIGN_OUT)
+            .collect(Collectors.toMap(AttendanceCommand::getRecordId, c -> c, (first, retry) -> first));
+        for (AttendanceRecord record : attendanceRepository.findAllForUpdate(signOuts.keySet())) {
+            AttendanceCommand command = signOuts.get(record.getId());
+            if (record.getSignInTime() == null || record.getSignOutTime() != null) {
+                continue;
+            }
+            record.setSignOutTime(command.getTime());
+            changes.add(new AttendanceSummaryService.Change(record.getEmployee().getId(), record.getDateOfAtt(),
+                AttendanceType.PRESENT, 0, AttendanceType.PRESENT, record.workedMinutes()));
+            String notes = command.getNotes();
+            if (notes != null && !notes.isEmpty()) {
+                String existingNotes = record.getNotes();
+                record.setNotes(existingNotes != null ? existingNotes + " | " + notes : notes);
+            }
+            toSave.add(record);
+        }
+
+        for (AttendanceRecord record : toSave) {
+            eventPublisher.publishEvent(new AttendanceRegisteredEvent(this, record.getEmployee(), record));
+        }
+        attendanceRepository.saveAll(toSave);
+        attendanceSummaryService.recordChanges(changes);
+        return toSave.size();
+    }
+
+    /**
+     * Delete every attendance record of an employee and take them out of the daily summary. Must
+     * run in the transaction that deletes the employee, before the employee row goes.
+     *
+     * @param employeeId ID of the employee being deleted
+     * @return number of records deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int deleteEmployeeRecords(Long employeeId) {
+        List<AttendanceSummaryService.Change> changes = new ArrayList<>();
+        for (AttendanceFact fact : attendanceRepository.findFactsByEmployeeId(employeeId)) {
+            changes.add(new AttendanceSummaryService.Change(employeeId, fact.getDateOfAtt(), fact.getType(),
+                AttendanceRecord.minutesBetween(fact.getSignInTime(), fact.getSignOutTime()), null, 0));
+        }
+        attendanceSummaryService.recordChanges(changes);
+        return attendanceRepository.deleteByEmployeeId(employeeId);
+    }
+
+    /**
+     * Delete every attendance record of a department's employees, along with the department's
+     * daily summary. Must run in the transaction that deletes the department.
+     *
+     * @param departmentId ID of the department being deleted
+     * @return number of records deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int deleteDepartmentRecords(Long departmentId) {
+        attendanceSummaryService.recordDepartmentRemoved(departmentId);
+        return attendanceRepository.deleteByDepartmentId(departmentId);
+    }
+
+    /**
+     * Get an employee's records in a date range, merging archived months with attendancerecords.
+     *
+     * @param employeeId ID of the employee
+     * @param startDate first day, or null for no lower bound
+     * @param endDate last day, or null for no upper bound
+     * @return records in date order, each with its employee and department loaded
+     */
+    @Transactional(readOnly = true)
     public List<AttendanceRecord> getAttendanceRecordsByEmployeeAndDateRange(Long employeeId, LocalDate startDate, LocalDate endDate) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
+        if (!employeeIdIndex.exists(employeeId)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
         if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
             throw new BadRequestException(
                 "Start date must be before or equal to end date"
             );
         }
-        return attendanceRepository.findByEmployeeIdAndDateBetweenOrderByDateAsc(
-            employeeId, startDate, endDate
-        );
+        LocalDate from = startDate != null ? startDate : EARLIEST_DATE;
+        LocalDate to = endDate != null ? endDate : LATEST_DATE;
+        List<AttendanceRecord> live = attendanceRepository.findByEmployeeIdAndDateBetweenOrderByDateAsc(employeeId, from, to);
+        List<AttendanceRecord> archived = attendanceArchiveService.findRecords(employeeId, from, to);
+        if (archived.isEmpty()) {
+            return live;
+        }
+
+        Employee employee;
+        if (!live.isEmpty()) {
+            employee = live.get(0).getEmployee();
+        } else {
+            employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
+            Hibernate.initialize(employee.getDepartment());
+        }
+        // A day still in attendancerecords is newer than its archived copy
+        Set<LocalDate> liveDates = live.stream().map(AttendanceRecord::getDateOfAtt).collect(Collectors.toSet());
+        List<AttendanceRecord> merged = new ArrayList<>(archived.size() + live.size());
+        for (AttendanceRecord record : archived) {
+            if (!liveDates.contains(record.getDateOfAtt())) {
+                record.setEmployee(employee);
+                merged.add(record);
+            }
+        }
+        merged.addAll(live);
+        merged.sort(Comparator.comparing(AttendanceRecord::getDateOfAtt));
+        return merged;
     }
 
  
@@ -0,0 +1,234 @@
+package com.example.empattendance.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps attendance_daily_summary in step with attendancerecords. Every write to a record reports
+ * its old and new state here, inside the same transaction, and the difference is added to the
+ * (day, department, type) totals. The department is resolved by the statement itself, so callers
+ * only need the employee ID.
+ *
+ * <p>Each total is spread over {@code attendance.summary.stripes} rows, and a change goes to the
+ * row of its employee's stripe. Sign-ins for one department on one day would otherwise all update,
+ * and wait on, a single row until their transactions commit. Readers sum the stripes; a rebuild
+ * writes its totals to stripe 0, which is fine because only the sum has a meaning.
+ */
+@Service
+public class AttendanceSummaryService {
+
+  private static final Logger log = LoggerFactory.getLogger(AttendanceSummaryService.class);
+
+  private static final String APPLY_DELTA =
+      "INSERT INTO attendance_daily_summary (date_of_att, department_id, type, stripe, record_count, total_minutes) "
+          + "SELECT ?, e.department_id, ?, ?, ?, ? FROM employees e WHERE e.id = ? "
+          + "ON DUPLICATE KEY UPDATE record_count = record_count + ?, total_minutes = total_minutes + ?";
+
+  private static final String ADD_RECORDS =
+      "INSERT INTO attendance_daily_summary (date_of_att, department_id, type, stripe, record_count, total_minutes) "
+          + "VALUES (?, ?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE record_count = record_count + ?";
+
+  private static final String STRIPE_IN_PRIMARY_KEY =
+      "SELECT COUNT(*) FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() "
+          + "AND TABLE_NAME = 'attendance_daily_summary' AND CONSTRAINT_NAME = 'PRIMARY' AND COLUMN_NAME = 'stripe'";
+
+  private static final String DELETE_DEPARTMENT =
+      "DELETE FROM attendance_daily_summary WHERE department_id = ?";
+
+  private static final String DELETE_RANGE =
+      "DELETE FROM attendance_daily_summary WHERE date_of_att BETWEEN ? AND ?";
+
+  private static final String REBUILD_RANGE =
+      "INSERT INTO attendance_daily_summary (date_of_att, department_id, type, stripe, record_count, total_minutes) "
+          + "SELECT a.date_of_att, e.department_id, a.type, 0, COUNT(*), "
+          + "SUM(CASE WHEN a.sign_in_time IS NOT NULL AND a.sign_out_time >= a.sign_in_time "
+          + "THEN (TIME_TO_SEC(a.sign_out_time) - TIME_TO_SEC(a.sign_in_time)) DIV 60 ELSE 0 END) "
+          + "FROM attendancerecords a JOIN employees e ON e.id = a.employee_id "
+          + "WHERE a.date_of_att BETWEEN ? AND ? "
+          + "GROUP BY a.date_of_att, e.department_id, a.type";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Value("${attendance.summary.stripes:16}")
+  private int stripes;
+
+  /**
+   * A schema update adds the stripe column with 0 in existing rows but leaves the primary key on
+   * (day, department, type), which would fold every stripe back into one row.
+   */
+  @PostConstruct
+  void includeStripeInPrimaryKey() {
+    String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+    if (!"MySQL".equals(database)) {
+      return;
+    }
+    Integer striped = jdbcTemplate.queryForObject(STRIPE_IN_PRIMARY_KEY, Integer.class);
+    if (striped == null || striped == 0) {
+      jdbcTemplate.execute("ALTER TABLE attendance_daily_summary DROP PRIMARY KEY, "
+          + "ADD PRIMARY KEY (date_of_att, department_id, type, stripe)");
+      log.info("Added the stripe to the attendance_daily_summary primary key");
+    }
+  }
+
+  /**
+   * Apply one record change to the summary.
+   *
+   * @param employeeId ID of the employee the record belongs to
+   * @param date date of the record
+   * @param oldType type before the change, or null if the record is new
+   * @param oldMinutes minutes worked before the change
+   * @param newType type after the change
+   * @param newMinutes minutes worked after the change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordChange(Long employeeId, LocalDate date, AttendanceType oldType, int oldMinutes,
+      AttendanceType newType, int newMinutes) {
+    recordChanges(List.of(new Change(employeeId, date, oldType, oldMinutes, newType, newMinutes)));
+  }
+
+  /**
+   * Apply several record changes to the summary in one JDBC batch.
+   *
+   * @param changes changes made in the current transaction
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordChanges(List<Change> changes) {
+    List<Object[]> rows = new ArrayList<>(changes.size() * 2);
+    for (Change change : changes) {
+      if (change.oldType == change.newType) {
+        addRow(rows, change, change.newType, 0, change.newMinutes - change.oldMinutes);
+        continue;
+      }
+      if (change.oldType != null) {
+        addRow(rows, change, change.oldType, -1, -change.oldMinutes);
+      }
+      if (change.newType != null) {
+        addRow(rows, change, change.newType, 1, change.newMinutes);
+      }
+    }
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(APPLY_DELTA, rows);
+    }
+  }
+
+  /**
+   * Add new records without worked minutes, all of one department and day, to the summary.
+   *
+   * @param date date of the records
+   * @param departmentId department of their employees
+   * @param type type of the records
+   * @param employeeIds employees whose records were inserted in the current transaction
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordInserted(LocalDate date, Long departmentId, AttendanceType type, long[] employeeIds) {
+    int[] counts = new int[stripes];
+    for (long employeeId : employeeIds) {
+      counts[stripeOf(employeeId)]++;
+    }
+    List<Object[]> rows = new ArrayList<>();
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      if (counts[stripe] > 0) {
+        rows.add(new Object[] {date, departmentId, type.name(), stripe, counts[stripe], counts[stripe]});
+      }
+    }
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(ADD_RECORDS, rows);
+    }
+  }
+
+  /**
+   * Drop a department's totals, as it is being deleted with its employees and their records.
+   *
+   * @param departmentId ID of the department
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordDepartmentRemoved(Long departmentId) {
+    jdbcTemplate.update(DELETE_DEPARTMENT, departmentId);
+  }
+
+  private void addRow(List<Object[]> rows, Change change, AttendanceType type, int countDelta, int minutesDelta) {
+    if (countDelta == 0 && minutesDelta == 0) {
+      return;
+    }
+    rows.add(new Object[] {
+        change.date, type.name(), stripeOf(change.employeeId), countDelta, minutesDelta, change.employeeId,
+        countDelta, minutesDelta
+    });
+  }
+
+  private int stripeOf(long employeeId) {
+    return (int) Math.floorMod(employeeId, (long) stripes);
+  }
+
+  /**
+   * Recompute the summary for a date range from attendancerecords. Used to backfill the table and
+   * to repair it, e.g. after records were written outside the service or an employee moved
+   * department. Records in the range are share-locked while the totals are recomputed. Archived
+   * months cannot be rebuilt.
+   *
+   * @param startDate first day to rebuild
+   * @param endDate last day to rebuild
+   * @return number of summary rows written
+   */
+  @Transactional
+  public int rebuild(LocalDate startDate, LocalDate endDate) {
+    if (startDate == null || endDate == null) {
+      throw new BadRequestException("Start date and end date are required");
+    }
+    if (startDate.isAfter(endDate)) {
+      throw new BadRequestException("Start date must be before or equal to end date");
+    }
+    // Archived records are no longer in attendancerecords, so rebuilding their days would zero them
+    YearMonth archivedThrough = attendanceArchiveService.getArchivedThrough();
+    if (archivedThrough != null && !YearMonth.from(startDate).isAfter(archivedThrough)) {
+      throw new BadRequestException("Attendance up to " + archivedThrough + " is archived and cannot be rebuilt");
+    }
+    long started = System.nanoTime();
+    jdbcTemplate.update(DELETE_RANGE, startDate, endDate);
+    int rows = jdbcTemplate.update(REBUILD_RANGE, startDate, endDate);
+    log.info("Rebuilt attendance summary for {} to {}: {} rows in {} ms",
+        startDate, endDate, rows, (System.nanoTime() - started) / 1_000_000);
+    return rows;
+  }
+
+  /** Old and new state of one attendance record. The new type is null when the record was deleted. */
+  public static final class Change {
+
+    private final Long employeeId;
+    private final LocalDate date;
+    private final AttendanceType oldType;
+    private final int oldMinutes;
+    private final AttendanceType newType;
+    private final int newMinutes;
+
+    public Change(Long employeeId, LocalDate date, AttendanceType oldType, int oldMinutes,
+        AttendanceType newType, int newMinutes) {
+      this.employeeId = employeeId;
+      this.date = date;
+      this.oldType = oldType;
+      this.oldMinutes = oldMinutes;
+      this.newType = newType;
+      this.newMinutes = newMinutes;
+    }
+  }
+}
@@ -1,14 +1,29 @@
 package com.example.empattendance.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.empattendance.dto.CursorPage;
+import com.example.empattendance.dto.DailyAttendanceSummary;
+import com.example.empattendance.exception.BadRequestException;
 import com.example.empattendance.model.Department;
+import com.example.empattendance.model.AttendanceType;
 import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.AttendanceDailySummaryRepository;
+import com.example.empattendance.repository.DailySummaryTotals;
 import com.example.empattendance.repository.DepartmentRepository;
 import com.example.empattendance.repository.EmployeeRepository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,6 +35,24 @@ public class DepartmentService {
   @Autowired 
   private EmployeeRepository employeeRepository;
 
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  @Autowired
+  private EmployeeSearchIndex employeeSearchIndex;
+
+  @Autowired
+  private AttendanceCalendarIndex attendanceCalendarIndex;
+
+  @Autowired
+  private AttendanceDailySummaryRepository summaryRepository;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   /**
    * Get all departments.
    *
@@ -46,24 +79,71 @@ public class DepartmentService {
    * @return Saved department
    */
   public Department saveDepartment(Department department) {
-    return departmentRepository.save(department);
+    Department savedDepartment = departmentRepository.save(department);
+    return savedDepartment;
   }
 
   /**
-   * Update a department.
+   * Delete a department with its employees and their attendance records.
    *
-   * @param id ID of the department to be updated
+   * @param id ID of the department to be deleted
    */
   public void deleteDepartment(Long id) {
-    departmentRepository.deleteById(id);
+    // Employees are removed with their department by cascade, their records explicitly
+    List<Long> employeeIds = employeeRepository.findIdsByDepartmentId(id);
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      attendanceService.deleteDepartmentRecords(id);
+      departmentRepository.deleteById(id);
+    });
+    employeeIds.forEach(employeeIdIndex::remove);
+    employeeIds.forEach(employeeSearchIndex::remove);
+    employeeIds.forEach(attendanceCalendarIndex::removeEmployee);
   }
 
   /**
-   * get employees by Department ID.
+   * Get a page of a department's employees in ID order.
    *
-   * @param id ID of the department to be queried
+   * @param departmentId ID of the department to be queried
+   * @param after cursor returned with the previous page, or null for the first page
+   * @param limit maximum number of employees to return
+   * @return CursorPage of employees
    */
-  public List<Employee> getEmployeesByDepartmentId(Long departmentId) {
-    return employeeRepository.findByDepartmentId(departmentId);
+  @Transactional(readOnly = true)
+  public CursorPage<Employee> getEmployeesPageByDepartmentId(Long departmentId, Long after, int limit) {
+    List<Employee> rows = employeeRepository.findPageByDepartmentId(departmentId, after != null ? after : 0L, PageRequest.of(0, limit + 1));
+    return CursorPage.of(EmployeeService.withDepartments(rows), limit, Employee::getId);
+  }
+
+  /**
+   * Get per-day attendance counts for a department, read from the maintained daily summary.
+   *
+   * @param departmentId ID of the department to be queried
+   * @param startDate first day of the summary
+   * @param endDate last day of the summary
+   * @return one DailyAttendanceSummary per day that has records, in date order
+   */
+  public List<DailyAttendanceSummary> getAttendanceSummary(Long departmentId, LocalDate startDate, LocalDate endDate) {
+    if (startDate.isAfter(endDate)) {
+      throw new BadRequestException("Start date must be before or equal to end date");
+    }
+    Map<LocalDate, DailyAttendanceSummary> days = new LinkedHashMap<>();
+    for (DailySummaryTotals row : summaryRepository.findByDepartment(departmentId, startDate, endDate)) {
+      if (row.getRecordCount() == 0) {
+        continue;
+      }
+      DailyAttendanceSummary day = days.computeIfAbsent(row.getDateOfAtt(),
+          date -> new DailyAttendanceSummary(date, emptyCounts(), 0));
+      day.getCounts().put(row.getType(), row.getRecordCount());
+      day.setTotalMinutes(day.getTotalMinutes() + row.getTotalMinutes());
+    }
+    return new ArrayList<>(days.values());
+  }
+
+  private static Map<AttendanceType, Long> emptyCounts() {
+    Map<AttendanceType, Long> counts = new EnumMap<>(AttendanceType.class);
+    for (AttendanceType type : AttendanceType.values()) {
+      counts.put(type, 0L);
+    }
+    return counts;
   }
 }
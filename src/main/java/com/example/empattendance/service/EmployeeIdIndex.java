@@ -0,0 +1,113 @@
+package com.example.empattendance.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap of existing employee ids, one bit per id, so attendance writes can check an employee
+ * exists without a query. Kept current by {@link EmployeeService} and {@link DepartmentService}.
+ * A miss falls back to the database, so ids created on another node are still found. Ids above
+ * {@link #MAX_INDEXED_ID} are never indexed and always go to the database, which keeps the bitmap
+ * to at most 16 MB however sparse the ids are.
+ */
+@Component
+public class EmployeeIdIndex {
+
+  /** Largest id the bitmap holds. */
+  static final long MAX_INDEXED_ID = (1L << 27) - 1;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  private volatile AtomicLongArray words = new AtomicLongArray(0);
+
+  /** Load the index once the data initializer has run. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<Long> ids = employeeRepository.findAllIds();
+    long max = ids.stream().mapToLong(Long::longValue).filter(EmployeeIdIndex::indexable).max().orElse(0);
+    AtomicLongArray loaded = new AtomicLongArray(wordIndex(max) + 1);
+    for (Long id : ids) {
+      if (!indexable(id)) {
+        continue;
+      }
+      int i = wordIndex(id);
+      loaded.set(i, loaded.get(i) | bit(id));
+    }
+    synchronized (this) {
+      words = loaded;
+    }
+  }
+
+  /**
+   * Check whether an employee exists.
+   *
+   * @param id ID of the employee
+   * @return true if the employee exists
+   */
+  public boolean exists(Long id) {
+    if (id == null || id < 0) {
+      return false;
+    }
+    if (indexable(id) && contains(id)) {
+      return true;
+    }
+    if (employeeRepository.existsById(id)) {
+      add(id);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean contains(long id) {
+    AtomicLongArray current = words;
+    int i = wordIndex(id);
+    return i < current.length() && (current.get(i) & bit(id)) != 0;
+  }
+
+  public synchronized void add(long id) {
+    if (!indexable(id)) {
+      return;
+    }
+    int i = wordIndex(id);
+    AtomicLongArray current = words;
+    if (i >= current.length()) {
+      AtomicLongArray grown = new AtomicLongArray(Math.max(i + 1, current.length() * 2));
+      for (int j = 0; j < current.length(); j++) {
+        grown.set(j, current.get(j));
+      }
+      words = current = grown;
+    }
+    current.set(i, current.get(i) | bit(id));
+  }
+
+  public synchronized void remove(long id) {
+    if (!indexable(id)) {
+      return;
+    }
+    int i = wordIndex(id);
+    AtomicLongArray current = words;
+    if (i < current.length()) {
+      current.set(i, current.get(i) & ~bit(id));
+    }
+  }
+
+  private static boolean indexable(long id) {
+    return id >= 0 && id <= MAX_INDEXED_ID;
+  }
+
+  private static int wordIndex(long id) {
+    return Math.toIntExact(id >>> 6);
+  }
+
+  private static long bit(long id) {
+    return 1L << id;
+  }
+}
@@ -0,0 +1,341 @@
+package com.example.empattendance.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.empattendance.dto.EmployeeSearchHit;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over employee first names, last names and addresses for type-ahead search.
+ * Text is lower-cased, stripped of accents and split into words. Every word contributes its
+ * trigrams plus its first one and two characters marked as a word start, so one- and two-letter
+ * terms match word prefixes and longer terms match anywhere in a word. Each gram maps to a sorted
+ * {@code int[]} of document numbers; a query intersects the lists of all its grams, smallest
+ * first, then confirms each candidate against the stored words and ranks it.
+ *
+ * <p>Built at startup and kept current by {@link EmployeeService} and {@link DepartmentService}.
+ * Changing an employee adds a new document and retires the old one; once retired documents
+ * outnumber live ones the index is rebuilt from the live documents.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+  private static final char WORD_START = '\u0001';
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /** Term scores by where it matched; names rank above addresses. */
+  private static final int NAME_WORD = 6;
+  private static final int NAME_PREFIX = 4;
+  private static final int NAME_INFIX = 2;
+  private static final int ADDRESS_WORD = 3;
+  private static final int ADDRESS_PREFIX = 2;
+  private static final int ADDRESS_INFIX = 1;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private Documents documents = new Documents();
+
+  /** Load every employee once the data initializer has run. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Documents fresh = new Documents();
+    for (Employee employee : employeeRepository.findAll()) {
+      fresh.add(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getAddress());
+    }
+    lock.writeLock().lock();
+    try {
+      documents = fresh;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Index an employee, replacing what was indexed for it before.
+   *
+   * @param employee saved employee
+   */
+  public void update(Employee employee) {
+    lock.writeLock().lock();
+    try {
+      documents.remove(employee.getId());
+      documents.add(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getAddress());
+      compactIfMostlyRetired();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drop an employee from the index.
+   *
+   * @param id ID of the deleted employee
+   */
+  public void remove(Long id) {
+    lock.writeLock().lock();
+    try {
+      documents.remove(id);
+      compactIfMostlyRetired();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Find the employees matching every word of a query.
+   *
+   * @param query free text; words of three or more letters match anywhere in a word, shorter ones
+   *     match the start of a word
+   * @param limit maximum number of results
+   * @return best matches first, ties in ID order
+   */
+  public List<EmployeeSearchHit> search(String query, int limit) {
+    String[] terms = words(query).toArray(new String[0]);
+    if (terms.length == 0) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      int[] candidates = documents.candidates(terms);
+      // Min-heap of the best hits so far: lowest score, then highest ID, on top
+      Comparator<int[]> worstFirst = Comparator.<int[]>comparingInt(hit -> hit[1])
+          .thenComparingLong(hit -> -documents.docs.get(hit[0]).employeeId);
+      PriorityQueue<int[]> best = new PriorityQueue<>(limit + 1, worstFirst);
+      for (int doc : candidates) {
+        Doc candidate = documents.docs.get(doc);
+        if (candidate == null) {
+          continue;
+        }
+        int score = candidate.score(terms);
+        if (score > 0) {
+          best.add(new int[] {doc, score});
+          if (best.size() > limit) {
+            best.poll();
+          }
+        }
+      }
+      List<EmployeeSearchHit> hits = new ArrayList<>(best.size());
+      while (!best.isEmpty()) {
+        int[] hit = best.poll();
+        Doc doc = documents.docs.get(hit[0]);
+        hits.add(new EmployeeSearchHit(doc.employeeId, doc.firstName, doc.lastName, doc.address, hit[1]));
+      }
+      Collections.reverse(hits);
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void compactIfMostlyRetired() {
+    if (documents.retired > documents.live()) {
+      documents = documents.compact();
+    }
+  }
+
+  /** Distinct normalised words of a text. */
+  private static Set<String> words(String text) {
+    Set<String> words = new LinkedHashSet<>();
+    if (text == null) {
+      return words;
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    for (String word : NON_WORD.split(folded)) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+
+  /** Grams a query term must have: its word-start prefix if short, otherwise its trigrams. */
+  private static List<String> queryGrams(String term) {
+    if (term.length() < 3) {
+      return List.of(WORD_START + term);
+    }
+    List<String> grams = new ArrayList<>(term.length() - 2);
+    for (int i = 0; i + 3 <= term.length(); i++) {
+      grams.add(term.substring(i, i + 3));
+    }
+    return grams;
+  }
+
+  private static void indexGrams(String word, Set<String> grams) {
+    grams.add(WORD_START + word.substring(0, 1));
+    if (word.length() >= 2) {
+      grams.add(WORD_START + word.substring(0, 2));
+    }
+    for (int i = 0; i + 3 <= word.length(); i++) {
+      grams.add(word.substring(i, i + 3));
+    }
+  }
+
+  /** Growable sorted list of document numbers. */
+  private static final class Postings {
+
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+      }
+      docs[size++] = doc;
+    }
+
+    boolean contains(int doc) {
+      return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+  }
+
+  /** One indexed employee, with the original fields for results and normalised words for scoring. */
+  private static final class Doc {
+
+    final long employeeId;
+    final String firstName;
+    final String lastName;
+    final String address;
+    final String[] nameWords;
+    final String[] addressWords;
+
+    Doc(long employeeId, String firstName, String lastName, String address) {
+      this.employeeId = employeeId;
+      this.firstName = firstName;
+      this.lastName = lastName;
+      this.address = address;
+      Set<String> names = words(firstName);
+      names.addAll(words(lastName));
+      this.nameWords = names.toArray(new String[0]);
+      this.addressWords = words(address).toArray(new String[0]);
+    }
+
+    /** Sum of the best score of each term, or 0 if any term does not match. */
+    int score(String[] terms) {
+      int total = 0;
+      for (String term : terms) {
+        int best = Math.max(match(nameWords, term, NAME_WORD, NAME_PREFIX, NAME_INFIX),
+            match(addressWords, term, ADDRESS_WORD, ADDRESS_PREFIX, ADDRESS_INFIX));
+        if (best == 0) {
+          return 0;
+        }
+        total += best;
+      }
+      return total;
+    }
+
+    private static int match(String[] words, String term, int whole, int prefix, int infix) {
+      int best = 0;
+      for (String word : words) {
+        if (word.equals(term)) {
+          return whole;
+        }
+        if (word.startsWith(term)) {
+          best = Math.max(best, prefix);
+        } else if (term.length() >= 3 && word.contains(term)) {
+          best = Math.max(best, infix);
+        }
+      }
+      return best;
+    }
+  }
+
+  /** Documents and postings; only touched under the index lock once published. */
+  private static final class Documents {
+
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> docByEmployee = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int retired;
+
+    int live() {
+      return docByEmployee.size();
+    }
+
+    void add(Long employeeId, String firstName, String lastName, String address) {
+      int number = docs.size();
+      Doc doc = new Doc(employeeId, firstName, lastName, address);
+      docs.add(doc);
+      docByEmployee.put(employeeId, number);
+      Set<String> grams = new LinkedHashSet<>();
+      for (String word : doc.nameWords) {
+        indexGrams(word, grams);
+      }
+      for (String word : doc.addressWords) {
+        indexGrams(word, grams);
+      }
+      for (String gram : grams) {
+        postings.computeIfAbsent(gram, key -> new Postings()).add(number);
+      }
+    }
+
+    void remove(Long employeeId) {
+      Integer number = docByEmployee.remove(employeeId);
+      if (number != null) {
+        docs.set(number, null);
+        retired++;
+      }
+    }
+
+    /** Documents holding every gram of every term, in document order. */
+    int[] candidates(String[] terms) {
+      List<Postings> lists = new ArrayList<>();
+      for (String term : terms) {
+        for (String gram : queryGrams(term)) {
+          Postings list = postings.get(gram);
+          if (list == null) {
+            return new int[0];
+          }
+          lists.add(list);
+        }
+      }
+      lists.sort(Comparator.comparingInt(list -> list.size));
+      Postings smallest = lists.get(0);
+      int[] result = Arrays.copyOf(smallest.docs, smallest.size);
+      int size = result.length;
+      for (int i = 1; i < lists.size() && size > 0; i++) {
+        Postings list = lists.get(i);
+        int kept = 0;
+        for (int j = 0; j < size; j++) {
+          if (list.contains(result[j])) {
+            result[kept++] = result[j];
+          }
+        }
+        size = kept;
+      }
+      return Arrays.copyOf(result, size);
+    }
+
+    /** A copy holding only the live documents, renumbered. */
+    Documents compact() {
+      Documents compacted = new Documents();
+      for (Doc doc : docs) {
+        if (doc != null) {
+          compacted.add(doc.employeeId, doc.firstName, doc.lastName, doc.address);
+        }
+      }
+      return compacted;
+    }
+  }
+}
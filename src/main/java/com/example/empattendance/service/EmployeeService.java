@@ -1,10 +1,22 @@
 package com.example.empattendance.service;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.empattendance.dto.CursorPage;
+import com.example.empattendance.dto.EmployeeSearchHit;
 import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
 import com.example.empattendance.repository.EmployeeRepository;
+import com.example.empattendance.repository.EmployeeSpecifications;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +27,21 @@ public class EmployeeService {
   @Autowired 
   private EmployeeRepository employeeRepository;
 
+  @Autowired
+  private EmployeeIdIndex employeeIdIndex;
+
+  @Autowired
+  private EmployeeSearchIndex employeeSearchIndex;
+
+  @Autowired
+  private AttendanceCalendarIndex attendanceCalendarIndex;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   /**
    * Get all employees.
    *
@@ -24,14 +51,71 @@ public class EmployeeService {
     return employeeRepository.findAllWithDepartments();
   }
 
+  /**
+   * Get a page of employees in ID order.
+   *
+   * @param after cursor returned with the previous page, or null for the first page
+   * @param limit maximum number of employees to return
+   * @return CursorPage of employees
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<Employee> getEmployeesPage(Long after, int limit) {
+    List<Employee> rows = employeeRepository.findPageWithDepartments(after != null ? after : 0L, PageRequest.of(0, limit + 1));
+    return CursorPage.of(withDepartments(rows), limit, Employee::getId);
+  }
+
+  /**
+   * Get a page of the employees matching a set of filters, in ID order.
+   *
+   * @param departmentId ID of the department, or null for any
+   * @param type employment type, or null for any
+   * @param gender gender, or null for any
+   * @param after cursor returned with the previous page, or null for the first page
+   * @param limit maximum number of employees to return
+   * @return CursorPage of employees
+   */
+  public CursorPage<Employee> getEmployeesPage(Long departmentId, EmployeeType type, Gender gender, Long after, int limit) {
+    Specification<Employee> filter = EmployeeSpecifications.matching(departmentId, type, gender)
+        .and(EmployeeSpecifications.pageAfter(after != null ? after : 0L));
+    List<Employee> rows = employeeRepository.findBy(filter, query -> query.sortBy(Sort.by("id")).limit(limit + 1).all());
+    return CursorPage.of(rows, limit, Employee::getId);
+  }
+
+  /**
+   * Count the employees matching a set of filters.
+   *
+   * @param departmentId ID of the department, or null for any
+   * @param type employment type, or null for any
+   * @param gender gender, or null for any
+   * @return number of matching employees
+   */
+  public long countEmployees(Long departmentId, EmployeeType type, Gender gender) {
+    return employeeRepository.count(EmployeeSpecifications.matching(departmentId, type, gender));
+  }
+
+  /**
+   * Search employees by name and address.
+   *
+   * @param query words to look for
+   * @param limit maximum number of results
+   * @return best matches first
+   */
+  public List<EmployeeSearchHit> searchEmployees(String query, int limit) {
+    return employeeSearchIndex.search(query, limit);
+  }
+
   /**
    * Get employee by ID.
    *
    * @param id ID of the employee to be retrieved
    * @return Employee with the specified ID
    */
+  @Transactional(readOnly = true)
   public Optional<Employee> getEmployeeById(Long id) {
-    return employeeRepository.findById(id);
+    // Both lookups are answered by the second-level cache once it is warm
+    Optional<Employee> employee = employeeRepository.findById(id);
+    employee.ifPresent(found -> Hibernate.initialize(found.getDepartment()));
+    return employee;
   }
 
   /**
@@ -41,19 +125,35 @@ public class EmployeeService {
    * @return Saved employee
    */
   public Employee saveEmployee(Employee employee) {
-    return employeeRepository.save(employee);
+    Employee savedEmployee = employeeRepository.save(employee);
+    employeeIdIndex.add(savedEmployee.getId());
+    employeeSearchIndex.update(savedEmployee);
+    return savedEmployee;
   }
 
   /**
-   * Delete an employee.
+   * Delete an employee with their attendance records.
    *
    * @param id ID of the employee to be updated
    */
   public void deleteEmployee(Long id) {
-    employeeRepository.deleteById(id);
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      attendanceService.deleteEmployeeRecords(id);
+      employeeRepository.deleteById(id);
+    });
+    employeeIdIndex.remove(id);
+    employeeSearchIndex.remove(id);
+    attendanceCalendarIndex.removeEmployee(id);
   }
 
-  public List<Employee> getEmployeesByDepartmentId(Long departmentId) {
-    return employeeRepository.findByDepartmentId(departmentId);
+  /**
+   * Initialize the departments of employees served from the query cache, which caches only their IDs.
+   *
+   * @param employees employees to prepare for serialization
+   * @return the same list
+   */
+  static List<Employee> withDepartments(List<Employee> employees) {
+    employees.forEach(employee -> Hibernate.initialize(employee.getDepartment()));
+    return employees;
   }
 }
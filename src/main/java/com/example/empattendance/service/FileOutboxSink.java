@@ -0,0 +1,40 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.empattendance.model.OutboxEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/** Appends relayed events to a local NDJSON file; a stand-in for a real downstream system. */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${outbox.sink.file:attendance-outbox.ndjson}")
+  private Path file;
+
+  @Override
+  public synchronized void publish(List<OutboxEvent> events) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      for (OutboxEvent event : events) {
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.newLine();
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.empattendance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.example.empattendance.model.OutboxEvent;
+
+import java.util.List;
+
+/** Posts each relayed batch as a JSON array to {@code outbox.sink.url}. */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+  private final RestClient restClient;
+
+  public HttpOutboxSink(RestClient.Builder builder, @Value("${outbox.sink.url}") String url) {
+    this.restClient = builder.baseUrl(url).build();
+  }
+
+  @Override
+  public void publish(List<OutboxEvent> events) {
+    restClient.post()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(events)
+        .retrieve()
+        .toBodilessEntity();
+  }
+}
@@ -0,0 +1,235 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.example.empattendance.dto.CustomApiResponse;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the response of a request that carried an {@code Idempotency-Key} header already seen
+ * for the same endpoint. Responses are held in a striped, size- and TTL-bounded in-memory cache;
+ * concurrent requests with one key wait up to {@code idempotency.wait-timeout} for the first to
+ * finish instead of running again. A key is bound to a hash of the request body it first came
+ * with; reusing it with a different body is refused with 422. When an
+ * {@link IdempotentResponseStore} is configured it is consulted on a local miss.
+ */
+@Service
+public class IdempotencyService {
+
+  @Autowired
+  private ObjectProvider<IdempotentResponseStore> storeProvider;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${idempotency.ttl:PT24H}")
+  private Duration ttl;
+
+  @Value("${idempotency.max-entries:100000}")
+  private int maxEntries;
+
+  @Value("${idempotency.stripes:64}")
+  private int stripeCount;
+
+  @Value("${idempotency.wait-timeout:PT10S}")
+  private Duration waitTimeout;
+
+  private Stripe[] stripes;
+  private IdempotentResponseStore store;
+  private Counter hits;
+  private Counter misses;
+
+  @PostConstruct
+  void init() {
+    int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+    int perStripe = Math.max(1, maxEntries / count);
+    stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe(perStripe);
+    }
+    store = storeProvider.getIfAvailable();
+    hits = Counter.builder("idempotency.requests").tag("result", "hit")
+        .description("Keyed requests answered from a stored response")
+        .register(meterRegistry);
+    misses = Counter.builder("idempotency.requests").tag("result", "miss")
+        .description("Keyed requests that had to be executed")
+        .register(meterRegistry);
+    Gauge.builder("idempotency.cache.size", this, s -> Arrays.stream(s.stripes).mapToInt(Stripe::size).sum())
+        .register(meterRegistry);
+  }
+
+  /**
+   * Run an action at most once per key.
+   *
+   * @param scope endpoint the key belongs to
+   * @param key client supplied idempotency key, or null to always run the action
+   * @param request request body the key is bound to
+   * @param action produces the response
+   * @return the response of the first request with this key, HttpStatus.UNPROCESSABLE_ENTITY if the
+   * key was first used with a different body, or HttpStatus.CONFLICT if the first request is still
+   * running after the wait timeout
+   */
+  public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+    if (key == null || key.isBlank()) {
+      return action.get();
+    }
+    String scopedKey = scope + ":" + key;
+    String requestHash = hash(request);
+    Stripe stripe = stripes[spread(scopedKey.hashCode()) & (stripes.length - 1)];
+
+    CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+    Entry existing = stripe.putIfAbsent(scopedKey, result, requestHash, ttl.toMillis());
+    if (existing != null) {
+      if (!existing.requestHash.equals(requestHash)) {
+        return keyReused();
+      }
+      hits.increment();
+      return await(existing.result);
+    }
+
+    try {
+      Optional<IdempotentResponse> stored = store != null ? store.find(scopedKey) : Optional.empty();
+      if (stored.isPresent()) {
+        if (!stored.get().getRequestHash().equals(requestHash)) {
+          stripe.remove(scopedKey, result);
+          result.complete(keyReused());
+          return keyReused();
+        }
+        hits.increment();
+        result.complete(stored.get().getResponse());
+        return stored.get().getResponse();
+      }
+      misses.increment();
+      ResponseEntity<?> response = action.get();
+      if (!isReplayable(response)) {
+        stripe.remove(scopedKey, result);
+      } else if (store != null) {
+        store.save(scopedKey, requestHash, response);
+      }
+      result.complete(response);
+      return response;
+    } catch (RuntimeException e) {
+      stripe.remove(scopedKey, result);
+      result.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /** Server errors and throttling are transient, so a retry should run again. */
+  private static boolean isReplayable(ResponseEntity<?> response) {
+    return !response.getStatusCode().is5xxServerError()
+        && response.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+  }
+
+  private ResponseEntity<?> await(CompletableFuture<ResponseEntity<?>> future) {
+    try {
+      return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      return new ResponseEntity<>(new CustomApiResponse(false, "A request with this Idempotency-Key is still in progress, retry shortly."), HttpStatus.CONFLICT);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a request with the same Idempotency-Key", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static ResponseEntity<?> keyReused() {
+    return new ResponseEntity<>(new CustomApiResponse(false, "Idempotency-Key was already used with a different request body."), HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  private String hash(Object request) {
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(request);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Could not hash request body", e);
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /** One lock-protected, insertion-ordered segment of the cache. */
+  private static final class Stripe {
+
+    private final Map<String, Entry> entries;
+
+    Stripe(int capacity) {
+      this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          return size() > capacity;
+        }
+      };
+    }
+
+    synchronized Entry putIfAbsent(
+        String key, CompletableFuture<ResponseEntity<?>> result, String requestHash, long ttlMillis) {
+      long now = System.currentTimeMillis();
+      Entry entry = entries.get(key);
+      if (entry != null && entry.expiresAt > now) {
+        return entry;
+      }
+      // Re-insert so the refreshed entry moves to the young end of the eviction order
+      entries.remove(key);
+      entries.put(key, new Entry(result, requestHash, now + ttlMillis));
+      return null;
+    }
+
+    synchronized void remove(String key, CompletableFuture<ResponseEntity<?>> result) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.result == result) {
+        entries.remove(key);
+      }
+    }
+
+    synchronized int size() {
+      return entries.size();
+    }
+  }
+
+  private static final class Entry {
+
+    private final CompletableFuture<ResponseEntity<?>> result;
+    private final String requestHash;
+    private final long expiresAt;
+
+    Entry(CompletableFuture<ResponseEntity<?>> result, String requestHash, long expiresAt) {
+      this.result = result;
+      this.requestHash = requestHash;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.empattendance.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+/** A completed response together with the hash of the request body that produced it. */
+@Getter
+@AllArgsConstructor
+public class IdempotentResponse {
+
+  private final String requestHash;
+
+  private final ResponseEntity<?> response;
+}
@@ -0,0 +1,20 @@
+package com.example.empattendance.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+/** Second-level store for completed idempotent responses, shared between application nodes. */
+public interface IdempotentResponseStore {
+
+  Optional<IdempotentResponse> find(String key);
+
+  /**
+   * Store a response unless one is already stored for the key; the first response stored wins.
+   *
+   * @param key scoped idempotency key
+   * @param requestHash hash of the request body the response belongs to
+   * @param response response to replay
+   */
+  void save(String key, String requestHash, ResponseEntity<?> response);
+}
@@ -0,0 +1,58 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.empattendance.model.IdempotencyRecord;
+import com.example.empattendance.repository.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/** Keeps completed responses in idempotency_keys as JSON so retries landing on any node are answered. */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "jdbc")
+public class JpaIdempotentResponseStore implements IdempotentResponseStore {
+
+  @Autowired
+  private IdempotencyRecordRepository repository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${idempotency.ttl:PT24H}")
+  private Duration ttl;
+
+  @Override
+  public Optional<IdempotentResponse> find(String key) {
+    return repository.findById(key)
+        .filter(stored -> stored.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+        .map(stored -> new IdempotentResponse(stored.getRequestHash(), ResponseEntity.status(stored.getStatus())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(stored.getBody())));
+  }
+
+  @Override
+  public void save(String key, String requestHash, ResponseEntity<?> response) {
+    try {
+      String body = objectMapper.writeValueAsString(response.getBody());
+      repository.insert(new IdempotencyRecord(key, requestHash, response.getStatusCode().value(), body, Instant.now()));
+    } catch (JsonProcessingException | DataIntegrityViolationException e) {
+      // Another node stored the same key first, or the body cannot be stored; the local cache still has it
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+  public void deleteExpired() {
+    repository.deleteCreatedBefore(Instant.now().minus(ttl));
+  }
+}
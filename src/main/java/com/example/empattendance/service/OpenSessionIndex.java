@@ -0,0 +1,104 @@
+package com.example.empattendance.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.AttendanceFact;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Employees currently signed in but not yet signed out, mapped to their open attendance record.
+ * Rebuilt at startup and updated after every committed attendance write, it lets a kiosk sign an
+ * employee out by employee id and answers "who is on site" without a query.
+ */
+@Component
+public class OpenSessionIndex {
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  /** Sessions opened before this many days ago are treated as forgotten sign-outs. */
+  @Value("${attendance.open-sessions.max-age-days:1}")
+  private int maxAgeDays;
+
+  private final Map<Long, OpenSession> sessions = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    sessions.clear();
+    for (AttendanceFact fact : attendanceRepository.findOpenSessionsSince(oldestOpenDate())) {
+      sessions.merge(fact.getEmployeeId(), new OpenSession(fact.getRecordId(), fact.getDateOfAtt()), OpenSession::latest);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAttendanceRegistered(AttendanceRegisteredEvent event) {
+    Long employeeId = event.getEmployeeId();
+    for (AttendanceRecord record : event.getAttendances()) {
+      if (record.getType() == AttendanceType.PRESENT && record.getSignInTime() != null && record.getSignOutTime() == null) {
+        sessions.merge(employeeId, new OpenSession(record.getId(), record.getDateOfAtt()), OpenSession::latest);
+      } else {
+        sessions.computeIfPresent(employeeId, (id, open) -> open.recordId.equals(record.getId()) ? null : open);
+      }
+    }
+  }
+
+  /**
+   * Find the record an employee is currently signed in on.
+   *
+   * @param employeeId ID of the employee
+   * @return the open record ID, or null if the employee is not signed in
+   */
+  public Long findOpenRecordId(Long employeeId) {
+    OpenSession open = sessions.get(employeeId);
+    return open != null ? open.recordId : null;
+  }
+
+  /**
+   * Count employees who have signed in and not yet signed out.
+   *
+   * @return number of employees on site
+   */
+  public int countOnSite() {
+    return sessions.size();
+  }
+
+  /** Forget sessions that were never signed out. */
+  @Scheduled(cron = "${attendance.open-sessions.prune-cron:0 0 4 * * *}")
+  public void pruneStale() {
+    LocalDate oldest = oldestOpenDate();
+    sessions.values().removeIf(open -> open.date.isBefore(oldest));
+  }
+
+  private LocalDate oldestOpenDate() {
+    return LocalDate.now().minusDays(maxAgeDays);
+  }
+
+  private static final class OpenSession {
+
+    private final Long recordId;
+    private final LocalDate date;
+
+    OpenSession(Long recordId, LocalDate date) {
+      this.recordId = recordId;
+      this.date = date;
+    }
+
+    static OpenSession latest(OpenSession a, OpenSession b) {
+      return b.date.isBefore(a.date) ? a : b;
+    }
+  }
+}
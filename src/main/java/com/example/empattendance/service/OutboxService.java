@@ -0,0 +1,245 @@
+package com.example.empattendance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.OutboxEvent;
+import com.example.empattendance.model.OutboxRelayPartition;
+import com.example.empattendance.repository.OutboxRelayPartitionRepository;
+import com.example.empattendance.repository.OutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for attendance changes. Every {@link AttendanceRegisteredEvent} and
+ * {@link AttendanceBulkInsertedEvent} is stored in attendance_outbox just before the publishing
+ * transaction commits, one row per record, so the change and its event are written or lost
+ * together. A scheduled relay then drains the table in batches to the
+ * configured {@link OutboxSink}.
+ *
+ * <p>Each employee's events are numbered in commit order and hashed into one of
+ * {@code outbox.relay.partitions} partitions. A relay locks a whole partition before reading a
+ * batch from it, so relays on several nodes can run at once while every employee's events are
+ * still delivered in order. All nodes must use the same partition count. Batches are read in id
+ * order, so the oldest events of a partition always go first.
+ */
+@Service
+public class OutboxService {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+  private static final String OUTBOX_ID_EXTRA =
+      "SELECT EXTRA FROM information_schema.COLUMNS "
+          + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance_outbox' AND COLUMN_NAME = 'id'";
+
+  @Autowired
+  private OutboxRepository outboxRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private OutboxRelayPartitionRepository partitionRepository;
+
+  @Autowired
+  private OutboxSink sink;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${outbox.relay.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${outbox.relay.max-batches-per-run:50}")
+  private int maxBatchesPerRun;
+
+  @Value("${outbox.relay.partitions:16}")
+  private int partitions;
+
+  private TransactionTemplate transactionTemplate;
+  private final AtomicLong lagMillis = new AtomicLong();
+  private Counter published;
+  private Timer batchTimer;
+
+  @PostConstruct
+  void init() {
+    useAutoIncrementIds();
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    Gauge.builder("outbox.relay.lag", lagMillis, AtomicLong::get)
+        .description("Age in milliseconds of the oldest pending event in the last relayed partition")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    published = Counter.builder("outbox.relay.published")
+        .description("Attendance events delivered to the outbox sink")
+        .register(meterRegistry);
+    batchTimer = Timer.builder("outbox.relay.batch")
+        .description("Time taken to publish and clear one outbox batch")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Outbox ids used to come from a pooled sequence, and a schema update does not turn an existing
+   * id column into an auto-increment one. Existing rows keep their ids and new ones start above
+   * them.
+   */
+  private void useAutoIncrementIds() {
+    String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+    if (!"MySQL".equals(database)) {
+      return;
+    }
+    String extra = jdbcTemplate.queryForObject(OUTBOX_ID_EXTRA, String.class);
+    if (extra == null || !extra.toLowerCase().contains("auto_increment")) {
+      jdbcTemplate.execute("ALTER TABLE attendance_outbox MODIFY id BIGINT NOT NULL AUTO_INCREMENT");
+      log.info("Switched attendance_outbox ids to auto-increment");
+    }
+  }
+
+  /** Create any relay partitions that do not exist yet. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void createPartitions() {
+    transactionTemplate.executeWithoutResult(status -> partitionRepository.saveAll(IntStream.range(0, partitions)
+        .filter(id -> !partitionRepository.existsById(id))
+        .mapToObj(id -> new OutboxRelayPartition(id, null))
+        .toList()));
+  }
+
+  /**
+   * Store the event in the outbox as part of the transaction that produced it.
+   *
+   * @param event attendance event being published
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void append(AttendanceRegisteredEvent event) {
+    // One outbox row per record, so consumers see the same messages however the records were written
+    List<OutboxEvent> outboxEvents = new ArrayList<>(event.getAttendances().size());
+    Instant now = Instant.now();
+    int relayPartition = Math.floorMod(event.getEmployeeId(), partitions);
+    long seq = outboxRepository.reserveSequence(event.getEmployeeId(), event.getAttendances().size())
+        - event.getAttendances().size();
+    for (AttendanceRecord record : event.getAttendances()) {
+      OutboxEvent outboxEvent = new OutboxEvent();
+      outboxEvent.setRecordId(record.getId());
+      outboxEvent.setEmployeeId(event.getEmployeeId());
+      outboxEvent.setEmployeeSeq(++seq);
+      outboxEvent.setRelayPartition(relayPartition);
+      outboxEvent.setDateOfAtt(record.getDateOfAtt());
+      outboxEvent.setType(record.getType());
+      outboxEvent.setSignInTime(record.getSignInTime());
+      outboxEvent.setSignOutTime(record.getSignOutTime());
+      outboxEvent.setNotes(record.getNotes());
+      outboxEvent.setCreatedAt(now);
+      outboxEvents.add(outboxEvent);
+    }
+    outboxRepository.insertAll(outboxEvents);
+  }
+
+  /**
+   * Store a bulk insert in the outbox as part of its transaction: one batch to number the
+   * events, one read of the numbers and one batch of rows, whatever the number of employees.
+   *
+   * @param event records inserted by one statement
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void append(AttendanceBulkInsertedEvent event) {
+    long[] employeeIds = new long[event.size()];
+    for (int i = 0; i < event.size(); i++) {
+      employeeIds[i] = event.getEmployeeId(i);
+    }
+    Map<Long, Long> seqs = outboxRepository.reserveSequences(employeeIds);
+    List<OutboxEvent> outboxEvents = new ArrayList<>(event.size());
+    Instant now = Instant.now();
+    for (int i = 0; i < event.size(); i++) {
+      OutboxEvent outboxEvent = new OutboxEvent();
+      outboxEvent.setRecordId(event.getRecordId(i));
+      outboxEvent.setEmployeeId(employeeIds[i]);
+      outboxEvent.setEmployeeSeq(seqs.get(employeeIds[i]));
+      outboxEvent.setRelayPartition(Math.floorMod(employeeIds[i], partitions));
+      outboxEvent.setDateOfAtt(event.getDate());
+      outboxEvent.setType(event.getType());
+      outboxEvent.setNotes(event.getNotes());
+      outboxEvent.setCreatedAt(now);
+      outboxEvents.add(outboxEvent);
+    }
+    outboxRepository.insertAll(outboxEvents);
+  }
+
+  /** Relay pending events until the outbox is empty or the per-run limit is reached. */
+  @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+  public void relay() {
+    for (int i = 0; i < maxBatchesPerRun; i++) {
+      Integer relayed;
+      try {
+        relayed = transactionTemplate.execute(status -> relayBatch());
+      } catch (RuntimeException e) {
+        log.warn("Outbox relay failed, the batch will be retried", e);
+        return;
+      }
+      if (relayed == null || relayed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Claim a pending partition and relay one batch from it.
+   *
+   * @return events relayed, 0 if no partition with events was free
+   */
+  private int relayBatch() {
+    List<OutboxRelayPartition> claimed = partitionRepository.claimPending(PageRequest.of(0, 1));
+    if (claimed.isEmpty()) {
+      lagMillis.set(0);
+      return 0;
+    }
+    OutboxRelayPartition partition = claimed.get(0);
+    List<OutboxEvent> batch = outboxRepository.findNextBatch(partition.getId(), PageRequest.of(0, batchSize));
+    // Move the partition to the back of the queue so other partitions are relayed before it again
+    partition.setLastRelayedAt(Instant.now());
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    Instant oldest = outboxRepository.findOldestCreatedAt(partition.getId());
+    lagMillis.set(Duration.between(oldest, Instant.now()).toMillis());
+
+    batchTimer.record(() -> {
+      try {
+        sink.publish(batch);
+      } catch (Exception e) {
+        throw new IllegalStateException("Outbox sink rejected batch of " + batch.size() + " events", e);
+      }
+      outboxRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+    });
+    published.increment(batch.size());
+    return batch.size();
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.empattendance.service;
+
+import com.example.empattendance.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for relayed attendance events. Delivery is at-least-once: a batch is retried if
+ * publishing or the following delete fails, so consumers should de-duplicate on the event id.
+ */
+public interface OutboxSink {
+
+  /**
+   * Publish a batch. Events for the same employee appear in the order they were committed, within
+   * the batch and across batches, and carry increasing {@code employeeSeq} numbers.
+   *
+   * @param events events to publish
+   * @throws Exception if the batch could not be delivered; it will be retried
+   */
+  void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,101 @@
+package com.example.empattendance.service;
+
+import com.example.empattendance.dto.PayrollSummary;
+import com.example.empattendance.model.AttendanceType;
+
+import java.time.YearMonth;
+import java.util.BitSet;
+
+/**
+ * Running payroll counters for one employee in one pay period. The type and minutes of every day
+ * are kept alongside the totals, so a day that changes type (a sign-in overwritten by sick leave,
+ * say) is taken out of its old counter before being added to the new one. Days written since
+ * {@link #startReconcile} are remembered, so reconciliation only corrects days no event has
+ * touched while it was reading the table.
+ */
+class PayrollAccumulator {
+
+  private static final byte NONE = 0;
+
+  /** Per day of month: 0 for no record, otherwise the AttendanceType ordinal plus one. */
+  private final byte[] dayTypes = new byte[31];
+  private final int[] dayMinutes = new int[31];
+
+  /** Days applied since the last {@link #startReconcile}. */
+  private final BitSet touched = new BitSet(31);
+
+  private int daysPresent;
+  private int sickDays;
+  private int absences;
+  private long minutesWorked;
+
+  /**
+   * Record the current state of one day.
+   *
+   * @param dayOfMonth day of the month, starting at 1
+   * @param type attendance type of the day's record
+   * @param minutes minutes worked that day, 0 if not signed out
+   */
+  synchronized void apply(int dayOfMonth, AttendanceType type, int minutes) {
+    int day = dayOfMonth - 1;
+    byte previous = dayTypes[day];
+    byte next = (byte) (type.ordinal() + 1);
+    // A sign-in delivered after its own sign-out must not undo it
+    if (previous == next && type == AttendanceType.PRESENT && minutes == 0 && dayMinutes[day] > 0) {
+      return;
+    }
+    set(day, next, minutes);
+    touched.set(day);
+  }
+
+  private void set(int day, byte type, int minutes) {
+    byte previous = dayTypes[day];
+    if (previous != NONE) {
+      count(AttendanceType.values()[previous - 1], -1);
+      minutesWorked -= dayMinutes[day];
+    }
+    dayTypes[day] = type;
+    dayMinutes[day] = minutes;
+    if (type != NONE) {
+      count(AttendanceType.values()[type - 1], 1);
+      minutesWorked += minutes;
+    }
+  }
+
+  private void count(AttendanceType type, int delta) {
+    switch (type) {
+      case PRESENT -> daysPresent += delta;
+      case SICK_LEAVE -> sickDays += delta;
+      case ABSENT -> absences += delta;
+    }
+  }
+
+  synchronized PayrollSummary snapshot(Long employeeId, YearMonth period) {
+    return new PayrollSummary(employeeId, period, daysPresent, sickDays, absences, minutesWorked);
+  }
+
+  /** Forget which days have been written, before reading the period back from the table. */
+  synchronized void startReconcile() {
+    touched.clear();
+  }
+
+  /**
+   * Copy every day not written since {@link #startReconcile} from counters rebuilt from the table.
+   *
+   * @param expected counters rebuilt from the table
+   * @return true if any day had to be corrected
+   */
+  synchronized boolean reconcile(PayrollAccumulator expected) {
+    synchronized (expected) {
+      boolean corrected = false;
+      for (int day = 0; day < dayTypes.length; day++) {
+        if (!touched.get(day)
+            && (dayTypes[day] != expected.dayTypes[day] || dayMinutes[day] != expected.dayMinutes[day])) {
+          set(day, expected.dayTypes[day], expected.dayMinutes[day]);
+          corrected = true;
+        }
+      }
+      return corrected;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.example.empattendance.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.empattendance.dto.PayrollSummary;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.AttendanceFact;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-employee, per-month payroll counters maintained from attendance events. Reads of the retained
+ * months never touch attendancerecords; a scheduled reconciliation recomputes them from the table
+ * and corrects any counter that has drifted, leaving alone days that events wrote while it ran.
+ * Months outside the retained window are computed on request from the archive and the table.
+ */
+@Service
+public class PayrollService {
+
+  private static final Logger log = LoggerFactory.getLogger(PayrollService.class);
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Value("${payroll.retained-periods:3}")
+  private int retainedPeriods;
+
+  private final Map<Long, Map<YearMonth, PayrollAccumulator>> counters = new ConcurrentHashMap<>();
+
+  /** Oldest month held in memory; null until the first reconciliation has loaded the counters. */
+  private volatile YearMonth oldestTracked;
+
+  /**
+   * Apply the current state of an attendance record to its employee's counters.
+   *
+   * @param employeeId ID of the employee
+   * @param date date of the record
+   * @param type attendance type of the record
+   * @param signInTime sign in time, if any
+   * @param signOutTime sign out time, if any
+   */
+  public void record(Long employeeId, LocalDate date, AttendanceType type, LocalTime signInTime, LocalTime signOutTime) {
+    counters.computeIfAbsent(employeeId, id -> new ConcurrentHashMap<>())
+        .computeIfAbsent(YearMonth.from(date), period -> new PayrollAccumulator())
+        .apply(date.getDayOfMonth(), type, AttendanceRecord.minutesBetween(signInTime, signOutTime));
+  }
+
+  /**
+   * Get payroll counters for an employee.
+   *
+   * @param employeeId ID of the employee
+   * @param period pay period (calendar month)
+   * @return PayrollSummary, all zero if nothing was recorded
+   */
+  public PayrollSummary getSummary(Long employeeId, YearMonth period) {
+    if (!isTracked(period)) {
+      return load(employeeId, period).snapshot(employeeId, period);
+    }
+    PayrollAccumulator accumulator = counters.getOrDefault(employeeId, Map.of()).get(period);
+    return accumulator != null
+        ? accumulator.snapshot(employeeId, period)
+        : new PayrollSummary(employeeId, period, 0, 0, 0, 0);
+  }
+
+  private boolean isTracked(YearMonth period) {
+    YearMonth oldest = oldestTracked;
+    return oldest != null && !period.isBefore(oldest) && !period.isAfter(YearMonth.now());
+  }
+
+  private PayrollAccumulator load(Long employeeId, YearMonth period) {
+    PayrollAccumulator accumulator = new PayrollAccumulator();
+    // Archived first, so a day still in attendancerecords overrides its archived copy
+    for (AttendanceRecord record : attendanceArchiveService.findRecords(employeeId, period.atDay(1), period.atEndOfMonth())) {
+      accumulator.apply(record.getDateOfAtt().getDayOfMonth(), record.getType(), record.workedMinutes());
+    }
+    for (AttendanceFact fact : attendanceRepository.findFactsByEmployeeIdBetween(employeeId, period.atDay(1), period.atEndOfMonth())) {
+      accumulator.apply(fact.getDateOfAtt().getDayOfMonth(), fact.getType(),
+          AttendanceRecord.minutesBetween(fact.getSignInTime(), fact.getSignOutTime()));
+    }
+    return accumulator;
+  }
+
+  /** Build the counters once the data initializer has run. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    reconcile();
+  }
+
+  /**
+   * Recompute the retained pay periods from attendancerecords, replace any counter that differs
+   * and drop periods that have fallen out of the window.
+   *
+   * @return number of counters that had to be corrected
+   */
+  @Scheduled(cron = "${payroll.reconcile.cron:0 30 2 * * *}")
+  public int reconcile() {
+    YearMonth oldest = YearMonth.now().minusMonths(retainedPeriods - 1L);
+    int corrected = 0;
+    for (YearMonth period = oldest; !period.isAfter(YearMonth.now()); period = period.plusMonths(1)) {
+      corrected += reconcile(period);
+    }
+    oldestTracked = oldest;
+    for (Map<YearMonth, PayrollAccumulator> periods : counters.values()) {
+      periods.keySet().removeIf(period -> period.isBefore(oldest));
+    }
+    counters.values().removeIf(Map::isEmpty);
+    if (corrected > 0) {
+      log.info("Payroll reconciliation corrected {} counters", corrected);
+    }
+    return corrected;
+  }
+
+  private int reconcile(YearMonth period) {
+    // Days written from here on are newer than the table read below and must not be overwritten
+    counters.values().forEach(periods -> {
+      PayrollAccumulator accumulator = periods.get(period);
+      if (accumulator != null) {
+        accumulator.startReconcile();
+      }
+    });
+
+    Map<Long, PayrollAccumulator> expected = new HashMap<>();
+    for (AttendanceFact fact : attendanceRepository.findFactsBetween(period.atDay(1), period.atEndOfMonth())) {
+      expected.computeIfAbsent(fact.getEmployeeId(), id -> new PayrollAccumulator())
+          .apply(fact.getDateOfAtt().getDayOfMonth(), fact.getType(),
+              AttendanceRecord.minutesBetween(fact.getSignInTime(), fact.getSignOutTime()));
+    }
+
+    Set<Long> employeeIds = new HashSet<>(expected.keySet());
+    counters.forEach((employeeId, periods) -> {
+      if (periods.containsKey(period)) {
+        employeeIds.add(employeeId);
+      }
+    });
+
+    int corrected = 0;
+    for (Long employeeId : employeeIds) {
+      // Correct the live accumulator in place, so events applied to it meanwhile are kept
+      PayrollAccumulator actual = counters.computeIfAbsent(employeeId, id -> new ConcurrentHashMap<>())
+          .computeIfAbsent(period, p -> new PayrollAccumulator());
+      if (actual.reconcile(expected.getOrDefault(employeeId, new PayrollAccumulator()))) {
+        corrected++;
+      }
+    }
+    return corrected;
+  }
+}
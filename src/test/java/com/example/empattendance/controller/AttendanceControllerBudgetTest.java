@@ -0,0 +1,91 @@
+package com.example.empattendance.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.empattendance.config.SqlStatementCountFilter;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.time.LocalDate;
+
+import static com.example.empattendance.controller.SqlStatementBudgets.authenticated;
+import static com.example.empattendance.controller.SqlStatementBudgets.withinSqlStatementBudget;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Daily-summary rebuild is left out: its INSERT ... SELECT uses MySQL time functions H2 lacks.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AttendanceControllerBudgetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void signInAndOutStayWithinBudget() throws Exception {
+    Employee employee = employeeRepository.findAll().get(0);
+
+    String signedIn = mockMvc.perform(post("/api/attendances/sign-in").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"employeeId\":" + employee.getId() + ",\"notes\":\"on time\"}").with(authenticated()))
+        .andExpect(status().isCreated()).andExpect(withinSqlStatementBudget())
+        .andReturn().getResponse().getContentAsString();
+    long recordId = objectMapper.readTree(signedIn).get("dataObject").get("id").asLong();
+
+    String count = mockMvc.perform(put("/api/attendances/sign-out/{recordId}", recordId).contentType(MediaType.APPLICATION_JSON)
+            .content("{\"employeeId\":" + employee.getId() + ",\"notes\":\"home\"}").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget())
+        .andReturn().getResponse().getHeader(SqlStatementCountFilter.HEADER);
+    // Guards against the counter silently seeing nothing
+    assertThat(Integer.parseInt(count)).isPositive();
+
+    mockMvc.perform(get("/api/attendances/on-site").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+  }
+
+  @Test
+  void excusesAndReportsStayWithinBudget() throws Exception {
+    Employee employee = employeeRepository.findAll().get(1);
+    LocalDate from = LocalDate.now().plusDays(1);
+
+    mockMvc.perform(post("/api/attendances/sick-leave").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"employeeId\":" + employee.getId() + ",\"date\":\"" + from + "\"}").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(post("/api/attendances/absence").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"employeeId\":" + employee.getId() + ",\"from\":\"" + from.plusDays(1) + "\",\"to\":\"" + from.plusDays(30) + "\"}")
+            .with(authenticated()))
+        .andExpect(status().isCreated()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/attendances/employee/{employeeId}", employee.getId())
+            .param("startDate", from.toString()).param("endDate", from.plusDays(30).toString()).with(authenticated()))
+        .andExpect(status().isCreated()).andExpect(withinSqlStatementBudget());
+  }
+}
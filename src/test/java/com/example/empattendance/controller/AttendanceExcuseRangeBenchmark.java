@@ -0,0 +1,99 @@
+package com.example.empattendance.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.example.empattendance.config.SqlStatementCountFilter;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.empattendance.controller.SqlStatementBudgets.authenticated;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Times a 30-day absence recorded in one call to the absence endpoint, end to end through the
+ * controller, and prints the median next to the 30 ms target for the range. Each call covers days
+ * no earlier call touched, so every one inserts 30 new records, and must do so in the same handful
+ * of statements as a single day.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Tag("benchmark")
+class AttendanceExcuseRangeBenchmark {
+
+  private static final int WARM_UP = 1_000;
+  private static final int CALLS = 200;
+  private static final int DAYS = 30;
+  private static final long TARGET_MICROS = 30_000;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // Signed once, so the timings are the endpoint's rather than the test's JWT signing
+  private final RequestPostProcessor authenticated = authenticated();
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void thirtyDayRangeInOneCall() throws Exception {
+    List<Employee> employees = employeeRepository.findAll();
+    LocalDate start = LocalDate.now().plusYears(1);
+
+    for (int i = 0; i < WARM_UP; i++) {
+      recordAbsence(employees.get(i % employees.size()), start.plusDays((long) (i / employees.size()) * DAYS));
+    }
+    start = start.plusDays((long) (WARM_UP / employees.size() + 1) * DAYS);
+
+    long[] micros = new long[CALLS];
+    int statements = 0;
+    for (int i = 0; i < CALLS; i++) {
+      long started = System.nanoTime();
+      MvcResult result = recordAbsence(employees.get(i % employees.size()), start.plusDays((long) (i / employees.size()) * DAYS));
+      micros[i] = (System.nanoTime() - started) / 1_000;
+      statements = Math.max(statements, Integer.parseInt(result.getResponse().getHeader(SqlStatementCountFilter.HEADER)));
+    }
+    Arrays.sort(micros);
+    long median = micros[CALLS / 2];
+
+    Integer written = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att >= ?", Integer.class, start);
+    assertThat(written).isEqualTo(CALLS * DAYS);
+    assertThat(statements).isLessThanOrEqualTo(8);
+    System.out.printf("%d-day absence in one call: median %d us (target %d us), p95 %d us, max %d us, at most %d SQL statements%n",
+        DAYS, median, TARGET_MICROS, micros[CALLS * 95 / 100], micros[CALLS - 1], statements);
+  }
+
+  private MvcResult recordAbsence(Employee employee, LocalDate from) throws Exception {
+    return mockMvc.perform(post("/api/attendances/absence").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"employeeId\":" + employee.getId() + ",\"from\":\"" + from + "\",\"to\":\"" + from.plusDays(DAYS - 1) + "\"}")
+            .with(authenticated))
+        .andExpect(status().isCreated())
+        .andReturn();
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.empattendance.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.util.List;
+
+import static com.example.empattendance.controller.SqlStatementBudgets.authenticated;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags follow the versions of the entities in a response: editing one employee changes only the
+ * tags of responses that contain them, and a missing resource is never tagged.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Test
+  void employeeTagChangesOnlyWithThatEmployee() throws Exception {
+    List<Employee> employees = employeeRepository.findAll();
+    Employee edited = employees.get(0);
+    Employee other = employees.get(1);
+    String editedTag = etag("/api/employees/{id}", edited.getId());
+    String otherTag = etag("/api/employees/{id}", other.getId());
+    String listTag = etag("/api/employees");
+
+    mockMvc.perform(get("/api/employees/{id}", edited.getId()).header(HttpHeaders.IF_NONE_MATCH, editedTag).with(authenticated()))
+        .andExpect(status().isNotModified());
+
+    mockMvc.perform(put("/api/employees/{id}", edited.getId()).contentType(MediaType.APPLICATION_JSON)
+            .content("{\"address\":\"2 Tag Street\"}").with(authenticated()))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/employees/{id}", edited.getId()).header(HttpHeaders.IF_NONE_MATCH, editedTag).with(authenticated()))
+        .andExpect(status().isOk());
+    assertThat(etag("/api/employees/{id}", edited.getId())).isNotEqualTo(editedTag);
+    assertThat(etag("/api/employees")).isNotEqualTo(listTag);
+    mockMvc.perform(get("/api/employees/{id}", other.getId()).header(HttpHeaders.IF_NONE_MATCH, otherTag).with(authenticated()))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void missingResourcesAreNotTagged() throws Exception {
+    mockMvc.perform(get("/api/employees/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*").with(authenticated()))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    mockMvc.perform(get("/api/departments/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*").with(authenticated()))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    mockMvc.perform(get("/api/departments/{id}/employees", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*").with(authenticated()))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+
+  private String etag(String uri, Object... uriVariables) throws Exception {
+    String tag = mockMvc.perform(get(uri, uriVariables).with(authenticated()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(tag).isNotBlank();
+    return tag;
+  }
+}
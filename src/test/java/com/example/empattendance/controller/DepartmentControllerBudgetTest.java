@@ -0,0 +1,98 @@
+package com.example.empattendance.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
+import com.example.empattendance.repository.DepartmentRepository;
+import com.example.empattendance.service.AttendanceService;
+import com.example.empattendance.service.EmployeeService;
+
+import java.time.LocalDate;
+
+import static com.example.empattendance.controller.SqlStatementBudgets.authenticated;
+import static com.example.empattendance.controller.SqlStatementBudgets.withinSqlStatementBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DepartmentControllerBudgetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private DepartmentRepository departmentRepository;
+
+  @Autowired
+  private EmployeeService employeeService;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void readsStayWithinBudget() throws Exception {
+    Long id = departmentRepository.findAll().get(0).getId();
+    LocalDate today = LocalDate.now();
+
+    mockMvc.perform(get("/api/departments").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/departments/{id}", id).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/departments/{id}/employees", id).param("limit", "5").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/departments/{id}/attendance-summary", id)
+            .param("from", today.minusDays(30).toString()).param("to", today.toString()).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+  }
+
+  @Test
+  void writesStayWithinBudget() throws Exception {
+    String created = mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"Budget Office\"}").with(authenticated()))
+        .andExpect(status().isCreated()).andExpect(withinSqlStatementBudget())
+        .andReturn().getResponse().getContentAsString();
+    long id = objectMapper.readTree(created).get("dataObject").get("id").asLong();
+
+    mockMvc.perform(put("/api/departments/{id}", id).contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"Budget Office 2\"}").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    // Deleting a department also deletes its employees' records and its summary rows
+    Employee employee = new Employee();
+    employee.setFirstName("Ada");
+    employee.setLastName("Budget");
+    employee.setGender(Gender.FEMALE);
+    employee.setDepartment(departmentRepository.findById(id).orElseThrow());
+    employee.setType(EmployeeType.MEDICAL);
+    attendanceService.signIn(employeeService.saveEmployee(employee).getId(), null);
+    mockMvc.perform(delete("/api/departments/{id}", id).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+  }
+}
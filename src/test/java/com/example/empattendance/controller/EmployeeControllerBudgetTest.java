@@ -0,0 +1,94 @@
+package com.example.empattendance.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.DepartmentRepository;
+import com.example.empattendance.repository.EmployeeRepository;
+import com.example.empattendance.service.AttendanceService;
+
+import static com.example.empattendance.controller.SqlStatementBudgets.authenticated;
+import static com.example.empattendance.controller.SqlStatementBudgets.withinSqlStatementBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeControllerBudgetTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private DepartmentRepository departmentRepository;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void readsStayWithinBudget() throws Exception {
+    Employee employee = employeeRepository.findAll().get(0);
+    Long departmentId = departmentRepository.findAll().get(0).getId();
+
+    mockMvc.perform(get("/api/employees").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/employees").param("department", departmentId.toString())
+            .param("type", employee.getType().name()).param("limit", "5").with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/employees/{id}", employee.getId()).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    mockMvc.perform(get("/api/employees/search").param("q", employee.getLastName().substring(0, 3)).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+  }
+
+  @Test
+  void writesStayWithinBudget() throws Exception {
+    Employee employee = employeeRepository.findAll().get(0);
+    Long departmentId = departmentRepository.findAll().get(0).getId();
+    String body = "{\"firstName\":\"Ada\",\"lastName\":\"Budget\",\"gender\":\"FEMALE\",\"departmentId\":" + departmentId
+        + ",\"address\":\"1 Test Street\",\"employmentType\":\"MEDICAL\"}";
+
+    String created = mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(body).with(authenticated()))
+        .andExpect(status().isCreated()).andExpect(withinSqlStatementBudget())
+        .andReturn().getResponse().getContentAsString();
+    JsonNode data = objectMapper.readTree(created).get("dataObject");
+    long id = data.get("id").asLong();
+
+    mockMvc.perform(put("/api/employees/{id}", id).contentType(MediaType.APPLICATION_JSON)
+            .content(body.replace("1 Test Street", "2 Test Street")).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+    // Deleting an employee also deletes their records and adjusts the summary
+    attendanceService.signIn(id, null);
+    mockMvc.perform(delete("/api/employees/{id}", id).with(authenticated()))
+        .andExpect(status().isOk()).andExpect(withinSqlStatementBudget());
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.empattendance.controller;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.method.HandlerMethod;
+
+import com.example.empattendance.config.SqlStatementBudget;
+import com.example.empattendance.config.SqlStatementCountFilter;
+import com.example.empattendance.security.JwtTokenUtil;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc helpers for checking endpoints against their {@link SqlStatementBudget}. The count comes
+ * from the {@value SqlStatementCountFilter#HEADER} header, so it covers every statement the
+ * request sent through the DataSource, Hibernate and JdbcTemplate alike.
+ */
+final class SqlStatementBudgets {
+
+  private SqlStatementBudgets() {
+  }
+
+  /** Fails unless the handler declares a budget and the request stayed within it. */
+  static ResultMatcher withinSqlStatementBudget() {
+    return result -> {
+      assertThat(result.getHandler()).isInstanceOf(HandlerMethod.class);
+      HandlerMethod handler = (HandlerMethod) result.getHandler();
+      SqlStatementBudget budget = handler.getMethodAnnotation(SqlStatementBudget.class);
+      assertThat(budget).as("%s declares a @SqlStatementBudget", handler.getShortLogMessage()).isNotNull();
+
+      String header = result.getResponse().getHeader(SqlStatementCountFilter.HEADER);
+      assertThat(header).as("%s header", SqlStatementCountFilter.HEADER).isNotNull();
+      assertThat(Integer.parseInt(header))
+          .as("SQL statements run by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+          .isLessThanOrEqualTo(budget.value());
+    };
+  }
+
+  /** Authenticates the request with a freshly signed token, as the JWT filter expects. */
+  static RequestPostProcessor authenticated() {
+    String token = JwtTokenUtil.generateToken(
+        new UsernamePasswordAuthenticationToken("budget-test", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    return request -> {
+      request.addHeader("Authorization", "Bearer " + token);
+      return request;
+    };
+  }
+}
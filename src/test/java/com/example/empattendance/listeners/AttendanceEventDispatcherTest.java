@@ -0,0 +1,122 @@
+package com.example.empattendance.listeners;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.empattendance.config.StripedExecutor;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceEventDispatcherTest {
+
+  private final StripedExecutor executor = new StripedExecutor("test-events-", 4, 16, 30);
+
+  @AfterEach
+  void shutdown() {
+    executor.destroy();
+  }
+
+  @Test
+  void eachEmployeesEventsAreHandledInOrder() {
+    Map<Long, List<Long>> handled = new ConcurrentHashMap<>();
+    AttendanceEventHandler recorder = event -> handled
+        .computeIfAbsent(event.getEmployeeId(), id -> Collections.synchronizedList(new ArrayList<>()))
+        .add(event.getAttendances().get(0).getId());
+    AttendanceEventDispatcher dispatcher = dispatcher("async", recorder);
+
+    for (long recordId = 0; recordId < 3_000; recordId++) {
+      dispatcher.onCommitted(event(recordId % 7, recordId));
+    }
+    executor.destroy();
+
+    assertThat(handled).hasSize(7);
+    assertThat(handled.values().stream().mapToInt(List::size).sum()).isEqualTo(3_000);
+    handled.values().forEach(recordIds -> assertThat(recordIds).isSorted());
+  }
+
+  @Test
+  void bulkEventsQueueBehindEachEmployeesEarlierEvents() {
+    Map<Long, List<Long>> handled = new ConcurrentHashMap<>();
+    AttendanceEventHandler recorder = event -> handled
+        .computeIfAbsent(event.getEmployeeId(), id -> Collections.synchronizedList(new ArrayList<>()))
+        .add(event.getAttendances().get(0).getId());
+    AttendanceEventDispatcher dispatcher = dispatcher("async", recorder);
+
+    long[] employeeIds = {0, 1, 2, 3, 4, 5, 6};
+    EmployeeType[] employeeTypes = new EmployeeType[employeeIds.length];
+    Arrays.fill(employeeTypes, EmployeeType.values()[0]);
+    for (long employeeId : employeeIds) {
+      dispatcher.onCommitted(event(employeeId, employeeId));
+    }
+    dispatcher.onCommitted(new AttendanceBulkInsertedEvent(AttendanceEventDispatcherTest.class, 1L, LocalDate.now(),
+        AttendanceType.ABSENT, null, new long[] {100, 101, 102, 103, 104, 105, 106}, employeeIds, employeeTypes));
+    executor.destroy();
+
+    assertThat(handled).hasSize(7);
+    handled.forEach((employeeId, recordIds) -> assertThat(recordIds).containsExactly(employeeId, employeeId + 100));
+  }
+
+  @Test
+  void onlyIdempotentHandlersAreRetried() {
+    AtomicInteger payrollCalls = new AtomicInteger();
+    AtomicInteger projectionCalls = new AtomicInteger();
+    AttendanceEventHandler payroll = event -> {
+      payrollCalls.incrementAndGet();
+      throw new IllegalStateException("payroll down");
+    };
+    AttendanceEventHandler projection = new AttendanceEventHandler() {
+      @Override
+      public void handle(AttendanceRegisteredEvent event) {
+        projectionCalls.incrementAndGet();
+        throw new IllegalStateException("projection down");
+      }
+
+      @Override
+      public boolean isIdempotent() {
+        return true;
+      }
+    };
+
+    dispatcher("sync", payroll, projection).onPublished(event(1L, 1L));
+
+    assertThat(payrollCalls).hasValue(1);
+    assertThat(projectionCalls).hasValue(3);
+  }
+
+  private AttendanceEventDispatcher dispatcher(String mode, AttendanceEventHandler... handlers) {
+    AttendanceEventDispatcher dispatcher = new AttendanceEventDispatcher();
+    ReflectionTestUtils.setField(dispatcher, "handlers", List.of(handlers));
+    ReflectionTestUtils.setField(dispatcher, "executor", executor);
+    ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(dispatcher, "dispatchMode", mode);
+    ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+    ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", 0L);
+    return dispatcher;
+  }
+
+  private static AttendanceRegisteredEvent event(long employeeId, long recordId) {
+    Employee employee = new Employee();
+    employee.setId(employeeId);
+    AttendanceRecord record = new AttendanceRecord();
+    record.setId(recordId);
+    record.setEmployee(employee);
+    return new AttendanceRegisteredEvent(AttendanceEventDispatcherTest.class, employee, record);
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.empattendance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts 100k attendance rows through {@link AttendanceRepository#saveAll} with one round trip
+ * per row, as IDENTITY ids forced before, and with the JDBC batching pooled sequence ids allow.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class AttendanceBatchInsertBenchmark {
+
+  private static final int ROWS = 100_000;
+  private static final int ROWS_PER_TRANSACTION = 10_000;
+
+  @Autowired
+  private AttendanceRepository attendanceRepository;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @AfterEach
+  void deleteRecords() {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> attendanceRepository.deleteAllInBatch());
+  }
+
+  @Test
+  void saveAllWithAndWithoutBatching() {
+    long unbatched = insert(1);
+    deleteRecords();
+    long batched = insert(50);
+
+    System.out.printf("saveAll of %d attendance rows: %d ms one row per statement, %d ms in batches of 50%n",
+        ROWS, unbatched, batched);
+    assertThat(attendanceRepository.count()).isEqualTo(ROWS);
+  }
+
+  /** Insert {@value #ROWS} rows spread over the seeded employees and return the time taken. */
+  private long insert(int jdbcBatchSize) {
+    List<Employee> employees = employeeRepository.findAll();
+    int daysPerEmployee = (ROWS + employees.size() - 1) / employees.size();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    long started = System.nanoTime();
+    for (int from = 0; from < ROWS; from += ROWS_PER_TRANSACTION) {
+      int first = from;
+      transaction.executeWithoutResult(status -> {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        List<AttendanceRecord> records = new ArrayList<>(ROWS_PER_TRANSACTION);
+        for (int row = first; row < Math.min(first + ROWS_PER_TRANSACTION, ROWS); row++) {
+          AttendanceRecord record = new AttendanceRecord();
+          record.setEmployee(employees.get(row / daysPerEmployee));
+          record.setDateOfAtt(LocalDate.of(2000, 1, 1).plusDays(row % daysPerEmployee));
+          record.setType(AttendanceType.ABSENT);
+          records.add(record);
+        }
+        attendanceRepository.saveAll(records);
+        entityManager.flush();
+        entityManager.clear();
+      });
+    }
+    return (System.nanoTime() - started) / 1_000_000;
+  }
+}
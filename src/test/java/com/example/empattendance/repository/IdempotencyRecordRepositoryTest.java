@@ -0,0 +1,39 @@
+package com.example.empattendance.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.model.IdempotencyRecord;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyRecordRepositoryTest {
+
+  @Autowired
+  private IdempotencyRecordRepository repository;
+
+  @AfterEach
+  void deleteRecords() {
+    repository.deleteAllInBatch();
+  }
+
+  @Test
+  void insertNeverOverwritesTheFirstResponse() {
+    repository.insert(new IdempotencyRecord("sign-in:abc", "1".repeat(64), 201, "{\"first\":true}", Instant.now()));
+
+    assertThatThrownBy(() -> repository.insert(new IdempotencyRecord("sign-in:abc", "2".repeat(64), 201, "{\"second\":true}", Instant.now())))
+        .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(repository.findById("sign-in:abc")).get()
+        .extracting(IdempotencyRecord::getBody)
+        .isEqualTo("{\"first\":true}");
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.empattendance.dto.AttendanceAnalyticsFilter;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Archives a month while another transaction is changing one of its records, and checks the
+ * change ends up in the segment instead of being deleted with the row; then checks later writes
+ * into an archived month are refused and readers of the table either include the archive or
+ * refuse archived months. Segments are written to a
+ * directory of their own, so the archived month does not leak into other runs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceArchiveServiceTest {
+
+  private static final LocalDate DAY = LocalDate.of(2001, 2, 5);
+  private static final long RECORD_ID = 900_000_001L;
+
+  @TempDir
+  static Path archiveDirectory;
+
+  @DynamicPropertySource
+  static void archiveDirectory(DynamicPropertyRegistry registry) {
+    registry.add("attendance.archive.directory", archiveDirectory::toString);
+  }
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private PayrollService payrollService;
+
+  @Autowired
+  private AttendanceAnalyticsStore analyticsStore;
+
+  @Autowired
+  private AttendanceExportService exportService;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void changeCommittedDuringArchivingIsKept() throws Exception {
+    Employee employee = employeeRepository.findAll().get(0);
+    jdbcTemplate.update("INSERT INTO attendancerecords (id, employee_id, date_of_att, type, notes) VALUES (?, ?, ?, 'ABSENT', 'before')",
+        RECORD_ID, employee.getId(), DAY);
+
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+          jdbcTemplate.queryForList("SELECT id FROM attendancerecords WHERE id = ? FOR UPDATE", RECORD_ID);
+          jdbcTemplate.update("UPDATE attendancerecords SET notes = 'after' WHERE id = ?", RECORD_ID);
+          locked.countDown();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }));
+    assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+    CompletableFuture<Void> archiver = CompletableFuture.runAsync(attendanceArchiveService::archiveClosedMonths);
+    Thread.sleep(200);
+    assertThat(archiver).isNotDone();
+    release.countDown();
+    writer.get(5, TimeUnit.SECONDS);
+    archiver.get(10, TimeUnit.SECONDS);
+
+    List<AttendanceRecord> archived = attendanceArchiveService.findRecords(employee.getId(), DAY, DAY);
+    assertThat(archived).singleElement().extracting(AttendanceRecord::getNotes).isEqualTo("after");
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendancerecords WHERE id = ?", Integer.class, RECORD_ID)).isZero();
+  }
+
+  @Test
+  void writesIntoArchivedMonthsAreRefused() {
+    Employee employee = employeeRepository.findAll().get(0);
+    LocalDate day = LocalDate.of(2001, 3, 7);
+    insertSickLeave(RECORD_ID + 1, employee.getId(), day);
+    attendanceArchiveService.archiveClosedMonths();
+
+    assertThatThrownBy(() -> attendanceService.recordAbsence(employee.getId(), day, "no show"))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> attendanceService.recordAbsence(employee.getId(), day.plusDays(1), day.plusDays(3), false, null))
+        .isInstanceOf(BadRequestException.class);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att BETWEEN ? AND ?",
+        Integer.class, day, day.plusDays(3))).isZero();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_daily_summary WHERE date_of_att BETWEEN ? AND ?",
+        Integer.class, day, day.plusDays(3))).isZero();
+    assertThat(attendanceService.getAttendanceRecordsByEmployeeAndDateRange(employee.getId(), day, day))
+        .singleElement().extracting(AttendanceRecord::getType).isEqualTo(AttendanceType.SICK_LEAVE);
+  }
+
+  @Test
+  void readersIncludeOrRefuseArchivedMonths() {
+    Employee employee = employeeRepository.findAll().get(0);
+    LocalDate day = LocalDate.of(2001, 4, 9);
+    insertSickLeave(RECORD_ID + 2, employee.getId(), day);
+    insertSickLeave(RECORD_ID + 3, employee.getId(), day.plusDays(1));
+    attendanceArchiveService.archiveClosedMonths();
+    analyticsStore.rebuild();
+
+    assertThat(payrollService.getSummary(employee.getId(), YearMonth.from(day)).getSickDays()).isEqualTo(2);
+    AttendanceAnalyticsFilter filter = new AttendanceAnalyticsFilter();
+    filter.setEmployeeId(employee.getId());
+    filter.setStartDate(day);
+    filter.setEndDate(day.plusDays(1));
+    assertThat(analyticsStore.aggregate(AttendanceAnalyticsStore.Dimension.ATTENDANCE_TYPE, filter))
+        .singleElement().satisfies(row -> {
+          assertThat(row.getGroup()).isEqualTo(AttendanceType.SICK_LEAVE.name());
+          assertThat(row.getRecords()).isEqualTo(2);
+        });
+    assertThatThrownBy(() -> exportService.validate(day, day.plusMonths(30)))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  /** Written straight to the table, as the month may already be archived by another test. */
+  private void insertSickLeave(long recordId, Long employeeId, LocalDate day) {
+    jdbcTemplate.update("INSERT INTO attendancerecords (id, employee_id, date_of_att, type, notes) VALUES (?, ?, ?, 'SICK_LEAVE', 'flu')",
+        recordId, employeeId, day);
+  }
+}
@@ -0,0 +1,181 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.example.empattendance.dto.AutoAbsenceReport;
+import com.example.empattendance.events.AttendanceBulkInsertedEvent;
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the end-of-day absence job against H2 with chunks small enough that every department takes
+ * several of them. Archive segments go to a directory of their own, so archiving a month here does
+ * not leak into other runs.
+ */
+@SpringBootTest(properties = "attendance.auto-absence.chunk-size=3")
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class AttendanceAutoAbsenceServiceTest {
+
+  @TempDir
+  static Path archiveDirectory;
+
+  @DynamicPropertySource
+  static void archiveDirectory(DynamicPropertyRegistry registry) {
+    registry.add("attendance.archive.directory", archiveDirectory::toString);
+  }
+
+  @Autowired
+  private AttendanceAutoAbsenceService autoAbsenceService;
+
+  @Autowired
+  private AttendanceArchiveService attendanceArchiveService;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private AttendanceCalendarIndex calendarIndex;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ApplicationEvents events;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void marksEveryMissingEmployeeAbsentOnce() {
+    LocalDate today = LocalDate.now();
+    long employees = employeeRepository.count();
+
+    AutoAbsenceReport report = autoAbsenceService.markAbsent(today);
+
+    assertThat(report.getInserted()).isEqualTo(employees);
+    assertThat(count("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att = ? AND type = 'ABSENT' AND notes = ?",
+        today, AttendanceAutoAbsenceService.NOTES)).isEqualTo(employees);
+    assertThat(count("SELECT COUNT(DISTINCT employee_id) FROM attendancerecords WHERE date_of_att = ?", today))
+        .isEqualTo(employees);
+  }
+
+  @Test
+  void repeatedRunInsertsNothing() {
+    LocalDate today = LocalDate.now();
+    autoAbsenceService.markAbsent(today);
+    long rows = count("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att = ?", today);
+
+    AutoAbsenceReport again = autoAbsenceService.markAbsent(today);
+
+    assertThat(again.getInserted()).isZero();
+    assertThat(count("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att = ?", today)).isEqualTo(rows);
+  }
+
+  @Test
+  void keepsEmployeesWhoSignedInOrWereExcused() {
+    LocalDate today = LocalDate.now();
+    List<Employee> all = employeeRepository.findAll();
+    Employee present = all.get(0);
+    Employee sick = all.get(1);
+    attendanceService.signIn(present.getId(), null);
+    attendanceService.recordSickLeave(sick.getId(), today, null);
+
+    AutoAbsenceReport report = autoAbsenceService.markAbsent(today);
+
+    assertThat(report.getInserted()).isEqualTo(all.size() - 2);
+    assertThat(typeOn(present.getId(), today)).isEqualTo("PRESENT");
+    assertThat(typeOn(sick.getId(), today)).isEqualTo("SICK_LEAVE");
+    assertThat(typeOn(all.get(2).getId(), today)).isEqualTo("ABSENT");
+  }
+
+  @Test
+  void summaryMatchesTheRecords() {
+    LocalDate today = LocalDate.now();
+    attendanceService.signIn(employeeRepository.findAll().get(0).getId(), null);
+
+    autoAbsenceService.markAbsent(today);
+
+    List<Map<String, Object>> expected = jdbcTemplate.queryForList(
+        "SELECT e.department_id, a.type, COUNT(*) AS record_count FROM attendancerecords a "
+            + "JOIN employees e ON e.id = a.employee_id WHERE a.date_of_att = ? "
+            + "GROUP BY e.department_id, a.type ORDER BY e.department_id, a.type", today);
+    List<Map<String, Object>> summary = jdbcTemplate.queryForList(
+        "SELECT department_id, type, SUM(record_count) AS record_count FROM attendance_daily_summary "
+            + "WHERE date_of_att = ? AND record_count <> 0 GROUP BY department_id, type ORDER BY department_id, type", today);
+    assertThat(summary).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(((Number) summary.get(i).get("record_count")).longValue())
+          .isEqualTo(((Number) expected.get(i).get("record_count")).longValue());
+      assertThat(summary.get(i).get("department_id")).isEqualTo(expected.get(i).get("department_id"));
+      assertThat(summary.get(i).get("type")).isEqualTo(expected.get(i).get("type"));
+    }
+  }
+
+  @Test
+  void publishesOneBulkEventPerChunk() {
+    LocalDate today = LocalDate.now();
+    Employee employee = employeeRepository.findAll().get(0);
+
+    AutoAbsenceReport report = autoAbsenceService.markAbsent(today);
+
+    assertThat(events.stream(AttendanceRegisteredEvent.class)).isEmpty();
+    List<AttendanceBulkInsertedEvent> bulk = events.stream(AttendanceBulkInsertedEvent.class).toList();
+    assertThat(bulk).hasSize(report.getChunks());
+    assertThat(bulk.stream().mapToInt(AttendanceBulkInsertedEvent::size).sum()).isEqualTo(report.getInserted());
+    assertThat(calendarIndex.countDays(employee.getId(), AttendanceType.ABSENT, today, today)).isEqualTo(1);
+  }
+
+  @Test
+  void refusesArchivedDays() {
+    LocalDate archivedDay = LocalDate.of(2002, 3, 4);
+    Employee employee = employeeRepository.findAll().get(0);
+    attendanceService.recordSickLeave(employee.getId(), archivedDay, null);
+    attendanceArchiveService.archiveClosedMonths();
+
+    assertThatThrownBy(() -> autoAbsenceService.markAbsent(archivedDay.plusDays(1)))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> autoAbsenceService.markAbsent(archivedDay))
+        .isInstanceOf(BadRequestException.class);
+    assertThat(count("SELECT COUNT(*) FROM attendancerecords WHERE date_of_att BETWEEN ? AND ?",
+        archivedDay, archivedDay.plusDays(1))).isZero();
+    assertThat(attendanceService.getAttendanceRecordsByEmployeeAndDateRange(employee.getId(), archivedDay, archivedDay))
+        .singleElement().extracting(record -> record.getType().name()).isEqualTo("SICK_LEAVE");
+  }
+
+  private long count(String sql, Object... args) {
+    return jdbcTemplate.queryForObject(sql, Long.class, args);
+  }
+
+  private String typeOn(Long employeeId, LocalDate date) {
+    return jdbcTemplate.queryForObject("SELECT type FROM attendancerecords WHERE employee_id = ? AND date_of_att = ?",
+        String.class, employeeId, date);
+  }
+}
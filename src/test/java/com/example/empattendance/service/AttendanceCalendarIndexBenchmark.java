@@ -0,0 +1,141 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.DepartmentRepository;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the calendar bitmaps with the equivalent SQL for 10k employees over five years: a
+ * per-employee yearly count, and the employees absent on both of two dates. Each employee has two
+ * records a month (1.2M rows), which keeps the in-memory database's load time reasonable while
+ * still giving every bitmap several set words.
+ *
+ * <p>A plain JUnit test rather than a JMH harness, like the other benchmarks here: what is measured
+ * is the query path through the Spring context, and wall-clock timing of a second, warmed-up pass is
+ * enough to compare the two. Both paths must return the same answers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class AttendanceCalendarIndexBenchmark {
+
+  private static final int EMPLOYEES = 10_000;
+  private static final int YEARS = 5;
+  private static final long FIRST_EMPLOYEE_ID = 1_000_000L;
+  private static final long FIRST_RECORD_ID = 100_000_000L;
+  private static final int QUERIES = 2_000;
+  private static final int ALL_DATES_QUERIES = 100;
+
+  @Autowired
+  private AttendanceCalendarIndex calendarIndex;
+
+  @Autowired
+  private DepartmentRepository departmentRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void deleteRows() {
+    // A single-transaction DELETE of 1.2M rows takes minutes on H2
+    jdbcTemplate.execute("TRUNCATE TABLE attendancerecords");
+    jdbcTemplate.update("DELETE FROM employees WHERE id >= ?", FIRST_EMPLOYEE_ID);
+    calendarIndex.rebuild();
+  }
+
+  @Test
+  void bitmapsAgainstSql() {
+    int firstYear = Year.now().getValue() - YEARS + 1;
+    load(firstYear);
+    calendarIndex.rebuild();
+
+    int year = firstYear + YEARS - 2;
+    LocalDate from = LocalDate.of(year, 1, 1);
+    LocalDate to = LocalDate.of(year, 12, 31);
+    List<LocalDate> dates = List.of(LocalDate.of(year, 3, 15), LocalDate.of(year, 9, 15));
+
+    for (int pass = 0; pass < 2; pass++) {
+      long started = System.nanoTime();
+      long indexDays = 0;
+      for (int i = 0; i < QUERIES; i++) {
+        indexDays += calendarIndex.countDays(FIRST_EMPLOYEE_ID + i * 5L, AttendanceType.PRESENT, from, to);
+      }
+      long indexCountMicros = (System.nanoTime() - started) / 1_000;
+
+      started = System.nanoTime();
+      long sqlDays = 0;
+      for (int i = 0; i < QUERIES; i++) {
+        sqlDays += jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM attendancerecords WHERE employee_id = ? AND type = ? AND date_of_att BETWEEN ? AND ?",
+            Long.class, FIRST_EMPLOYEE_ID + i * 5L, AttendanceType.PRESENT.name(), from, to);
+      }
+      long sqlCountMicros = (System.nanoTime() - started) / 1_000;
+
+      started = System.nanoTime();
+      List<Long> indexAbsent = null;
+      for (int i = 0; i < ALL_DATES_QUERIES; i++) {
+        indexAbsent = calendarIndex.findEmployeesOnAllDates(AttendanceType.ABSENT, dates);
+      }
+      long indexAllMicros = (System.nanoTime() - started) / 1_000;
+
+      started = System.nanoTime();
+      List<Long> sqlAbsent = null;
+      for (int i = 0; i < ALL_DATES_QUERIES; i++) {
+        sqlAbsent = jdbcTemplate.queryForList(
+            "SELECT employee_id FROM attendancerecords WHERE type = ? AND date_of_att IN (?, ?) "
+                + "GROUP BY employee_id HAVING COUNT(*) = 2 ORDER BY employee_id",
+            Long.class, AttendanceType.ABSENT.name(), dates.get(0), dates.get(1));
+      }
+      long sqlAllMicros = (System.nanoTime() - started) / 1_000;
+
+      assertThat(indexDays).isEqualTo(sqlDays);
+      assertThat(indexAbsent).isEqualTo(sqlAbsent);
+      System.out.printf("Pass %d, %d employees x %d years: %d yearly counts in %d us (bitmaps) vs %d us (SQL); "
+              + "%d lookups of the employees absent on both dates in %d us (bitmaps) vs %d us (SQL)%n",
+          pass + 1, EMPLOYEES, YEARS, QUERIES, indexCountMicros, sqlCountMicros,
+          ALL_DATES_QUERIES, indexAllMicros, sqlAllMicros);
+    }
+  }
+
+  /** Two records a month per employee: present on the 1st, and on the 15th absent for every third one. */
+  private void load(int firstYear) {
+    Long departmentId = departmentRepository.findAll().get(0).getId();
+    List<Object[]> employees = new ArrayList<>(EMPLOYEES);
+    for (int i = 0; i < EMPLOYEES; i++) {
+      employees.add(new Object[] {FIRST_EMPLOYEE_ID + i, "Bench", "Employee" + i, "MALE", departmentId, "NON_MEDICAL"});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO employees (id, first_name, last_name, gender, department_id, type) VALUES (?, ?, ?, ?, ?, ?)",
+        employees);
+
+    long recordId = FIRST_RECORD_ID;
+    List<Object[]> records = new ArrayList<>(EMPLOYEES * 2);
+    for (int year = firstYear; year < firstYear + YEARS; year++) {
+      for (int month = 1; month <= 12; month++) {
+        for (int i = 0; i < EMPLOYEES; i++) {
+          long employeeId = FIRST_EMPLOYEE_ID + i;
+          records.add(new Object[] {recordId++, employeeId, LocalDate.of(year, month, 1), AttendanceType.PRESENT.name()});
+          AttendanceType fifteenth = i % 3 == 0 ? AttendanceType.ABSENT : AttendanceType.PRESENT;
+          records.add(new Object[] {recordId++, employeeId, LocalDate.of(year, month, 15), fifteenth.name()});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO attendancerecords (id, employee_id, date_of_att, type) VALUES (?, ?, ?, ?)", records);
+        records.clear();
+      }
+    }
+  }
+}
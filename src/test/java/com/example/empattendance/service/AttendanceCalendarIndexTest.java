@@ -0,0 +1,115 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.empattendance.events.AttendanceRegisteredEvent;
+import com.example.empattendance.exception.BadRequestException;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttendanceCalendarIndexTest {
+
+  private static final Long EMPLOYEE_ID = 7L;
+
+  private final AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+  private final AttendanceArchiveService attendanceArchiveService = mock(AttendanceArchiveService.class);
+  private final AttendanceCalendarIndex index = new AttendanceCalendarIndex();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(index, "attendanceRepository", attendanceRepository);
+    ReflectionTestUtils.setField(index, "attendanceArchiveService", attendanceArchiveService);
+    ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+    ReflectionTestUtils.setField(index, "retainedYears", 2);
+    index.clock = clockAt(2025);
+    index.init();
+    when(attendanceRepository.streamFactsSince(any())).thenReturn(Stream.empty());
+  }
+
+  @Test
+  void windowRollsForwardWhenTheYearChanges() {
+    index.onAttendanceRegistered(event(LocalDate.of(2024, 3, 1)));
+    index.onAttendanceRegistered(event(LocalDate.of(2025, 3, 1)));
+    assertThat(index.getStats(EMPLOYEE_ID, 2024, AttendanceType.PRESENT).getDays()).isEqualTo(1);
+
+    index.clock = clockAt(2026);
+
+    assertThatThrownBy(() -> index.getStats(EMPLOYEE_ID, 2024, AttendanceType.PRESENT))
+        .isInstanceOf(BadRequestException.class);
+    assertThat(index.getStats(EMPLOYEE_ID, 2025, AttendanceType.PRESENT).getDays()).isEqualTo(1);
+    index.onAttendanceRegistered(event(LocalDate.of(2026, 1, 2)));
+    assertThat(index.getStats(EMPLOYEE_ID, 2026, AttendanceType.PRESENT).getDays()).isEqualTo(1);
+  }
+
+  @Test
+  void writesDuringRebuildAreReplayedOntoTheNewCalendars() {
+    // A write committed while the rebuild is still reading the archive
+    doAnswer(invocation -> {
+      index.onAttendanceRegistered(event(LocalDate.of(2025, 6, 1)));
+      return null;
+    }).when(attendanceArchiveService).forEachFact(any(), any());
+
+    index.rebuild();
+
+    assertThat(index.countDays(EMPLOYEE_ID, AttendanceType.PRESENT, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)))
+        .isEqualTo(1);
+  }
+
+  @Test
+  void employeesOnAllDatesFollowOverwritesAndDeletions() {
+    LocalDate monday = LocalDate.of(2025, 3, 3);
+    LocalDate tuesday = monday.plusDays(1);
+    for (long employeeId = 1; employeeId <= 4; employeeId++) {
+      index.onAttendanceRegistered(event(employeeId, monday, AttendanceType.PRESENT));
+      index.onAttendanceRegistered(event(employeeId, tuesday, AttendanceType.PRESENT));
+    }
+    // Employee 2's Tuesday is overwritten by sick leave, employee 3 is deleted
+    index.onAttendanceRegistered(event(2L, tuesday, AttendanceType.SICK_LEAVE));
+    index.removeEmployee(3L);
+
+    assertThat(index.findEmployeesOnAllDates(AttendanceType.PRESENT, List.of(monday, tuesday))).containsExactly(1L, 4L);
+    assertThat(index.findEmployeesOnAllDates(AttendanceType.SICK_LEAVE, List.of(tuesday))).containsExactly(2L);
+    assertThat(index.findEmployeesOnAllDates(AttendanceType.PRESENT, List.of(monday, tuesday.plusDays(1)))).isEmpty();
+    assertThat(index.countDays(3L, AttendanceType.PRESENT, monday, tuesday)).isZero();
+
+    index.clock = clockAt(2027);
+    index.onAttendanceRegistered(event(1L, LocalDate.of(2027, 3, 1), AttendanceType.PRESENT));
+    assertThat(index.findEmployeesOnAllDates(AttendanceType.PRESENT, List.of(LocalDate.of(2027, 3, 1)))).containsExactly(1L);
+  }
+
+  private static AttendanceRegisteredEvent event(LocalDate date) {
+    return event(EMPLOYEE_ID, date, AttendanceType.PRESENT);
+  }
+
+  private static AttendanceRegisteredEvent event(Long employeeId, LocalDate date, AttendanceType type) {
+    Employee employee = new Employee();
+    employee.setId(employeeId);
+    AttendanceRecord record = new AttendanceRecord();
+    record.setEmployee(employee);
+    record.setDateOfAtt(date);
+    record.setType(type);
+    return new AttendanceRegisteredEvent(AttendanceCalendarIndexTest.class, employee, record);
+  }
+
+  private static Clock clockAt(int year) {
+    return Clock.fixed(LocalDate.of(year, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+}
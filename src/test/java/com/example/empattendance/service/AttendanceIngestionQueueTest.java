@@ -0,0 +1,113 @@
+package com.example.empattendance.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.empattendance.exception.TooManyRequestsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AttendanceIngestionQueueTest {
+
+  private static final int OFFERING_THREADS = 4;
+
+  private final AttendanceService attendanceService = mock(AttendanceService.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AttendanceIngestionQueue queue = new AttendanceIngestionQueue();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(queue, "attendanceService", attendanceService);
+    ReflectionTestUtils.setField(queue, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(queue, "enabled", true);
+    ReflectionTestUtils.setField(queue, "capacity", 100);
+    ReflectionTestUtils.setField(queue, "batchSize", 10);
+    ReflectionTestUtils.setField(queue, "flushIntervalMs", 50L);
+    queue.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    queue.shutdown();
+  }
+
+  @Test
+  void failedBatchIsRetriedOneCommandAtATime() {
+    AttendanceCommand good1 = AttendanceCommand.signIn(1L, null);
+    AttendanceCommand bad = AttendanceCommand.signIn(2L, null);
+    AttendanceCommand good2 = AttendanceCommand.signOut(3L, null);
+    List<AttendanceCommand> batch = List.of(good1, bad, good2);
+
+    doThrow(new IllegalStateException("constraint violation"))
+        .when(attendanceService).applyQueuedCommands(argThat(commands -> commands.contains(bad)));
+
+    ReflectionTestUtils.invokeMethod(queue, "flush", batch);
+
+    verify(attendanceService).applyQueuedCommands(batch);
+    verify(attendanceService).applyQueuedCommands(List.of(good1));
+    verify(attendanceService).applyQueuedCommands(List.of(bad));
+    verify(attendanceService).applyQueuedCommands(List.of(good2));
+    assertThat(meterRegistry.counter("attendance.ingestion.failed").count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void everyAcceptedCommandIsWrittenWhenShutdownRacesOffers() throws Exception {
+    AtomicInteger written = new AtomicInteger();
+    doAnswer(invocation -> {
+      written.addAndGet(invocation.<List<AttendanceCommand>>getArgument(0).size());
+      return 0;
+    }).when(attendanceService).applyQueuedCommands(anyList());
+    AtomicInteger accepted = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(OFFERING_THREADS);
+    List<Future<?>> futures = new ArrayList<>(OFFERING_THREADS);
+    try {
+      for (int t = 0; t < OFFERING_THREADS; t++) {
+        futures.add(pool.submit(() -> {
+          start.await();
+          for (long recordId = 1; ; recordId++) {
+            try {
+              queue.submitSignOut(recordId, null);
+              accepted.incrementAndGet();
+            } catch (TooManyRequestsException e) {
+              if (e.getMessage().contains("shutting down")) {
+                return null;
+              }
+              Thread.yield();
+            }
+          }
+        }));
+      }
+      start.countDown();
+      Thread.sleep(20);
+      queue.shutdown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertThat(accepted.get()).isPositive();
+    assertThat(written.get()).isEqualTo(accepted.get());
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Times the employee report query and a 30-day range count against two copies of
+ * attendancerecords, one plain and one range partitioned by month the way
+ * {@link AttendancePartitionService} lays it out. Both are filled with
+ * {@code benchmark.partition.rows} rows (50M by default) for 10k employees.
+ *
+ * <p>Partitioning is MySQL only, so this is skipped unless the benchmarks run against MySQL:
+ * {@code mvn test -Pbenchmark -Dspring.datasource.url=jdbc:mysql://... -Dspring.datasource.username=...
+ * -Dspring.datasource.password=... -Dspring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver}.
+ * The tables are built next to the application's and dropped afterwards, and loading 50M rows
+ * twice takes a while.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class AttendancePartitionBenchmark {
+
+  private static final int EMPLOYEES = 10_000;
+  private static final int DAYS_PER_INSERT = 50;
+  private static final int QUERIES = 1_000;
+  private static final LocalDate FIRST_DAY = LocalDate.of(2010, 1, 1);
+
+  private static final String PLAIN = "bench_attendance_plain";
+  private static final String PARTITIONED = "bench_attendance_partitioned";
+  private static final String NUMBERS = "bench_numbers";
+
+  private static final String COLUMNS =
+      "id BIGINT NOT NULL, employee_id BIGINT NOT NULL, date_of_att DATE NOT NULL, type VARCHAR(16) NOT NULL, "
+          + "sign_in_time TIME NULL, sign_out_time TIME NULL, notes VARCHAR(255) NULL, "
+          + "UNIQUE KEY uk_bench_employee_date (employee_id, date_of_att), "
+          + "KEY idx_bench_date (date_of_att), KEY idx_bench_employee_date_type (employee_id, date_of_att, type)";
+
+  private static final String REPORT =
+      "SELECT id, employee_id, date_of_att, type, sign_in_time, sign_out_time, notes FROM %s "
+          + "WHERE employee_id = ? AND date_of_att BETWEEN ? AND ? ORDER BY date_of_att";
+
+  private static final String RANGE_COUNT =
+      "SELECT type, COUNT(*) FROM %s WHERE date_of_att BETWEEN ? AND ? GROUP BY type";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final long rows = Long.getLong("benchmark.partition.rows", 50_000_000L);
+
+  @BeforeEach
+  void requireMySql() {
+    String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+    assumeTrue("MySQL".equals(product), "Partitioning needs MySQL; point spring.datasource.* at a MySQL server to run this");
+  }
+
+  @AfterEach
+  void dropTables() {
+    for (String table : List.of(PLAIN, PARTITIONED, NUMBERS)) {
+      jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+    }
+  }
+
+  @Test
+  void reportWithAndWithoutPartitioning() {
+    int days = (int) Math.max(1, rows / EMPLOYEES);
+    LocalDate lastDay = FIRST_DAY.plusDays(days - 1);
+    load(days, lastDay);
+
+    Random random = new Random(42);
+    long[] employeeIds = new long[QUERIES];
+    LocalDate[] starts = new LocalDate[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      employeeIds[i] = random.nextInt(EMPLOYEES) + 1;
+      starts[i] = FIRST_DAY.plusDays(random.nextInt(Math.max(1, days - 30)));
+    }
+
+    for (int pass = 0; pass < 2; pass++) {
+      long plainReport = timeReports(PLAIN, employeeIds, starts);
+      long partitionedReport = timeReports(PARTITIONED, employeeIds, starts);
+      long plainRange = timeRangeCounts(PLAIN, starts);
+      long partitionedRange = timeRangeCounts(PARTITIONED, starts);
+      System.out.printf("Pass %d, %d rows: %d employee reports in %d ms (plain) vs %d ms (partitioned); "
+              + "%d 30-day counts in %d ms (plain) vs %d ms (partitioned)%n",
+          pass + 1, (long) days * EMPLOYEES, QUERIES, plainReport, partitionedReport,
+          QUERIES / 10, plainRange, partitionedRange);
+    }
+
+    String partitions = jdbcTemplate.queryForList("EXPLAIN " + String.format(REPORT, PARTITIONED),
+        FIRST_DAY.plusDays(40), FIRST_DAY.plusDays(40), FIRST_DAY.plusDays(70)).get(0).get("partitions").toString();
+    System.out.println("Partitions read by one 30-day report: " + partitions);
+    assertThat(partitions.split(",")).hasSizeLessThanOrEqualTo(2);
+  }
+
+  /** Both tables get one row a day for every employee; the partitioned copy is filled from the plain one. */
+  private void load(int days, LocalDate lastDay) {
+    dropTables();
+    jdbcTemplate.execute("CREATE TABLE " + NUMBERS + " (n INT NOT NULL PRIMARY KEY)");
+    List<Object[]> numbers = new ArrayList<>(EMPLOYEES);
+    for (int n = 0; n < EMPLOYEES; n++) {
+      numbers.add(new Object[] {n});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO " + NUMBERS + " (n) VALUES (?)", numbers);
+
+    jdbcTemplate.execute("CREATE TABLE " + PLAIN + " (" + COLUMNS + ", PRIMARY KEY (id))");
+    jdbcTemplate.execute("CREATE TABLE " + PARTITIONED + " (" + COLUMNS + ", PRIMARY KEY (id, date_of_att)) "
+        + "PARTITION BY RANGE COLUMNS (date_of_att) (" + monthPartitions(YearMonth.from(FIRST_DAY), YearMonth.from(lastDay)) + ")");
+
+    long started = System.nanoTime();
+    for (int from = 0; from < days; from += DAYS_PER_INSERT) {
+      int to = Math.min(from + DAYS_PER_INSERT, days) - 1;
+      jdbcTemplate.update("INSERT INTO " + PLAIN + " (id, employee_id, date_of_att, type, sign_in_time, sign_out_time) "
+          + "SELECT d.n * " + EMPLOYEES + " + e.n + 1, e.n + 1, DATE_ADD(?, INTERVAL d.n DAY), "
+          + "IF(e.n % 20 = 0, 'ABSENT', 'PRESENT'), '09:00:00', '17:00:00' "
+          + "FROM " + NUMBERS + " d JOIN " + NUMBERS + " e WHERE d.n BETWEEN ? AND ?", FIRST_DAY, from, to);
+      jdbcTemplate.update("INSERT INTO " + PARTITIONED + " SELECT * FROM " + PLAIN + " WHERE date_of_att BETWEEN ? AND ?",
+          FIRST_DAY.plusDays(from), FIRST_DAY.plusDays(to));
+    }
+    System.out.printf("Loaded %d rows into each table in %d s%n",
+        (long) days * EMPLOYEES, (System.nanoTime() - started) / 1_000_000_000);
+  }
+
+  private long timeReports(String table, long[] employeeIds, LocalDate[] starts) {
+    String sql = String.format(REPORT, table);
+    long started = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      jdbcTemplate.queryForList(sql, employeeIds[i], starts[i], starts[i].plusDays(29));
+    }
+    return (System.nanoTime() - started) / 1_000_000;
+  }
+
+  private long timeRangeCounts(String table, LocalDate[] starts) {
+    String sql = String.format(RANGE_COUNT, table);
+    long started = System.nanoTime();
+    for (int i = 0; i < QUERIES / 10; i++) {
+      jdbcTemplate.queryForList(sql, starts[i], starts[i].plusDays(29));
+    }
+    return (System.nanoTime() - started) / 1_000_000;
+  }
+
+  private static String monthPartitions(YearMonth first, YearMonth last) {
+    List<String> partitions = new ArrayList<>();
+    for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+      partitions.add("PARTITION p" + month.getYear() + String.format("%02d", month.getMonthValue())
+          + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+    partitions.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+    return String.join(", ", partitions);
+  }
+}
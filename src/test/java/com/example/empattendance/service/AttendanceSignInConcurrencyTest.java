@@ -0,0 +1,98 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires 1,000 sign-ins for the same employee at once and checks the unique key on
+ * (employee_id, date_of_att) lets exactly one of them create a row. Every other sign-in must be
+ * refused as already signed in; any other failure fails the test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceSignInConcurrencyTest {
+
+  private static final int SIGN_INS = 1_000;
+  private static final int THREADS = 32;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void parallelSignInsCreateExactlyOneRow() throws Exception {
+    Employee employee = employeeRepository.findAll().get(0);
+    AtomicInteger succeeded = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>(SIGN_INS);
+    try {
+      for (int i = 0; i < SIGN_INS; i++) {
+        futures.add(pool.submit(() -> {
+          start.await();
+          try {
+            attendanceService.signIn(employee.getId(), null);
+            succeeded.incrementAndGet();
+          } catch (IllegalStateException e) {
+            if (!"Employee already signed in today".equals(e.getMessage())) {
+              failures.add(e);
+            }
+            rejected.incrementAndGet();
+          } catch (RuntimeException e) {
+            failures.add(e);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    Integer rows = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM attendancerecords WHERE employee_id = ? AND date_of_att = ?",
+        Integer.class, employee.getId(), LocalDate.now());
+    assertThat(failures).isEmpty();
+    assertThat(rows).isEqualTo(1);
+    assertThat(succeeded.get()).isEqualTo(1);
+    assertThat(rejected.get()).isEqualTo(SIGN_INS - 1);
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.dto.DailyAttendanceSummary;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.model.Department;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records of one department's employees land in different summary stripes, and the department's
+ * daily totals still add up, including after a rebuild has put everything into stripe 0.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceSummaryServiceTest {
+
+  private static final int EMPLOYEES = 4;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private DepartmentService departmentService;
+
+  @Autowired
+  private EmployeeService employeeService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Department department;
+  private final List<Employee> employees = new ArrayList<>();
+
+  @BeforeEach
+  void createDepartment() {
+    department = new Department();
+    department.setName("Summary Test");
+    department = departmentService.saveDepartment(department);
+    for (int i = 0; i < EMPLOYEES; i++) {
+      employees.add(employeeService.saveEmployee(employee(department, "Striped" + i)));
+    }
+  }
+
+  @AfterEach
+  void deleteDepartment() {
+    departmentService.deleteDepartment(department.getId());
+  }
+
+  @Test
+  void totalsAreSummedOverStripes() {
+    LocalDate today = LocalDate.now();
+    employees.forEach(employee -> attendanceService.signIn(employee.getId(), null));
+    attendanceService.recordSickLeave(employees.get(0).getId(), today, null);
+
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(DISTINCT stripe) FROM attendance_daily_summary WHERE department_id = ? AND date_of_att = ?",
+        Integer.class, department.getId(), today)).isGreaterThan(1);
+    assertCounts(today, EMPLOYEES - 1, 1);
+  }
+
+  @Test
+  void changesAfterARebuildAreAddedToItsTotals() {
+    LocalDate today = LocalDate.now();
+    employees.forEach(employee -> attendanceService.signIn(employee.getId(), null));
+    // What rebuild writes; its statement uses MySQL time functions that H2 does not have
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary WHERE department_id = ?", department.getId());
+    jdbcTemplate.update("INSERT INTO attendance_daily_summary (date_of_att, department_id, type, stripe, record_count, "
+        + "total_minutes) VALUES (?, ?, 'PRESENT', 0, ?, 0)", today, department.getId(), EMPLOYEES);
+
+    attendanceService.recordSickLeave(employees.get(EMPLOYEES - 1).getId(), today, null);
+
+    assertCounts(today, EMPLOYEES - 1, 1);
+  }
+
+  private void assertCounts(LocalDate date, long present, long sick) {
+    List<DailyAttendanceSummary> summary = departmentService.getAttendanceSummary(department.getId(), date, date);
+    assertThat(summary).singleElement().satisfies(day -> {
+      assertThat(day.getCounts().get(AttendanceType.PRESENT)).isEqualTo(present);
+      assertThat(day.getCounts().get(AttendanceType.SICK_LEAVE)).isEqualTo(sick);
+    });
+  }
+
+  private static Employee employee(Department department, String lastName) {
+    Employee employee = new Employee();
+    employee.setFirstName("Test");
+    employee.setLastName(lastName);
+    employee.setGender(Gender.MALE);
+    employee.setDepartment(department);
+    employee.setType(EmployeeType.NON_MEDICAL);
+    return employee;
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.model.Department;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
+import com.example.empattendance.repository.DepartmentRepository;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deleting an employee or a department takes their attendance records and daily summary totals
+ * with them, as a partitioned attendancerecords has no foreign key to cascade on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeDeletionTest {
+
+  @Autowired
+  private EmployeeService employeeService;
+
+  @Autowired
+  private DepartmentService departmentService;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private DepartmentRepository departmentRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void deletingAnEmployeeDeletesTheirRecordsAndSummaryTotals() {
+    Department department = departmentRepository.findAll().get(0);
+    Employee kept = employeeService.saveEmployee(employee(department, "Kept"));
+    Employee deleted = employeeService.saveEmployee(employee(department, "Deleted"));
+    LocalDate tomorrow = LocalDate.now().plusDays(1);
+    attendanceService.signIn(kept.getId(), null);
+    attendanceService.signIn(deleted.getId(), null);
+    attendanceService.recordAbsence(deleted.getId(), tomorrow, tomorrow.plusDays(2), false, null);
+
+    employeeService.deleteEmployee(deleted.getId());
+
+    assertThat(recordCount(deleted.getId())).isZero();
+    assertThat(recordCount(kept.getId())).isEqualTo(1);
+    assertThat(summaryCount(department.getId(), LocalDate.now())).isEqualTo(1);
+    assertThat(summaryCount(department.getId(), tomorrow)).isZero();
+    employeeService.deleteEmployee(kept.getId());
+  }
+
+  @Test
+  void deletingADepartmentDeletesItsRecordsAndSummaryTotals() {
+    Department department = new Department();
+    department.setName("Deletion Test");
+    department = departmentService.saveDepartment(department);
+    Employee employee = employeeService.saveEmployee(employee(department, "Member"));
+    attendanceService.signIn(employee.getId(), null);
+
+    departmentService.deleteDepartment(department.getId());
+
+    assertThat(recordCount(employee.getId())).isZero();
+    assertThat(summaryCount(department.getId(), LocalDate.now())).isZero();
+  }
+
+  private long recordCount(Long employeeId) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendancerecords WHERE employee_id = ?", Long.class, employeeId);
+  }
+
+  private long summaryCount(Long departmentId, LocalDate date) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(record_count), 0) FROM attendance_daily_summary WHERE department_id = ? AND date_of_att = ?",
+        Long.class, departmentId, date);
+  }
+
+  private static Employee employee(Department department, String lastName) {
+    Employee employee = new Employee();
+    employee.setFirstName("Test");
+    employee.setLastName(lastName);
+    employee.setGender(Gender.FEMALE);
+    employee.setDepartment(department);
+    employee.setType(EmployeeType.NON_MEDICAL);
+    return employee;
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.empattendance.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.dto.CursorPage;
+import com.example.empattendance.model.Department;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.model.EmployeeType;
+import com.example.empattendance.model.Gender;
+import com.example.empattendance.repository.DepartmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filters 100k employees by department, type and gender through the specification-backed page
+ * and count queries, against fetching every employee and filtering in memory as callers did before.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class EmployeeFilterBenchmark {
+
+  private static final int EMPLOYEES = 100_000;
+  private static final long FIRST_EMPLOYEE_ID = 2_000_000L;
+  private static final int PAGE = 50;
+  private static final int QUERIES = 200;
+
+  @Autowired
+  private EmployeeService employeeService;
+
+  @Autowired
+  private DepartmentRepository departmentRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void deleteEmployees() {
+    jdbcTemplate.update("DELETE FROM employees WHERE id >= ?", FIRST_EMPLOYEE_ID);
+    // Rows written over JDBC bypass Hibernate's invalidation of cached pages
+    entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+  }
+
+  @Test
+  void filterAgainstFetchingEverything() {
+    List<Department> departments = departmentRepository.findAll();
+    load(departments);
+    Long departmentId = departments.get(departments.size() / 2).getId();
+
+    for (int pass = 0; pass < 2; pass++) {
+      long started = System.nanoTime();
+      CursorPage<Employee> page = null;
+      long count = 0;
+      for (int i = 0; i < QUERIES; i++) {
+        page = employeeService.getEmployeesPage(departmentId, EmployeeType.MEDICAL, Gender.FEMALE, null, PAGE);
+        count = employeeService.countEmployees(departmentId, EmployeeType.MEDICAL, Gender.FEMALE);
+      }
+      long filteredMicros = (System.nanoTime() - started) / 1_000 / QUERIES;
+
+      started = System.nanoTime();
+      List<Employee> matching = null;
+      for (int i = 0; i < QUERIES / 20; i++) {
+        matching = employeeService.getAllEmployees().stream()
+            .filter(employee -> employee.getDepartment().getId().equals(departmentId)
+                && employee.getType() == EmployeeType.MEDICAL && employee.getGender() == Gender.FEMALE)
+            .toList();
+      }
+      long fetchAllMicros = (System.nanoTime() - started) / 1_000 / (QUERIES / 20);
+
+      assertThat(count).isEqualTo(matching.size());
+      assertThat(page.getItems()).extracting(Employee::getId)
+          .containsExactlyElementsOf(matching.stream().map(Employee::getId).sorted().limit(PAGE).toList());
+      System.out.printf("Pass %d, %d employees, %d matching: page of %d plus count in %d us, fetch everything and filter in %d us%n",
+          pass + 1, EMPLOYEES, count, PAGE, filteredMicros, fetchAllMicros);
+    }
+  }
+
+  /** Employees spread evenly over the seeded departments, both types and both genders. */
+  private void load(List<Department> departments) {
+    List<Object[]> rows = new ArrayList<>(EMPLOYEES);
+    for (int i = 0; i < EMPLOYEES; i++) {
+      rows.add(new Object[] {
+          FIRST_EMPLOYEE_ID + i, "Bench", "Employee" + i,
+          i % 2 == 0 ? Gender.FEMALE.name() : Gender.MALE.name(),
+          departments.get(i % departments.size()).getId(),
+          (i / 2) % 2 == 0 ? EmployeeType.MEDICAL.name() : EmployeeType.NON_MEDICAL.name()
+      });
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO employees (id, first_name, last_name, gender, department_id, type) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.empattendance.repository.EmployeeRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeIdIndexTest {
+
+  private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+  private final EmployeeIdIndex index = new EmployeeIdIndex();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(index, "employeeRepository", employeeRepository);
+  }
+
+  @Test
+  void indexedIdsAreFoundWithoutAQuery() {
+    when(employeeRepository.findAllIds()).thenReturn(List.of(1L, 64L, 1000L));
+    index.rebuild();
+
+    assertThat(index.exists(64L)).isTrue();
+    verify(employeeRepository, never()).existsById(64L);
+  }
+
+  @Test
+  void idsBeyondCapacityFallBackToTheDatabase() {
+    long huge = 1L << 40;
+    when(employeeRepository.findAllIds()).thenReturn(List.of(1L, huge));
+    index.rebuild();
+    when(employeeRepository.existsById(huge)).thenReturn(true);
+    when(employeeRepository.existsById(Long.MAX_VALUE)).thenReturn(false);
+
+    assertThat(index.exists(huge)).isTrue();
+    assertThat(index.exists(Long.MAX_VALUE)).isFalse();
+    index.remove(huge);
+    verify(employeeRepository).existsById(huge);
+  }
+}
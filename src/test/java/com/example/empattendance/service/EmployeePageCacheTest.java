@@ -0,0 +1,63 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.config.SqlStatementTracker;
+import com.example.empattendance.dto.CursorPage;
+import com.example.empattendance.model.Employee;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the paged employee listings are served from the query cache and dropped when an employee
+ * is written.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeePageCacheTest {
+
+  @Autowired
+  private EmployeeService employeeService;
+
+  @Autowired
+  private DepartmentService departmentService;
+
+  @Autowired
+  private SqlStatementTracker sqlStatementTracker;
+
+  @Test
+  void pagesAreCachedUntilAnEmployeeIsWritten() {
+    CursorPage<Employee> first = employeeService.getEmployeesPage(null, 5);
+    Employee employee = first.getItems().get(0);
+    Long departmentId = employee.getDepartment().getId();
+    departmentService.getEmployeesPageByDepartmentId(departmentId, null, 5);
+
+    assertThat(statementsRun(() -> employeeService.getEmployeesPage(null, 5))).isZero();
+    assertThat(statementsRun(() -> departmentService.getEmployeesPageByDepartmentId(departmentId, null, 5))).isZero();
+
+    String address = employee.getAddress();
+    employee.setAddress("Moved " + System.nanoTime());
+    employee = employeeService.saveEmployee(employee);
+
+    assertThat(statementsRun(() -> employeeService.getEmployeesPage(null, 5))).isPositive();
+    assertThat(statementsRun(() -> departmentService.getEmployeesPageByDepartmentId(departmentId, null, 5))).isPositive();
+
+    employee.setAddress(address);
+    employeeService.saveEmployee(employee);
+  }
+
+  private int statementsRun(Supplier<?> call) {
+    SqlStatementTracker.Scope scope = sqlStatementTracker.begin();
+    try {
+      call.get();
+      return scope.getCount();
+    } finally {
+      sqlStatementTracker.end(scope);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.empattendance.dto.AttendanceRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyServiceTest {
+
+  private final IdempotencyService idempotencyService = new IdempotencyService();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ReflectionTestUtils.setField(idempotencyService, "storeProvider", mock(ObjectProvider.class));
+    ReflectionTestUtils.setField(idempotencyService, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(idempotencyService, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(1));
+    ReflectionTestUtils.setField(idempotencyService, "maxEntries", 1000);
+    ReflectionTestUtils.setField(idempotencyService, "stripeCount", 4);
+    ReflectionTestUtils.setField(idempotencyService, "waitTimeout", Duration.ofSeconds(10));
+    idempotencyService.init();
+  }
+
+  @Test
+  void concurrentRequestsWithOneKeyRunTheActionOnce() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(16);
+    List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+    try {
+      for (int i = 0; i < 200; i++) {
+        responses.add(pool.submit(() -> {
+          start.await();
+          return idempotencyService.execute("sign-in", "key-1", request(1L, "late"), () -> {
+            runs.incrementAndGet();
+            sleep(50);
+            return new ResponseEntity<>("signed in", HttpStatus.CREATED);
+          });
+        }));
+      }
+      start.countDown();
+      for (Future<ResponseEntity<?>> response : responses) {
+        assertThat(response.get(30, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void keyReusedWithADifferentBodyIsRefused() {
+    idempotencyService.execute("sign-in", "key-2", request(1L, "late"), () -> new ResponseEntity<>("signed in", HttpStatus.CREATED));
+
+    ResponseEntity<?> response = idempotencyService.execute("sign-in", "key-2", request(2L, "late"),
+        () -> new ResponseEntity<>("signed in", HttpStatus.CREATED));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @Test
+  void waiterGivesUpWithConflictWhenTheFirstRequestIsSlow() throws Exception {
+    ReflectionTestUtils.setField(idempotencyService, "waitTimeout", Duration.ofMillis(100));
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<ResponseEntity<?>> first = pool.submit(() -> idempotencyService.execute("sign-in", "key-3", request(1L, null), () -> {
+        running.countDown();
+        await(release);
+        return new ResponseEntity<>("signed in", HttpStatus.CREATED);
+      }));
+      running.await();
+
+      ResponseEntity<?> second = idempotencyService.execute("sign-in", "key-3", request(1L, null),
+          () -> new ResponseEntity<>("ran twice", HttpStatus.CREATED));
+
+      assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+      release.countDown();
+      assertThat(first.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("signed in");
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static AttendanceRequest request(Long employeeId, String notes) {
+    AttendanceRequest request = new AttendanceRequest();
+    request.setEmployeeId(employeeId);
+    request.setNotes(notes);
+    return request;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
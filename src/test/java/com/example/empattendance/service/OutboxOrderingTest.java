@@ -0,0 +1,159 @@
+package com.example.empattendance.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.Employee;
+import com.example.empattendance.repository.EmployeeRepository;
+import com.example.empattendance.repository.OutboxRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes attendance for several employees in parallel while several relays drain the outbox, then
+ * checks every employee's events reached the sink in commit order. Two partitions make several
+ * employees share each one.
+ */
+@SpringBootTest(properties = "outbox.relay.partitions=2")
+@ActiveProfiles("test")
+class OutboxOrderingTest {
+
+  private static final int EMPLOYEES = 6;
+  private static final int RELAYS = 3;
+
+  @Autowired
+  private AttendanceService attendanceService;
+
+  @Autowired
+  private OutboxService outboxService;
+
+  @Autowired
+  private OutboxRepository outboxRepository;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${outbox.sink.file}")
+  private Path sinkFile;
+
+  @Value("${outbox.relay.partitions}")
+  private int partitions;
+
+  @AfterEach
+  void deleteRecords() {
+    jdbcTemplate.update("DELETE FROM attendancerecords");
+    jdbcTemplate.update("DELETE FROM attendance_daily_summary");
+  }
+
+  @Test
+  void partitionsAreRelayedInInsertionOrder() throws Exception {
+    outboxService.relay();
+    long offset = Files.exists(sinkFile) ? Files.size(sinkFile) : 0;
+    List<Employee> employees = employeeRepository.findAll();
+    Employee highest = employees.get(employees.size() - 1);
+    Employee lower = employees.stream()
+        .filter(employee -> employee.getId() < highest.getId())
+        .filter(employee -> Math.floorMod(employee.getId(), partitions) == Math.floorMod(highest.getId(), partitions))
+        .findFirst().orElseThrow();
+    LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    attendanceService.recordAbsence(highest.getId(), tomorrow, "first");
+    attendanceService.recordSickLeave(lower.getId(), tomorrow, tomorrow.plusDays(4), false, "later");
+    outboxService.relay();
+
+    // Ordering by employee would put the lower id first whenever both land in the same batch
+    String written = new String(Files.readAllBytes(sinkFile), StandardCharsets.UTF_8).substring((int) offset);
+    List<Long> employeeIds = new ArrayList<>();
+    for (String line : written.split("\n")) {
+      employeeIds.add(objectMapper.readTree(line).get("employeeId").asLong());
+    }
+    assertThat(employeeIds).hasSize(6).startsWith(highest.getId());
+  }
+
+  @Test
+  void eachEmployeesEventsAreDeliveredInCommitOrder() throws Exception {
+    long offset = Files.exists(sinkFile) ? Files.size(sinkFile) : 0;
+    List<Employee> employees = employeeRepository.findAll().subList(0, EMPLOYEES);
+    LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(EMPLOYEES + RELAYS);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    List<Future<?>> writers = new ArrayList<>();
+    List<Future<?>> relays = new ArrayList<>();
+    try {
+      for (Employee employee : employees) {
+        writers.add(pool.submit(() -> {
+          AttendanceRecord record = attendanceService.signIn(employee.getId(), "in");
+          attendanceService.signOut(record.getId(), "out");
+          attendanceService.recordSickLeave(employee.getId(), tomorrow, tomorrow.plusDays(4), false, "flu");
+          attendanceService.recordAbsence(employee.getId(), tomorrow.plusDays(2), "no show");
+          return null;
+        }));
+      }
+      for (int i = 0; i < RELAYS; i++) {
+        relays.add(pool.submit(() -> {
+          while (writing.get()) {
+            outboxService.relay();
+          }
+          return null;
+        }));
+      }
+      for (Future<?> writer : writers) {
+        writer.get(60, TimeUnit.SECONDS);
+      }
+      writing.set(false);
+      for (Future<?> relay : relays) {
+        relay.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    outboxService.relay();
+    assertThat(outboxRepository.count()).isZero();
+
+    Map<Long, List<JsonNode>> delivered = new HashMap<>();
+    String written = new String(Files.readAllBytes(sinkFile), StandardCharsets.UTF_8).substring((int) offset);
+    for (String line : written.split("\n")) {
+      JsonNode event = objectMapper.readTree(line);
+      delivered.computeIfAbsent(event.get("employeeId").asLong(), id -> new ArrayList<>()).add(event);
+    }
+
+    assertThat(delivered).hasSize(EMPLOYEES);
+    for (List<JsonNode> events : delivered.values()) {
+      // sign-in, sign-out, five days of sick leave, then one of them overwritten by an absence
+      assertThat(events).hasSize(8);
+      assertThat(events).extracting(event -> event.get("employeeSeq").asLong()).isSorted().doesNotHaveDuplicates();
+      assertThat(events.get(0).get("signOutTime").isNull()).isTrue();
+      assertThat(events.get(1).get("signOutTime").isNull()).isFalse();
+      assertThat(events.get(7).get("type").asText()).isEqualTo("ABSENT");
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.empattendance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.empattendance.dto.PayrollSummary;
+import com.example.empattendance.model.AttendanceRecord;
+import com.example.empattendance.model.AttendanceType;
+import com.example.empattendance.repository.AttendanceFact;
+import com.example.empattendance.repository.AttendanceRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PayrollServiceTest {
+
+  private final AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+  private final AttendanceArchiveService attendanceArchiveService = mock(AttendanceArchiveService.class);
+  private final PayrollService payrollService = new PayrollService();
+  private final YearMonth thisMonth = YearMonth.now();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(payrollService, "attendanceRepository", attendanceRepository);
+    ReflectionTestUtils.setField(payrollService, "attendanceArchiveService", attendanceArchiveService);
+    ReflectionTestUtils.setField(payrollService, "retainedPeriods", 1);
+  }
+
+  @Test
+  void eventsAppliedWhileReconcilingAreKept() {
+    LocalDate day1 = thisMonth.atDay(1);
+    LocalDate day2 = thisMonth.atDay(2);
+    when(attendanceRepository.findFactsBetween(any(), any())).thenReturn(List.of(fact(7L, day1, AttendanceType.ABSENT)));
+    payrollService.reconcile();
+
+    // The table is read before the sign-in on day 2 commits, whose event lands mid-reconcile
+    when(attendanceRepository.findFactsBetween(any(), any())).thenAnswer(invocation -> {
+      payrollService.record(7L, day2, AttendanceType.PRESENT, LocalTime.of(9, 0), LocalTime.of(17, 0));
+      return List.of(fact(7L, day1, AttendanceType.SICK_LEAVE));
+    });
+    assertThat(payrollService.reconcile()).isEqualTo(1);
+
+    PayrollSummary summary = payrollService.getSummary(7L, thisMonth);
+    assertThat(summary.getDaysPresent()).isEqualTo(1);
+    assertThat(summary.getSickDays()).isEqualTo(1);
+    assertThat(summary.getAbsences()).isZero();
+    assertThat(summary.getMinutesWorked()).isEqualTo(480);
+  }
+
+  @Test
+  void periodsOutsideTheWindowAreReadFromTheArchiveAndTheTable() {
+    when(attendanceRepository.findFactsBetween(any(), any())).thenReturn(List.of());
+    payrollService.reconcile();
+    YearMonth lastYear = thisMonth.minusYears(1);
+    when(attendanceRepository.findFactsByEmployeeIdBetween(7L, lastYear.atDay(1), lastYear.atEndOfMonth()))
+        .thenReturn(List.of(fact(7L, lastYear.atDay(3), AttendanceType.ABSENT), fact(7L, lastYear.atDay(4), AttendanceType.ABSENT)));
+    when(attendanceArchiveService.findRecords(7L, lastYear.atDay(1), lastYear.atEndOfMonth())).thenReturn(List.of(
+        new AttendanceRecord(1L, null, lastYear.atDay(2), AttendanceType.SICK_LEAVE, null, null, null),
+        new AttendanceRecord(2L, null, lastYear.atDay(3), AttendanceType.SICK_LEAVE, null, null, null)));
+
+    // The live record of day 3 overrides its archived copy
+    PayrollSummary summary = payrollService.getSummary(7L, lastYear);
+    assertThat(summary.getAbsences()).isEqualTo(2);
+    assertThat(summary.getSickDays()).isEqualTo(1);
+  }
+
+  private static AttendanceFact fact(Long employeeId, LocalDate date, AttendanceType type) {
+    return new AttendanceFact() {
+      public Long getRecordId() {
+        return null;
+      }
+
+      public Long getEmployeeId() {
+        return employeeId;
+      }
+
+      public LocalDate getDateOfAtt() {
+        return date;
+      }
+
+      public AttendanceType getType() {
+        return type;
+      }
+
+      public LocalTime getSignInTime() {
+        return null;
+      }
+
+      public LocalTime getSignOutTime() {
+        return null;
+      }
+    };
+  }
+}